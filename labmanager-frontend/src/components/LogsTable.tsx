@@ -14,18 +14,26 @@ interface SystemLog {
     username: string;
 }
 
+type LevelFilter = '' | SystemLog['level'];
+
 const LogsTable: React.FC = () => {
     const [logs, setLogs] = useState<SystemLog[]>([]);
     const [filteredLogs, setFilteredLogs] = useState<SystemLog[]>([]);
     const [loading, setLoading] = useState(true);
     const [searchTerm, setSearchTerm] = useState('');
+    const [level, setLevel] = useState<LevelFilter>('');
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
 
-    const fetchLogs = async () => {
+    // The API returns the newest page and an X-Next-Cursor header while older rows remain
+    const fetchLogs = async (cursor: string | null = null) => {
         setLoading(true);
         try {
-            const response = await api.get('/logs');
-            setLogs(response.data);
-            setFilteredLogs(response.data);
+            const params: Record<string, string> = {};
+            if (level) params.level = level;
+            if (cursor) params.cursor = cursor;
+            const response = await api.get('/logs', { params });
+            setLogs(prev => cursor ? [...prev, ...response.data] : response.data);
+            setNextCursor(response.headers?.['x-next-cursor'] ?? null);
         } catch (error) {
             console.error("Error fetching logs", error);
             toast.error("No se pudieron cargar los logs del sistema");
@@ -36,7 +44,7 @@ const LogsTable: React.FC = () => {
 
     useEffect(() => {
         fetchLogs();
-    }, []);
+    }, [level]);
 
     useEffect(() => {
         const lowerTerm = searchTerm.toLowerCase();
@@ -68,6 +76,17 @@ const LogsTable: React.FC = () => {
                     Bitácora del Sistema
                 </h3>
                 <div className="flex gap-4">
+                    <select
+                        aria-label="Nivel"
+                        className="px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-blue-500 focus:border-transparent outline-none"
+                        value={level}
+                        onChange={(e) => setLevel(e.target.value as LevelFilter)}
+                    >
+                        <option value="">Todos los niveles</option>
+                        <option value="INFO">Información</option>
+                        <option value="WARN">Advertencia</option>
+                        <option value="ERROR">Error</option>
+                    </select>
                     <div className="relative">
                         <Search className="absolute left-3 top-1/2 transform -translate-y-1/2 text-gray-400" size={18} />
                         <input
@@ -79,7 +98,7 @@ const LogsTable: React.FC = () => {
                         />
                     </div>
                     <button
-                        onClick={fetchLogs}
+                        onClick={() => fetchLogs()}
                         className="p-2 text-gray-600 hover:text-blue-600 transition-colors"
                         title="Recargar"
                     >
@@ -131,6 +150,18 @@ const LogsTable: React.FC = () => {
                     </tbody>
                 </table>
             </div>
+
+            {nextCursor && (
+                <div className="mt-4 text-center">
+                    <button
+                        onClick={() => fetchLogs(nextCursor)}
+                        disabled={loading}
+                        className="px-4 py-2 text-sm font-medium text-blue-600 border border-blue-600 rounded-lg hover:bg-blue-50 disabled:opacity-50 transition-colors"
+                    >
+                        Cargar más
+                    </button>
+                </div>
+            )}
         </div>
     );
 };
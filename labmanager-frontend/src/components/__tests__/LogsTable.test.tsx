@@ -44,7 +44,7 @@ describe('LogsTable', () => {
     it('calls api to fetch logs on mount', async () => {
         (api.get as any).mockResolvedValue({ data: [] });
         render(<LogsTable />);
-        expect(api.get).toHaveBeenCalledWith('/logs');
+        expect(api.get).toHaveBeenCalledWith('/logs', { params: {} });
     });
 
     // 2. Render Logs List
@@ -172,4 +172,37 @@ describe('LogsTable', () => {
             expect(badge).toHaveClass('text-yellow-800');
         });
     });
+
+    // 12. Level Filter is sent to the API
+    it('requests only the selected level from the api', async () => {
+        (api.get as any).mockResolvedValue({ data: mockLogs });
+        render(<LogsTable />);
+
+        await waitFor(() => screen.getByText('User login successful'));
+
+        fireEvent.change(screen.getByLabelText('Nivel'), { target: { value: 'ERROR' } });
+
+        await waitFor(() => {
+            expect(api.get).toHaveBeenLastCalledWith('/logs', { params: { level: 'ERROR' } });
+        });
+    });
+
+    // 13. Older pages follow X-Next-Cursor
+    it('loads older logs with the next cursor', async () => {
+        (api.get as any)
+            .mockResolvedValueOnce({ data: [mockLogs[2]], headers: { 'x-next-cursor': 'abc' } })
+            .mockResolvedValueOnce({ data: [mockLogs[1]], headers: {} });
+        render(<LogsTable />);
+
+        await waitFor(() => screen.getByText('Connection failed'));
+
+        fireEvent.click(screen.getByText('Cargar más'));
+
+        await waitFor(() => {
+            expect(screen.getByText('High memory usage')).toBeInTheDocument();
+        });
+        expect(api.get).toHaveBeenLastCalledWith('/logs', { params: { cursor: 'abc' } });
+        expect(screen.getByText('Connection failed')).toBeInTheDocument();
+        expect(screen.queryByText('Cargar más')).not.toBeInTheDocument();
+    });
 });
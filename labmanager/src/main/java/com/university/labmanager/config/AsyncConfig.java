@@ -0,0 +1,123 @@
+package com.university.labmanager.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async work runs on three bounded pools instead of one shared default, so a
+ * slow SMTP server or a big export cannot starve the rest:
+ * <ul>
+ * <li>mailExecutor: email outbox dispatches woken up after a commit. When
+ * its queue is full the caller waits up to
+ * labmanager.async.mail.offer-timeout-ms for room (backpressure), then the
+ * wake-up is dropped; the message stays in the outbox for the next poll.</li>
+ * <li>reportExecutor: streamed report downloads (see WebConfig).</li>
+ * <li>applicationTaskExecutor: every other @Async method and background
+ * refreshes; rejects when full.</li>
+ * </ul>
+ * Queue depth and rejections are exposed through {@link ExecutorMetrics}.
+ * The project targets Java 17, so these are platform-thread pools rather than
+ * virtual threads.
+ */
+@Configuration
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final ExecutorMetrics metrics;
+
+    @Value("${labmanager.async.mail.threads:4}")
+    private int mailThreads;
+
+    @Value("${labmanager.async.mail.queue-capacity:500}")
+    private int mailQueueCapacity;
+
+    @Value("${labmanager.async.mail.offer-timeout-ms:2000}")
+    private long mailOfferTimeoutMs;
+
+    @Value("${labmanager.async.reports.threads:4}")
+    private int reportThreads;
+
+    @Value("${labmanager.async.reports.queue-capacity:50}")
+    private int reportQueueCapacity;
+
+    @Value("${labmanager.async.default.threads:8}")
+    private int defaultThreads;
+
+    @Value("${labmanager.async.default.queue-capacity:100}")
+    private int defaultQueueCapacity;
+
+    public AsyncConfig(ExecutorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mailExecutor() {
+        long offerTimeoutMs = mailOfferTimeoutMs;
+        RejectedExecutionHandler waitThenDrop = (task, pool) -> {
+            try {
+                if (!pool.isShutdown() && pool.getQueue().offer(task, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Mail queue full ({} waiting), outbox dispatch left to the next poll", pool.getQueue().size());
+        };
+        ThreadPoolTaskExecutor executor = executor("mail", mailThreads, mailQueueCapacity,
+                metrics.countingRejections("mail", waitThenDrop));
+        // Let running dispatches finish on shutdown
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor() {
+        return executor("reports", reportThreads, reportQueueCapacity,
+                metrics.countingRejections("reports", new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    // Keeps Boot's bean name: DashboardMetricsCache and anything else asking for the default executor get this one
+    @Bean
+    public ThreadPoolTaskExecutor applicationTaskExecutor() {
+        return executor("default", defaultThreads, defaultQueueCapacity,
+                metrics.countingRejections("default", new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return applicationTaskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async {}.{} failed: {}", method.getDeclaringClass().getSimpleName(),
+                method.getName(), ex.getMessage(), ex);
+    }
+
+    private ThreadPoolTaskExecutor executor(String name, int threads, int queueCapacity,
+            RejectedExecutionHandler rejectionHandler) {
+        if (threads <= 0 || queueCapacity < 0) {
+            throw new IllegalArgumentException("labmanager.async." + name + " needs threads > 0 and queue-capacity >= 0");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setRejectedExecutionHandler(rejectionHandler);
+        metrics.register(name, executor);
+        return executor;
+    }
+}
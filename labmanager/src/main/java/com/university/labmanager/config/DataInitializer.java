@@ -13,11 +13,11 @@ import java.nio.charset.StandardCharsets;
 public class DataInitializer implements CommandLineRunner {
 
     private final JdbcTemplate jdbcTemplate;
-    private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
 
-    public DataInitializer(JdbcTemplate jdbcTemplate) {
+    public DataInitializer(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
         this.jdbcTemplate = jdbcTemplate;
-        this.passwordEncoder = new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Override
@@ -50,6 +50,17 @@ public class DataInitializer implements CommandLineRunner {
                 System.out.println(">>> DataInitializer: Users found (" + count + "). Skipping import.sql.");
             }
 
+            // Rows written before email_normalized existed (or by plain SQL) need it for forgot-password lookups
+            try {
+                int backfilled = jdbcTemplate.update(
+                        "UPDATE app_users SET email_normalized = LOWER(TRIM(email)) WHERE email IS NOT NULL AND email_normalized IS NULL");
+                if (backfilled > 0) {
+                    System.out.println(">>> DataInitializer: Normalized email for " + backfilled + " users.");
+                }
+            } catch (Exception e) {
+                System.out.println(">>> Email normalization failed. " + e.getMessage());
+            }
+
             // CRITICAL: Ensure Admin always exists and has known password
             Integer adminCount = 0;
             try {
@@ -59,22 +70,27 @@ public class DataInitializer implements CommandLineRunner {
                 System.out.println(">>> Admin check failed. " + e.getMessage());
             }
 
-            String encodedPassword = passwordEncoder.encode("password");
-
             if (adminCount == null || adminCount == 0) {
+                String encodedPassword = passwordEncoder.encode("password");
                 System.out.println(">>> DataInitializer: Admin user NOT found. Creating emergency admin...");
                 try {
                     jdbcTemplate.update(
-                            "INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES (?, ?, ?, ?, ?, ?)",
-                            "admin", "Super Admin", "admin@university.edu", encodedPassword, "ROLE_ADMIN", false);
+                            "INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                            "admin", "Super Admin", "admin@university.edu", "admin@university.edu", encodedPassword,
+                            "ROLE_ADMIN", false);
                     System.out.println(">>> DataInitializer: Admin created successfully.");
                 } catch (Exception e) {
                     System.out.println(">>> Failed to insert Admin. " + e.getMessage());
                 }
             } else {
-                // Reset password just in case
-                jdbcTemplate.update("UPDATE app_users SET password = ? WHERE matricula = 'admin'", encodedPassword);
-                System.out.println(">>> DataInitializer: Admin password FORCE RESET to 'password'.");
+                // Reset password just in case (one check instead of re-encoding and writing on every startup)
+                String storedPassword = jdbcTemplate.queryForObject(
+                        "SELECT password FROM app_users WHERE matricula = 'admin'", String.class);
+                if (storedPassword == null || !passwordEncoder.matches("password", storedPassword)) {
+                    jdbcTemplate.update("UPDATE app_users SET password = ? WHERE matricula = 'admin'",
+                            passwordEncoder.encode("password"));
+                    System.out.println(">>> DataInitializer: Admin password FORCE RESET to 'password'.");
+                }
             }
 
             System.out.println("=============================================");
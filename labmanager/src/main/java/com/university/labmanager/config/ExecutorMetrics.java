@@ -0,0 +1,65 @@
+package com.university.labmanager.config;
+
+import com.university.labmanager.dto.ExecutorStatsDTO;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the executors built by {@link AsyncConfig}: pool and queue
+ * sizes come from the executors themselves, rejections are counted by
+ * wrapping their rejection handlers.
+ */
+@Component
+public class ExecutorMetrics {
+
+    private final Map<String, Tracked> executors = new ConcurrentHashMap<>();
+
+    RejectedExecutionHandler countingRejections(String name, RejectedExecutionHandler delegate) {
+        LongAdder rejected = tracked(name).rejected;
+        return (task, pool) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+
+    void register(String name, ThreadPoolTaskExecutor executor) {
+        tracked(name).executor = executor;
+    }
+
+    public List<ExecutorStatsDTO> getStats() {
+        return executors.entrySet().stream()
+                .filter(entry -> entry.getValue().executor != null)
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    ThreadPoolTaskExecutor executor = entry.getValue().executor;
+                    ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+                    return ExecutorStatsDTO.builder()
+                            .name(entry.getKey())
+                            .poolSize(pool.getPoolSize())
+                            .maxPoolSize(pool.getMaximumPoolSize())
+                            .active(pool.getActiveCount())
+                            .queued(pool.getQueue().size())
+                            .queueCapacity(executor.getQueueCapacity())
+                            .completed(pool.getCompletedTaskCount())
+                            .rejected(entry.getValue().rejected.sum())
+                            .build();
+                })
+                .toList();
+    }
+
+    private Tracked tracked(String name) {
+        return executors.computeIfAbsent(name, key -> new Tracked());
+    }
+
+    private static final class Tracked {
+        final LongAdder rejected = new LongAdder();
+        volatile ThreadPoolTaskExecutor executor;
+    }
+}
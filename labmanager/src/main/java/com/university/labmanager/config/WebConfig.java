@@ -1,14 +1,29 @@
 package com.university.labmanager.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.lang.NonNull;
 
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final AsyncTaskExecutor reportExecutor;
+
+    public WebConfig(@Qualifier("reportExecutor") AsyncTaskExecutor reportExecutor) {
+        this.reportExecutor = reportExecutor;
+    }
+
+    // Streamed report downloads (StreamingResponseBody) write on their own pool
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(reportExecutor);
+    }
+
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
         // Serve uploaded files from the absolute path or relative to project root
@@ -1,9 +1,13 @@
 package com.university.labmanager.config;
 
+import com.university.labmanager.security.AdaptivePasswordEncoder;
+import com.university.labmanager.security.AsyncLoginService;
 import com.university.labmanager.security.AuthEntryPointJwt;
 import com.university.labmanager.security.AuthTokenFilter;
 import com.university.labmanager.security.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,7 +16,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,6 +29,22 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    // 0 calibrates the cost to target-ms at startup
+    @Value("${labmanager.auth.bcrypt.cost:0}")
+    private int bcryptCost;
+
+    @Value("${labmanager.auth.bcrypt.target-ms:100}")
+    private long bcryptTargetMs;
+
+    @Value("${labmanager.auth.bcrypt.min-cost:10}")
+    private int bcryptMinCost;
+
+    @Value("${labmanager.auth.bcrypt.max-cost:14}")
+    private int bcryptMaxCost;
+
+    @Value("${labmanager.auth.hashing.threads:0}")
+    private int hashingThreads;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -37,6 +56,8 @@ public class WebSecurityConfig {
 
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-encodes hashes with an outdated cost after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
 
         return authProvider;
     }
@@ -48,7 +69,8 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new AdaptivePasswordEncoder(bcryptCost, bcryptTargetMs, bcryptMinCost, bcryptMaxCost,
+                AsyncLoginService.hashingThreads(hashingThreads));
     }
 
     @Bean
@@ -57,7 +79,10 @@ public class WebSecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authorizeHttpRequests(auth -> auth.requestMatchers("/api/auth/**").permitAll()
+                // An async dispatch resumes a request that was already authorized (streamed reports);
+                // the JWT filter does not run again for it
+                .authorizeHttpRequests(auth -> auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/test/**").permitAll()
                         .requestMatchers("/uploads/**").permitAll()
                         .anyRequest().authenticated());
@@ -76,6 +101,8 @@ public class WebSecurityConfig {
                 "http://localhost:5175", "http://localhost:3000"));
         configuration.setAllowedMethods(java.util.Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(java.util.Arrays.asList("*"));
+        // Keyset cursor of the log API (see LogController)
+        configuration.setExposedHeaders(java.util.Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         org.springframework.web.cors.UrlBasedCorsConfigurationSource source = new org.springframework.web.cors.UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
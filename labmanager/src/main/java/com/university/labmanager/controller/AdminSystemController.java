@@ -0,0 +1,51 @@
+package com.university.labmanager.controller;
+
+import com.university.labmanager.config.ExecutorMetrics;
+import com.university.labmanager.dto.EmailOutboxStatsDTO;
+import com.university.labmanager.dto.ExecutorStatsDTO;
+import com.university.labmanager.dto.JobStatusDTO;
+import com.university.labmanager.dto.OverdueProcessingStatsDTO;
+import com.university.labmanager.scheduler.JobLeaseService;
+import com.university.labmanager.scheduler.OverdueReservationProcessor;
+import com.university.labmanager.service.EmailOutboxDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/system")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminSystemController {
+
+    private final ExecutorMetrics executorMetrics;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+    private final OverdueReservationProcessor overdueReservationProcessor;
+    private final JobLeaseService jobLeaseService;
+
+    @GetMapping("/executors")
+    public ResponseEntity<List<ExecutorStatsDTO>> getExecutorStats() {
+        return ResponseEntity.ok(executorMetrics.getStats());
+    }
+
+    @GetMapping("/email-outbox")
+    public ResponseEntity<EmailOutboxStatsDTO> getEmailOutboxStats() {
+        return ResponseEntity.ok(emailOutboxDispatcher.getStats());
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<OverdueProcessingStatsDTO> getOverdueProcessingStats() {
+        return ResponseEntity.ok(overdueReservationProcessor.getStats());
+    }
+
+    // Lease holder, fencing token and last run of each cluster-wide scheduled job
+    @GetMapping("/jobs")
+    public ResponseEntity<List<JobStatusDTO>> getJobStatus() {
+        return ResponseEntity.ok(jobLeaseService.getStatus());
+    }
+}
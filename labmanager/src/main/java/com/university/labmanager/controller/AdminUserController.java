@@ -1,17 +1,21 @@
 package com.university.labmanager.controller;
 
 import com.university.labmanager.dto.MessageResponse;
+import com.university.labmanager.dto.PrincipalCacheStatsDTO;
 import com.university.labmanager.dto.SignupRequest;
 import com.university.labmanager.model.User;
 import com.university.labmanager.model.enums.Role;
 import com.university.labmanager.repository.UserRepository;
+import com.university.labmanager.security.UserPrincipalCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -26,18 +30,26 @@ public class AdminUserController {
     @Autowired
     PasswordEncoder encoder;
 
+    @Autowired
+    UserPrincipalCache principalCache;
+
     @GetMapping
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @GetMapping("/principal-cache-stats")
+    public ResponseEntity<PrincipalCacheStatsDTO> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
     @PostMapping
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         if (userRepository.existsByMatricula(signUpRequest.getMatricula())) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: Matricula is already taken!"));
         }
 
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if (userRepository.existsByEmailIgnoreCase(signUpRequest.getEmail())) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: Email is already in use!"));
         }
 
@@ -69,13 +81,16 @@ public class AdminUserController {
     @Autowired
     com.university.labmanager.service.EmailService emailService;
 
+    // The sanction and its notification email commit together
     @PutMapping("/{id}/sanction")
+    @Transactional
     public ResponseEntity<?> toggleSanction(@PathVariable Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Error: User not found."));
 
         boolean newStatus = !user.isSanctioned();
         user.setSanctioned(newStatus);
+        user.setTokensValidAfter(Instant.now());
         userRepository.save(user);
 
         if (newStatus) {
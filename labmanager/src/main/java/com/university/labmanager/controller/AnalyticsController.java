@@ -1,9 +1,11 @@
 package com.university.labmanager.controller;
 
 import com.university.labmanager.dto.AnalyticsDashboardDTO;
-import com.university.labmanager.service.AnalyticsService;
+import com.university.labmanager.dto.DashboardCacheStatsDTO;
+import com.university.labmanager.service.DashboardMetricsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -13,10 +15,16 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AnalyticsController {
 
-    private final AnalyticsService analyticsService;
+    private final DashboardMetricsCache dashboardMetricsCache;
 
     @GetMapping("/dashboard")
     public ResponseEntity<AnalyticsDashboardDTO> getDashboard() {
-        return ResponseEntity.ok(analyticsService.getDashboardMetrics());
+        return ResponseEntity.ok(dashboardMetricsCache.get());
+    }
+
+    @GetMapping("/dashboard/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DashboardCacheStatsDTO> getDashboardCacheStats() {
+        return ResponseEntity.ok(dashboardMetricsCache.getStats());
     }
 }
@@ -8,19 +8,23 @@ import com.university.labmanager.model.User;
 import com.university.labmanager.model.enums.Role;
 import com.university.labmanager.repository.UserRepository;
 import com.university.labmanager.repository.WhitelistStudentRepository;
+import com.university.labmanager.security.AsyncLoginService;
 import com.university.labmanager.security.JwtUtils;
+import com.university.labmanager.security.PasswordResetRateLimiter;
 import com.university.labmanager.security.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -29,7 +33,7 @@ import java.util.stream.Collectors;
 // Force re-compile
 public class AuthController {
     @Autowired
-    AuthenticationManager authenticationManager;
+    AsyncLoginService asyncLoginService;
 
     @Autowired
     UserRepository userRepository;
@@ -44,25 +48,32 @@ public class AuthController {
     JwtUtils jwtUtils;
 
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getMatricula(), loginRequest.getPassword()));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(item -> item.getAuthority())
-                .collect(Collectors.toList());
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        CompletableFuture<Authentication> login;
+        try {
+            // BCrypt runs on the login pool; this request thread is released meanwhile
+            login = asyncLoginService.authenticate(loginRequest.getMatricula(), loginRequest.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(new MessageResponse("Demasiados inicios de sesión simultáneos. Inténtalo de nuevo.")));
+        }
 
-        return ResponseEntity.ok(new JwtResponse(jwt,
-                userDetails.getId(),
-                userDetails.getMatricula(),
-                userDetails.getFullName(),
-                roles,
-                userDetails.isSanctioned()));
+        return login.thenApply(authentication -> {
+            String jwt = jwtUtils.generateJwtToken(authentication);
+
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            List<String> roles = userDetails.getAuthorities().stream()
+                    .map(item -> item.getAuthority())
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(new JwtResponse(jwt,
+                    userDetails.getId(),
+                    userDetails.getMatricula(),
+                    userDetails.getFullName(),
+                    roles,
+                    userDetails.isSanctioned()));
+        });
     }
 
     @PostMapping("/signup")
@@ -73,7 +84,7 @@ public class AuthController {
                     .body(new MessageResponse("Error: ¡La matrícula ya está registrada!"));
         }
 
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if (userRepository.existsByEmailIgnoreCase(signUpRequest.getEmail())) {
             return ResponseEntity
                     .badRequest()
                     .body(new MessageResponse("Error: ¡El correo electrónico ya está en uso!"));
@@ -111,15 +122,28 @@ public class AuthController {
     @Autowired
     com.university.labmanager.service.EmailService emailService;
 
+    @Autowired
+    PasswordResetRateLimiter resetRateLimiter;
+
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@RequestBody java.util.Map<String, String> request) {
+    public ResponseEntity<?> forgotPassword(@RequestBody java.util.Map<String, String> request,
+            HttpServletRequest httpRequest) {
         String email = request.get("email");
         System.out.println(">>> FORGOT PASSWORD REQUEST: " + email);
 
-        com.university.labmanager.model.User user = userRepository.findAll().stream()
-                .filter(u -> u.getEmail() != null && u.getEmail().equalsIgnoreCase(email))
-                .findFirst()
-                .orElse(null);
+        long retryAfterMs = resetRateLimiter.acquireForIp(httpRequest.getRemoteAddr());
+        if (retryAfterMs > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000))
+                    .body(new MessageResponse("Demasiadas solicitudes. Inténtalo más tarde."));
+        }
+
+        // Over the per-email limit we answer as usual but send nothing, so the limit does not reveal accounts
+        String normalizedEmail = User.normalizeEmail(email);
+        com.university.labmanager.model.User user = normalizedEmail != null && !normalizedEmail.isEmpty()
+                && resetRateLimiter.acquireForEmail(normalizedEmail)
+                        ? userRepository.findByEmailIgnoreCase(email).orElse(null)
+                        : null;
 
         System.out.println(">>> User found: " + (user != null ? user.getId() : "null"));
 
@@ -163,6 +187,7 @@ public class AuthController {
         user.setPassword(encoder.encode(newPassword));
         user.setResetPasswordToken(null);
         user.setResetPasswordTokenExpiry(null);
+        user.setTokensValidAfter(java.time.Instant.now());
         userRepository.save(user);
 
         System.out.println(">>> PASSWORD RESET SUCCESSFUL for user " + user.getId());
@@ -1,14 +1,20 @@
 package com.university.labmanager.controller;
 
+import com.university.labmanager.dto.SystemLogPage;
 import com.university.labmanager.model.SystemLog;
+import com.university.labmanager.model.SystemLogRollup;
 import com.university.labmanager.service.LogService;
+import com.university.labmanager.service.SystemLogRetentionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,10 +23,35 @@ import java.util.List;
 public class LogController {
 
     private final LogService logService;
+    private final SystemLogRetentionService retentionService;
 
+    // Newest logs first, one page at a time. The body stays a plain array; when
+    // there are older rows the X-Next-Cursor header carries the value to pass
+    // back as ?cursor= for the next page.
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SystemLog>> getAllLogs() {
-        return ResponseEntity.ok(logService.getRecentLogs());
+    public ResponseEntity<List<SystemLog>> getAllLogs(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        SystemLogPage page = logService.findLogs(level, category, username, from, to, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    // Hourly ACTION counts for the period whose raw rows have already been archived
+    @GetMapping("/rollups")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SystemLogRollup>> getRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(retentionService.getRollups(from, to));
     }
 }
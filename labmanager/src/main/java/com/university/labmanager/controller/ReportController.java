@@ -1,93 +1,129 @@
 package com.university.labmanager.controller;
 
+import com.university.labmanager.dto.MessageResponse;
+import com.university.labmanager.dto.ReportJobDTO;
+import com.university.labmanager.dto.ReportJobRequest;
+import com.university.labmanager.service.ReportJobService;
 import com.university.labmanager.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
+
+// Reports are streamed to the client while they are generated (see ReportService)
 @RestController
 @RequestMapping("/api/reports")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*", maxAge = 3600)
+@Slf4j
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
     @GetMapping("/incidents/{format}")
-    public ResponseEntity<byte[]> getIncidentReport(@PathVariable String format) {
-        try {
-            byte[] content;
-            String fileName;
-            MediaType mediaType;
-
-            if ("pdf".equalsIgnoreCase(format)) {
-                content = reportService.generateIncidentReportPdf();
-                fileName = "incidents_report.pdf";
-                mediaType = MediaType.APPLICATION_PDF;
-            } else {
-                content = reportService.generateIncidentReportExcel();
-                fileName = "incidents_report.xlsx";
-                mediaType = MediaType.APPLICATION_OCTET_STREAM;
-            }
-
-            @SuppressWarnings("null")
-            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
-                    .contentType(mediaType);
-            return response.body(content);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+    public ResponseEntity<StreamingResponseBody> getIncidentReport(@PathVariable String format) {
+        if ("pdf".equalsIgnoreCase(format)) {
+            return attachment("incidents_report.pdf", MediaType.APPLICATION_PDF,
+                    out -> reportService.writeIncidentReportPdf(out));
         }
+        return attachment("incidents_report.xlsx", MediaType.APPLICATION_OCTET_STREAM,
+                out -> reportService.writeIncidentReportExcel(out));
     }
 
     @GetMapping("/inventory/{format}")
-    public ResponseEntity<byte[]> getInventoryReport(@PathVariable String format,
+    public ResponseEntity<StreamingResponseBody> getInventoryReport(@PathVariable String format,
             @RequestParam(defaultValue = "ALL") String status) {
-        try {
-            byte[] content;
-            String fileName;
-            MediaType mediaType;
+        // Validate before streaming starts so a bad filter is still a 400
+        ReportService.laptopStatusFilter(status);
 
-            if ("pdf".equalsIgnoreCase(format)) {
-                content = reportService.generateLaptopReportPdf(status);
-                fileName = "inventory_report.pdf";
-                mediaType = MediaType.APPLICATION_PDF;
-            } else {
-                content = reportService.generateLaptopReportExcel(status);
-                fileName = "inventory_report.xlsx";
-                mediaType = MediaType.APPLICATION_OCTET_STREAM;
-            }
-
-            @SuppressWarnings("null")
-            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
-                    .contentType(mediaType);
-            return response.body(content);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+        if ("pdf".equalsIgnoreCase(format)) {
+            return attachment("inventory_report.pdf", MediaType.APPLICATION_PDF,
+                    out -> reportService.writeLaptopReportPdf(status, out));
         }
+        return attachment("inventory_report.xlsx", MediaType.APPLICATION_OCTET_STREAM,
+                out -> reportService.writeLaptopReportExcel(status, out));
     }
 
     @GetMapping("/reservations/pdf")
-    public ResponseEntity<byte[]> getReservationReportPdf(
+    public ResponseEntity<StreamingResponseBody> getReservationReportPdf(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime start,
             @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime end,
             @RequestParam(required = false) Long studentId,
             @RequestParam(required = false) String professor) {
+        ReportService.reservationStatusFilter(status);
+
+        return attachment("reservations_report.pdf", MediaType.APPLICATION_PDF,
+                out -> reportService.writeReservationReportPdf(status, start, end, studentId, professor, out));
+    }
+
+    // Background generation for big exports: submit, poll the job, then download the file
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(@RequestBody ReportJobRequest request) {
         try {
-            byte[] content = reportService.generateReservationReportPdf(status, start, end, studentId, professor);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=reservations_report.pdf")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(content);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(request));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(new MessageResponse("Too many reports are being generated, try again later"));
         }
     }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable String id) {
+        ReportJobDTO job = reportJobService.getJob(id);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<?> downloadReportJob(@PathVariable String id) {
+        ReportJobDTO job = reportJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file = reportJobService.getResultFile(id);
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Report is " + job.getStatus()));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFileName())
+                .contentType(MediaType.parseMediaType(reportJobService.getMediaType(id)))
+                .body(new FileSystemResource(file));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String fileName, MediaType mediaType,
+            ReportWriter writer) {
+        StreamingResponseBody body = out -> {
+            try {
+                writer.write(out);
+            } catch (java.io.IOException e) {
+                // Usually the client went away mid-download
+                log.warn("Report {} aborted: {}", fileName, e.getMessage());
+                throw e;
+            } catch (Exception e) {
+                // Headers are already sent; all we can do is cut the response short
+                log.error("Error generating report {}: {}", fileName, e.getMessage());
+                throw new java.io.IOException("Error generating report " + fileName, e);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+                .contentType(mediaType)
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface ReportWriter {
+        void write(java.io.OutputStream out) throws Exception;
+    }
 }
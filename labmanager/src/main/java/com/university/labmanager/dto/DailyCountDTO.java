@@ -0,0 +1,14 @@
+package com.university.labmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Projection row: reservations starting on a given day
+@Data
+@AllArgsConstructor
+public class DailyCountDTO {
+    private LocalDate day;
+    private Long count;
+}
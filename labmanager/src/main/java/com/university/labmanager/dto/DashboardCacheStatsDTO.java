@@ -0,0 +1,22 @@
+package com.university.labmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Counters of the dashboard metrics cache, for the admin stats endpoint
+@Data
+@Builder
+public class DashboardCacheStatsDTO {
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long recomputations;
+    private long failures;
+    private double hitRatio;
+    private double lastComputeMs;
+    private double averageComputeMs;
+    // Age of the cached dashboard, -1 when nothing is cached yet
+    private long ageMs;
+    private long ttlMs;
+    private long staleMs;
+}
@@ -0,0 +1,19 @@
+package com.university.labmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Email outbox depth and dispatcher counters, for the admin stats endpoint
+@Data
+@Builder
+public class EmailOutboxStatsDTO {
+    // Queued or waiting for a retry
+    private long pending;
+    // Gave up after max-attempts
+    private long failed;
+    private long sentSinceStart;
+    private long retriedSinceStart;
+    private long failedSinceStart;
+    // SMTP connections opened (one per batch)
+    private long batchesSinceStart;
+}
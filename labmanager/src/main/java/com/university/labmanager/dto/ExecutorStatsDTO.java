@@ -0,0 +1,19 @@
+package com.university.labmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Load of one async executor, for the admin stats endpoint
+@Data
+@Builder
+public class ExecutorStatsDTO {
+    private String name;
+    private int poolSize;
+    private int maxPoolSize;
+    private int active;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    // Submissions that found the queue full (and, for mail, still full after waiting)
+    private long rejected;
+}
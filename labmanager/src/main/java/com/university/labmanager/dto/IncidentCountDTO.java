@@ -0,0 +1,15 @@
+package com.university.labmanager.dto;
+
+import com.university.labmanager.model.enums.IncidentSeverity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Projection row: incidents per severity x resolved x report type (reportType may be null on old rows)
+@Data
+@AllArgsConstructor
+public class IncidentCountDTO {
+    private IncidentSeverity severity;
+    private Boolean resolved;
+    private String reportType;
+    private Long count;
+}
@@ -0,0 +1,21 @@
+package com.university.labmanager.dto;
+
+import com.university.labmanager.model.enums.IncidentSeverity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One line of the incidents report, streamed straight from the database (laptop fields are null for desktops)
+@Data
+@AllArgsConstructor
+public class IncidentReportRow {
+    private String reportType;
+    private String location;
+    private Long laptopId;
+    private String laptopModel;
+    private String laptopSerialNumber;
+    private String description;
+    private IncidentSeverity severity;
+    private LocalDateTime reportedAt;
+}
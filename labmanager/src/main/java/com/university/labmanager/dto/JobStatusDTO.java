@@ -0,0 +1,22 @@
+package com.university.labmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Lease holder and last run of a cluster-wide scheduled job, for the admin stats endpoint
+@Data
+@Builder
+public class JobStatusDTO {
+    private String jobName;
+    private String owner;
+    private boolean heldByThisNode;
+    private LocalDateTime leaseUntil;
+    private long fencingToken;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private Long lastDurationMs;
+    private String lastRunBy;
+    private String lastError;
+}
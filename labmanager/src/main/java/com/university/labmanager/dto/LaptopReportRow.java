@@ -0,0 +1,15 @@
+package com.university.labmanager.dto;
+
+import com.university.labmanager.model.enums.LaptopStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One line of the inventory report, streamed straight from the database
+@Data
+@AllArgsConstructor
+public class LaptopReportRow {
+    private Long id;
+    private String model;
+    private String serialNumber;
+    private LaptopStatus status;
+}
@@ -0,0 +1,21 @@
+package com.university.labmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Counters of the overdue sweep, for the admin stats endpoint
+@Data
+@Builder
+public class OverdueProcessingStatsDTO {
+    private long runs;
+    // One transaction each
+    private long chunks;
+    private long reservationsMarkedOverdue;
+    private long usersSanctioned;
+    private long notificationsQueued;
+    private long totalRunMs;
+    private long lastRunMs;
+    private LocalDateTime lastRunAt;
+}
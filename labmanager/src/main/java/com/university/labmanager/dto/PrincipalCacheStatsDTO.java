@@ -0,0 +1,22 @@
+package com.university.labmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Counters of the user principal cache, for the admin stats endpoint
+@Data
+@Builder
+public class PrincipalCacheStatsDTO {
+    private long hits;
+    private long misses;
+    // Dropped to stay under maxSize
+    private long evictions;
+    // Dropped because the user changed
+    private long invalidations;
+    private double hitRatio;
+    private double lastLoadMs;
+    private double averageLoadMs;
+    private int size;
+    private int maxSize;
+    private long ttlMs;
+}
@@ -0,0 +1,20 @@
+package com.university.labmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// State of an asynchronous report job (status QUEUED, RUNNING, DONE or FAILED)
+@Data
+@Builder
+public class ReportJobDTO {
+    private String id;
+    private String type;
+    private String format;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String fileName;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.university.labmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Submission for an asynchronous report: type RESERVATIONS, INVENTORY or INCIDENTS; format pdf or xlsx
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+    private String type;
+    private String format;
+    private String status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long studentId;
+    private String professor;
+}
@@ -0,0 +1,15 @@
+package com.university.labmanager.dto;
+
+import com.university.labmanager.model.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One line of the reservations report, streamed straight from the database
+@Data
+@AllArgsConstructor
+public class ReservationReportRow {
+    private String laptopModel;
+    private String userFullName;
+    private String professor;
+    private ReservationStatus status;
+}
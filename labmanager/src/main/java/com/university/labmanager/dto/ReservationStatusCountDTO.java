@@ -0,0 +1,13 @@
+package com.university.labmanager.dto;
+
+import com.university.labmanager.model.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Projection row: reservations per status
+@Data
+@AllArgsConstructor
+public class ReservationStatusCountDTO {
+    private ReservationStatus status;
+    private Long count;
+}
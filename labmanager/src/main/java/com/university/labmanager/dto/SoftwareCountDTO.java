@@ -0,0 +1,12 @@
+package com.university.labmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Projection row: how often a software package appears on the given reservations' laptops
+@Data
+@AllArgsConstructor
+public class SoftwareCountDTO {
+    private String name;
+    private Long count;
+}
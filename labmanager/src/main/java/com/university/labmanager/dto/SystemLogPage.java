@@ -0,0 +1,15 @@
+package com.university.labmanager.dto;
+
+import com.university.labmanager.model.SystemLog;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// One keyset page of system logs, newest first; nextCursor is null on the last page
+@Data
+@AllArgsConstructor
+public class SystemLogPage {
+    private List<SystemLog> items;
+    private String nextCursor;
+}
@@ -0,0 +1,227 @@
+package com.university.labmanager.event;
+
+import com.university.labmanager.model.Incident;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.IncidentSeverity;
+import com.university.labmanager.model.enums.ReservationStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bridges Hibernate flush events to Spring application events so in-memory
+ * read models can follow every entity write (repositories, schedulers,
+ * controllers) without each call site having to remember to notify them.
+ *
+ * Events are published while the transaction is still open; consumers should
+ * use @TransactionalEventListener so they only observe committed data.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityChangePublisher implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        log.info("Entity change events registered with Hibernate");
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Incident) {
+            publishIncident((Incident) event.getEntity(), EntityChangeType.CREATED, null, null);
+            return;
+        }
+        publish(event.getEntity(), EntityChangeType.CREATED, null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Incident) {
+            publishIncident((Incident) event.getEntity(), EntityChangeType.UPDATED, event.getOldState(),
+                    event.getPersister());
+            return;
+        }
+        ReservationStatus previousStatus = null;
+        if (event.getEntity() instanceof Reservation && event.getOldState() != null) {
+            Object old = event.getOldState()[propertyIndex(event.getPersister(), "status")];
+            previousStatus = old instanceof ReservationStatus ? (ReservationStatus) old : null;
+        }
+        publish(event.getEntity(), EntityChangeType.UPDATED, previousStatus);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Incident) {
+            publishIncident((Incident) event.getEntity(), EntityChangeType.DELETED, null, null);
+            return;
+        }
+        publish(event.getEntity(), EntityChangeType.DELETED, null);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        publishCollectionOwner(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        publishCollectionOwner(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * For rows written with plain JDBC (e.g. batched bulk bookings), which
+     * Hibernate never sees. Call inside the writing transaction.
+     */
+    public void reservationsInserted(List<Reservation> reservations) {
+        for (Reservation reservation : reservations) {
+            publish(reservation, EntityChangeType.CREATED, null);
+        }
+    }
+
+    /**
+     * For rows changed with set-based JPQL updates (e.g. the overdue sweep),
+     * which bypass the flush events. Pass the rows as they are after the
+     * update; call inside the writing transaction.
+     */
+    public void reservationsUpdated(List<Reservation> reservations, ReservationStatus previousStatus) {
+        for (Reservation reservation : reservations) {
+            publish(reservation, EntityChangeType.UPDATED, previousStatus);
+        }
+    }
+
+    public void usersUpdated(Collection<User> users) {
+        for (User user : users) {
+            publish(user, EntityChangeType.UPDATED, null);
+        }
+    }
+
+    public void laptopsUpdated(Collection<Laptop> laptops) {
+        for (Laptop laptop : laptops) {
+            publish(laptop, EntityChangeType.UPDATED, null);
+        }
+    }
+
+    private void publishCollectionOwner(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof Laptop) {
+            publish(event.getAffectedOwnerOrNull(), EntityChangeType.UPDATED, null);
+        }
+    }
+
+    private void publish(Object entity, EntityChangeType type, ReservationStatus previousStatus) {
+        try {
+            if (entity instanceof Reservation) {
+                eventPublisher.publishEvent(toEvent((Reservation) entity, type, previousStatus));
+            } else if (entity instanceof Laptop) {
+                eventPublisher.publishEvent(toEvent((Laptop) entity, type));
+            } else if (entity instanceof User) {
+                User user = (User) entity;
+                eventPublisher.publishEvent(UserChangedEvent.builder()
+                        .type(type)
+                        .userId(user.getId())
+                        .matricula(user.getMatricula())
+                        .role(user.getRole())
+                        .sanctioned(user.isSanctioned())
+                        .build());
+            }
+        } catch (Exception e) {
+            // Never break the user's transaction because of a read model
+            log.error("Error publishing change event for {}: {}", entity.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void publishIncident(Incident incident, EntityChangeType type, Object[] oldState,
+            EntityPersister persister) {
+        try {
+            IncidentChangedEvent.IncidentChangedEventBuilder builder = IncidentChangedEvent.builder()
+                    .type(type)
+                    .incidentId(incident.getId())
+                    .severity(incident.getSeverity())
+                    .resolved(incident.isResolved())
+                    .reportType(incident.getReportType());
+            if (oldState != null) {
+                builder.previousSeverity((IncidentSeverity) oldState[propertyIndex(persister, "severity")])
+                        .previousResolved((Boolean) oldState[propertyIndex(persister, "resolved")])
+                        .previousReportType((String) oldState[propertyIndex(persister, "reportType")]);
+            }
+            eventPublisher.publishEvent(builder.build());
+        } catch (Exception e) {
+            log.error("Error publishing change event for Incident: {}", e.getMessage());
+        }
+    }
+
+    private ReservationChangedEvent toEvent(Reservation reservation, EntityChangeType type,
+            ReservationStatus previousStatus) {
+        return ReservationChangedEvent.builder()
+                .type(type)
+                .reservationId(reservation.getId())
+                .laptopId(reservation.getLaptop() != null ? reservation.getLaptop().getId() : null)
+                .userId(reservation.getUser() != null ? reservation.getUser().getId() : null)
+                .startTime(reservation.getStartTime())
+                .endTime(reservation.getEndTime())
+                .status(reservation.getStatus())
+                .previousStatus(previousStatus)
+                .build();
+    }
+
+    private LaptopChangedEvent toEvent(Laptop laptop, EntityChangeType type) {
+        Set<Software> software = null;
+        if (type != EntityChangeType.DELETED && laptop.getInstalledSoftware() != null
+                && Hibernate.isInitialized(laptop.getInstalledSoftware())) {
+            software = new HashSet<>();
+            for (Software sw : laptop.getInstalledSoftware()) {
+                software.add(Software.builder().id(sw.getId()).name(sw.getName()).version(sw.getVersion()).build());
+            }
+        }
+        return LaptopChangedEvent.builder()
+                .type(type)
+                .laptopId(laptop.getId())
+                .serialNumber(laptop.getSerialNumber())
+                .model(laptop.getModel())
+                .status(laptop.getStatus())
+                .installedSoftware(software)
+                .build();
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown property " + property + " on " + persister.getEntityName());
+    }
+}
@@ -0,0 +1,7 @@
+package com.university.labmanager.event;
+
+public enum EntityChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,22 @@
+package com.university.labmanager.event;
+
+import com.university.labmanager.model.enums.IncidentSeverity;
+import lombok.Builder;
+import lombok.Value;
+
+// Detached snapshot of an incident row after a write was flushed.
+// Delivered to @TransactionalEventListener consumers once the transaction commits.
+@Value
+@Builder
+public class IncidentChangedEvent {
+    EntityChangeType type;
+    Long incidentId;
+    IncidentSeverity severity;
+    boolean resolved;
+    String reportType;
+
+    // State before this write (only for updates; null when Hibernate had no loaded state)
+    IncidentSeverity previousSeverity;
+    Boolean previousResolved;
+    String previousReportType;
+}
@@ -0,0 +1,22 @@
+package com.university.labmanager.event;
+
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.enums.LaptopStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+// Detached snapshot of a laptop row (and, when loaded, its installed software).
+@Value
+@Builder
+public class LaptopChangedEvent {
+    EntityChangeType type;
+    Long laptopId;
+    String serialNumber;
+    String model;
+    LaptopStatus status;
+
+    // Null when the software collection was not loaded by this write (i.e. it did not change)
+    Set<Software> installedSoftware;
+}
@@ -0,0 +1,24 @@
+package com.university.labmanager.event;
+
+import com.university.labmanager.model.enums.ReservationStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Detached snapshot of a reservation row after a write was flushed.
+// Delivered to @TransactionalEventListener consumers once the transaction commits.
+@Value
+@Builder
+public class ReservationChangedEvent {
+    EntityChangeType type;
+    Long reservationId;
+    Long laptopId;
+    Long userId;
+    LocalDateTime startTime;
+    LocalDateTime endTime;
+    ReservationStatus status;
+
+    // Status before this write (null for inserts or when Hibernate had no loaded state)
+    ReservationStatus previousStatus;
+}
@@ -0,0 +1,16 @@
+package com.university.labmanager.event;
+
+import com.university.labmanager.model.enums.Role;
+import lombok.Builder;
+import lombok.Value;
+
+// Detached snapshot of a user row after a write (sign-up, sanction, role or password change).
+@Value
+@Builder
+public class UserChangedEvent {
+    EntityChangeType type;
+    Long userId;
+    String matricula;
+    Role role;
+    boolean sanctioned;
+}
@@ -0,0 +1,43 @@
+package com.university.labmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Which node may run a cluster-wide scheduled job, and how its last run went (see JobLeaseService)
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    // Null until a node first takes the lease
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    // Incremented each time the lease changes hands; a node's writes only count under its current token
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    private LocalDateTime lastStartedAt;
+
+    private LocalDateTime lastFinishedAt;
+
+    private Long lastDurationMs;
+
+    private String lastRunBy;
+
+    @Column(length = 1000)
+    private String lastError;
+}
@@ -8,7 +8,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_status_end_time", columnList = "status, end_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,4 +53,11 @@ public class Reservation {
 
     @Column(nullable = true, length = 1000)
     private String feedback;
+
+    // Notification state, so each message goes out once even across restarts
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
+    @Column(name = "overdue_notified_at")
+    private LocalDateTime overdueNotifiedAt;
 }
@@ -5,7 +5,13 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "system_logs")
+// Every log query pages by (timestamp, id) newest first, optionally narrowed to one level, category or user
+@Table(name = "system_logs", indexes = {
+        @Index(name = "idx_system_logs_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_system_logs_level_timestamp_id", columnList = "level, timestamp, id"),
+        @Index(name = "idx_system_logs_category_timestamp_id", columnList = "category, timestamp, id"),
+        @Index(name = "idx_system_logs_username_timestamp_id", columnList = "username, timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,33 @@
+package com.university.labmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Hourly count of INFO "ACTION" logs per user and category, kept after the raw rows are archived
+@Entity
+@Table(name = "system_log_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_system_log_rollups_hour_user_category", columnNames = { "hour_start", "username", "category" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SystemLogRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    private String username;
+
+    private String category;
+
+    @Column(nullable = false)
+    private long entryCount;
+}
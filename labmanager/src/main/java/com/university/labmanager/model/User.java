@@ -3,11 +3,18 @@ package com.university.labmanager.model;
 import com.university.labmanager.model.enums.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.time.Instant;
+import java.util.Locale;
+
 @Entity
-@Table(name = "app_users")
+@Table(name = "app_users", indexes = {
+        @Index(name = "idx_users_email_normalized", columnList = "email_normalized"),
+        @Index(name = "idx_users_tokens_valid_after", columnList = "tokens_valid_after")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,6 +31,11 @@ public class User {
     @Column(unique = true)
     private String email;
 
+    // Lower-cased, trimmed copy of email for indexed case-insensitive lookups
+    @JsonIgnore
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
     @Column(nullable = false)
     private String fullName;
 
@@ -40,4 +52,20 @@ public class User {
 
     private String resetPasswordToken;
     private java.time.LocalDateTime resetPasswordTokenExpiry;
+
+    // Set when the role, sanction status or password changes: claims of tokens issued
+    // up to this instant are stale on every node, see UserPrincipalCache
+    @JsonIgnore
+    @Column(name = "tokens_valid_after")
+    private Instant tokensValidAfter;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        emailNormalized = normalizeEmail(email);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
 }
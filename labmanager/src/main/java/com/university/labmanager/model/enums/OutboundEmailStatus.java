@@ -0,0 +1,9 @@
+package com.university.labmanager.model.enums;
+
+public enum OutboundEmailStatus {
+    // Waiting for its next attempt
+    PENDING,
+    SENT,
+    // Gave up after labmanager.mail.outbox.max-attempts
+    FAILED
+}
@@ -9,5 +9,9 @@ public enum ReservationStatus {
     CANCELLED,
     OVERDUE;
     // Force re-compile
+
+    // Statuses that hold a laptop for their time window: new bookings may not overlap them
+    public static final java.util.Set<ReservationStatus> BLOCKING = java.util.Collections
+            .unmodifiableSet(java.util.EnumSet.of(PENDING, APPROVED, ACTIVE));
 }
 // Force re-index
@@ -15,4 +15,15 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
     List<Object[]> countBySeverity();
 
     long countByResolvedFalse();
+
+    // Severity x resolved x report type matrix for the dashboard
+    @org.springframework.data.jpa.repository.Query("SELECT new com.university.labmanager.dto.IncidentCountDTO(i.severity, i.resolved, i.reportType, COUNT(i)) " +
+            "FROM Incident i GROUP BY i.severity, i.resolved, i.reportType")
+    List<com.university.labmanager.dto.IncidentCountDTO> countGroupedBySeverityResolvedAndType();
+
+    // Incident report rows, read through a cursor
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @org.springframework.data.jpa.repository.Query("SELECT new com.university.labmanager.dto.IncidentReportRow(i.reportType, i.location, l.id, l.model, " +
+            "l.serialNumber, i.description, i.severity, i.reportedAt) FROM Incident i LEFT JOIN i.laptop l ORDER BY i.id")
+    java.util.stream.Stream<com.university.labmanager.dto.IncidentReportRow> streamReportRows();
 }
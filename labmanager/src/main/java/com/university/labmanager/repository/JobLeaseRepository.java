@@ -0,0 +1,61 @@
+package com.university.labmanager.repository;
+
+import com.university.labmanager.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // Plain INSERT (save() would merge into a row another node just created); fails on duplicates
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO job_leases (job_name, lease_until, fencing_token) VALUES (:job, :leaseUntil, 0)",
+            nativeQuery = true)
+    int insertFree(@Param("job") String job, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Extends a lease this node still holds under the given token; 0 means it was lost
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.leaseUntil = :until WHERE l.jobName = :job AND l.owner = :owner "
+            + "AND l.fencingToken = :token AND l.leaseUntil > :now")
+    int renew(@Param("job") String job, @Param("owner") String owner, @Param("token") long token,
+            @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Takes a free or expired lease, starting a new fencing epoch
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leaseUntil = :until, l.fencingToken = l.fencingToken + 1 "
+            + "WHERE l.jobName = :job AND (l.owner IS NULL OR l.leaseUntil <= :now)")
+    int takeOver(@Param("job") String job, @Param("owner") String owner, @Param("now") LocalDateTime now,
+            @Param("until") LocalDateTime until);
+
+    @Query("SELECT l.fencingToken FROM JobLease l WHERE l.jobName = :job AND l.owner = :owner")
+    Long findToken(@Param("job") String job, @Param("owner") String owner);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.lastStartedAt = :startedAt, l.lastFinishedAt = :finishedAt, "
+            + "l.lastDurationMs = :durationMs, l.lastRunBy = :owner, l.lastError = :error "
+            + "WHERE l.jobName = :job AND l.fencingToken = :token")
+    int recordRun(@Param("job") String job, @Param("token") long token, @Param("owner") String owner,
+            @Param("startedAt") LocalDateTime startedAt, @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("durationMs") long durationMs, @Param("error") String error);
+
+    // Lets another node take over straight away instead of waiting for the lease to expire
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.leaseUntil = :now WHERE l.jobName = :job AND l.owner = :owner "
+            + "AND l.fencingToken = :token")
+    int release(@Param("job") String job, @Param("owner") String owner, @Param("token") long token,
+            @Param("now") LocalDateTime now);
+
+    List<JobLease> findAllByOrderByJobNameAsc();
+}
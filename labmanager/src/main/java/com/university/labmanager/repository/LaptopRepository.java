@@ -1,8 +1,13 @@
 package com.university.labmanager.repository;
 
 import com.university.labmanager.model.Laptop;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -19,7 +24,7 @@ public interface LaptopRepository extends JpaRepository<Laptop, Long> {
                         "AND l.status = 'AVAILABLE' " +
                         "AND l.id NOT IN (" +
                         "    SELECT r.laptop.id FROM Reservation r " +
-                        "    WHERE r.status = 'ACTIVE' " +
+                        "    WHERE r.status IN :blockingStatuses " +
                         "    AND (r.startTime < :end AND r.endTime > :start)" +
                         ") " +
                         "GROUP BY l " +
@@ -29,7 +34,48 @@ public interface LaptopRepository extends JpaRepository<Laptop, Long> {
                         @Param("isAny") boolean isAny,
                         @Param("softwareCount") long softwareCount,
                         @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end);
+                        @Param("end") LocalDateTime end,
+                        @Param("blockingStatuses") java.util.Collection<com.university.labmanager.model.enums.ReservationStatus> blockingStatuses);
 
         List<Laptop> findByStatus(com.university.labmanager.model.enums.LaptopStatus status);
+
+        // SELECT ... FOR UPDATE: serializes bookings of the same laptop across application nodes
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT l FROM Laptop l WHERE l.id = :id")
+        java.util.Optional<Laptop> findByIdForUpdate(@Param("id") Long id);
+
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT l FROM Laptop l WHERE l.id IN :ids ORDER BY l.id")
+        List<Laptop> findAllByIdForUpdate(@Param("ids") java.util.Collection<Long> ids);
+
+        // Set-based status change; only rows still in one of the :from statuses move
+        @Modifying
+        @Query("UPDATE Laptop l SET l.status = :to WHERE l.id IN :ids AND l.status IN :from")
+        int updateStatus(@Param("ids") java.util.Collection<Long> ids,
+                        @Param("from") java.util.Collection<com.university.labmanager.model.enums.LaptopStatus> from,
+                        @Param("to") com.university.labmanager.model.enums.LaptopStatus to);
+
+        // Locks the rows still in one of :statuses; an updateStatus from them in the same transaction changes exactly these
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT l.id FROM Laptop l WHERE l.id IN :ids AND l.status IN :statuses ORDER BY l.id")
+        List<Long> lockIdsByIdInAndStatusIn(@Param("ids") java.util.Collection<Long> ids,
+                        @Param("statuses") java.util.Collection<com.university.labmanager.model.enums.LaptopStatus> statuses);
+
+        @Query("SELECT DISTINCT l FROM Laptop l LEFT JOIN FETCH l.installedSoftware")
+        List<Laptop> findAllWithSoftware();
+
+        // Given laptops with their software loaded in the same query
+        @Query("SELECT DISTINCT l FROM Laptop l LEFT JOIN FETCH l.installedSoftware WHERE l.id IN :ids")
+        List<Laptop> findAllWithSoftwareByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+        // [laptopId, softwareName] for every installed package
+        @Query("SELECT l.id, s.name FROM Laptop l JOIN l.installedSoftware s")
+        List<Object[]> findSoftwareNamesByLaptop();
+
+        // Inventory report rows, read through a cursor (null status = all laptops)
+        @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("SELECT new com.university.labmanager.dto.LaptopReportRow(l.id, l.model, l.serialNumber, l.status) " +
+                        "FROM Laptop l WHERE (:status IS NULL OR l.status = :status) ORDER BY l.id")
+        java.util.stream.Stream<com.university.labmanager.dto.LaptopReportRow> streamReportRows(
+                        @Param("status") com.university.labmanager.model.enums.LaptopStatus status);
 }
@@ -0,0 +1,31 @@
+package com.university.labmanager.repository;
+
+import com.university.labmanager.model.OutboundEmail;
+import com.university.labmanager.model.enums.OutboundEmailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // Due messages, oldest first (idx_email_outbox_status_next_attempt)
+    @Query("SELECT e FROM OutboundEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now "
+            + "ORDER BY e.nextAttemptAt ASC, e.id ASC")
+    List<OutboundEmail> findDue(@Param("status") OutboundEmailStatus status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    long countByStatus(OutboundEmailStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = :status AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("status") OutboundEmailStatus status, @Param("cutoff") LocalDateTime cutoff);
+}
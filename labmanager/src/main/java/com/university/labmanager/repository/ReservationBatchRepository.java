@@ -0,0 +1,66 @@
+package com.university.labmanager.repository;
+
+import com.university.labmanager.model.Reservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writer for class-sized bookings.
+ *
+ * Reservation IDs use IDENTITY, which stops Hibernate from batching inserts
+ * (every persist needs its ID back immediately). Here all rows of a bulk
+ * booking go out as a single JDBC batch and the generated IDs are read back
+ * from the same statement. Runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReservationBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO reservations "
+            + "(user_id, laptop_id, start_time, end_time, subject, professor, status, batch_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Reservation r = reservations.get(i);
+                        ps.setLong(1, r.getUser().getId());
+                        ps.setLong(2, r.getLaptop().getId());
+                        ps.setObject(3, r.getStartTime());
+                        ps.setObject(4, r.getEndTime());
+                        ps.setString(5, r.getSubject());
+                        ps.setString(6, r.getProfessor());
+                        ps.setString(7, r.getStatus().name());
+                        ps.setString(8, r.getBatchId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return reservations.size();
+                    }
+                }, keyHolder);
+
+        // Key column name differs per driver (ID on H2, GENERATED_KEY on MySQL)
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < reservations.size(); i++) {
+            reservations.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -38,4 +38,114 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
 
         @org.springframework.data.jpa.repository.Query("SELECT r FROM Reservation r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.laptop")
         List<Reservation> findAllWithDetails();
+
+        // Laptops (among the given ones) that already have a blocking reservation overlapping [start, end)
+        @org.springframework.data.jpa.repository.Query("SELECT DISTINCT r.laptop.id FROM Reservation r WHERE r.laptop.id IN :laptopIds " +
+                        "AND r.status IN :statuses AND r.startTime < :end AND r.endTime > :start")
+        List<Long> findOverlappingLaptopIds(
+                        @org.springframework.data.repository.query.Param("laptopIds") java.util.Collection<Long> laptopIds,
+                        @org.springframework.data.repository.query.Param("start") LocalDateTime start,
+                        @org.springframework.data.repository.query.Param("end") LocalDateTime end,
+                        @org.springframework.data.repository.query.Param("statuses") java.util.Collection<ReservationStatus> statuses);
+
+        // Lightweight rows for the availability index: [id, laptopId, startTime, endTime]
+        @org.springframework.data.jpa.repository.Query("SELECT r.id, r.laptop.id, r.startTime, r.endTime FROM Reservation r WHERE r.status IN :statuses")
+        List<Object[]> findBookingWindowsByStatusIn(
+                        @org.springframework.data.repository.query.Param("statuses") java.util.Collection<ReservationStatus> statuses);
+
+        // Deadlines for the lifecycle scheduler: [id, status, startTime, endTime, reminderSentAt]
+        @org.springframework.data.jpa.repository.Query("SELECT r.id, r.status, r.startTime, r.endTime, r.reminderSentAt FROM Reservation r WHERE r.status IN :statuses")
+        List<Object[]> findLifecycleWindowsByStatusIn(
+                        @org.springframework.data.repository.query.Param("statuses") java.util.Collection<ReservationStatus> statuses);
+
+        // Reservations ending in [from, to] that have not been reminded yet (idx_reservations_status_end_time)
+        @org.springframework.data.jpa.repository.Query("SELECT r FROM Reservation r JOIN FETCH r.user JOIN FETCH r.laptop " +
+                        "WHERE r.status = :status AND r.endTime BETWEEN :from AND :to AND r.reminderSentAt IS NULL")
+        List<Reservation> findReturnRemindersDue(
+                        @org.springframework.data.repository.query.Param("status") ReservationStatus status,
+                        @org.springframework.data.repository.query.Param("from") LocalDateTime from,
+                        @org.springframework.data.repository.query.Param("to") LocalDateTime to);
+
+        // Claims the reminder for one reservation; 0 means someone else already sent it
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("UPDATE Reservation r SET r.reminderSentAt = :sentAt WHERE r.id = :id AND r.reminderSentAt IS NULL")
+        int markReminderSent(@org.springframework.data.repository.query.Param("id") Long id,
+                        @org.springframework.data.repository.query.Param("sentAt") LocalDateTime sentAt);
+
+        // Next chunk of ACTIVE reservations that ended before :now, oldest first (idx_reservations_status_end_time)
+        @org.springframework.data.jpa.repository.Query("SELECT r.id FROM Reservation r WHERE r.status = :status AND r.endTime < :now ORDER BY r.endTime, r.id")
+        List<Long> findEndedIds(
+                        @org.springframework.data.repository.query.Param("status") ReservationStatus status,
+                        @org.springframework.data.repository.query.Param("now") LocalDateTime now,
+                        org.springframework.data.domain.Pageable pageable);
+
+        // Set-based overdue transition; overdue_notified_at keeps its first value
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("UPDATE Reservation r SET r.status = :to, r.overdueNotifiedAt = COALESCE(r.overdueNotifiedAt, :now) " +
+                        "WHERE r.id IN :ids AND r.status = :from AND r.endTime < :now")
+        int markEnded(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids,
+                        @org.springframework.data.repository.query.Param("from") ReservationStatus from,
+                        @org.springframework.data.repository.query.Param("to") ReservationStatus to,
+                        @org.springframework.data.repository.query.Param("now") LocalDateTime now);
+
+        // After markEnded: [id, userId, laptopId, startTime, endTime, overdueNotifiedAt, laptop model, serial number]
+        @org.springframework.data.jpa.repository.Query("SELECT r.id, r.user.id, l.id, r.startTime, r.endTime, r.overdueNotifiedAt, l.model, l.serialNumber " +
+                        "FROM Reservation r JOIN r.laptop l WHERE r.id IN :ids AND r.status = :status")
+        List<Object[]> findOverdueRows(
+                        @org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids,
+                        @org.springframework.data.repository.query.Param("status") ReservationStatus status);
+
+        // Per-laptop usage for bulk allocation: [laptopId, reservations, reservations in the given status]
+        @org.springframework.data.jpa.repository.Query("SELECT r.laptop.id, COUNT(r), SUM(CASE WHEN r.status = :status THEN 1 ELSE 0 END) " +
+                        "FROM Reservation r GROUP BY r.laptop.id")
+        List<Object[]> countUsageByLaptop(
+                        @org.springframework.data.repository.query.Param("status") ReservationStatus status);
+
+        // Maintenance candidates: laptops in the given statuses with more than :threshold reservations in :statuses,
+        // heaviest first: [laptopId, serialNumber, model, reservations]
+        @org.springframework.data.jpa.repository.Query("SELECT l.id, l.serialNumber, l.model, COUNT(r) FROM Reservation r JOIN r.laptop l " +
+                        "WHERE l.status IN :laptopStatuses AND r.status IN :statuses " +
+                        "GROUP BY l.id, l.serialNumber, l.model HAVING COUNT(r) > :threshold ORDER BY COUNT(r) DESC, l.id")
+        List<Object[]> findLaptopsUsedMoreThan(
+                        @org.springframework.data.repository.query.Param("laptopStatuses") java.util.Collection<com.university.labmanager.model.enums.LaptopStatus> laptopStatuses,
+                        @org.springframework.data.repository.query.Param("statuses") java.util.Collection<ReservationStatus> statuses,
+                        @org.springframework.data.repository.query.Param("threshold") long threshold);
+
+        // Dashboard aggregates, projected straight into DTOs (no entity hydration)
+        @org.springframework.data.jpa.repository.Query("SELECT new com.university.labmanager.dto.ReservationStatusCountDTO(r.status, COUNT(r)) " +
+                        "FROM Reservation r GROUP BY r.status")
+        List<com.university.labmanager.dto.ReservationStatusCountDTO> countGroupedByStatus();
+
+        @org.springframework.data.jpa.repository.Query("SELECT new com.university.labmanager.dto.DailyCountDTO(CAST(r.startTime AS LocalDate), COUNT(r)) " +
+                        "FROM Reservation r WHERE r.startTime > :since GROUP BY CAST(r.startTime AS LocalDate)")
+        List<com.university.labmanager.dto.DailyCountDTO> countGroupedByStartDaySince(
+                        @org.springframework.data.repository.query.Param("since") LocalDateTime since);
+
+        // Top software on the laptops of the given reservations (join through laptop_software)
+        @org.springframework.data.jpa.repository.Query("SELECT new com.university.labmanager.dto.SoftwareCountDTO(s.name, COUNT(r)) " +
+                        "FROM Reservation r JOIN r.laptop l JOIN l.installedSoftware s WHERE r.id IN :reservationIds " +
+                        "GROUP BY s.name ORDER BY COUNT(r) DESC, s.name")
+        List<com.university.labmanager.dto.SoftwareCountDTO> countSoftwareForReservations(
+                        @org.springframework.data.repository.query.Param("reservationIds") java.util.Collection<Long> reservationIds,
+                        org.springframework.data.domain.Pageable pageable);
+
+        // Most recent bookings first: [id, laptopId, startTime]
+        @org.springframework.data.jpa.repository.Query("SELECT r.id, r.laptop.id, r.startTime FROM Reservation r ORDER BY r.startTime DESC, r.id DESC")
+        List<Object[]> findRecentBookings(org.springframework.data.domain.Pageable pageable);
+
+        // Reservation report rows for the same filters as findReservationsByFilters, read through a cursor
+        @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @org.springframework.data.jpa.repository.Query("SELECT new com.university.labmanager.dto.ReservationReportRow(l.model, u.fullName, r.professor, r.status) " +
+                        "FROM Reservation r LEFT JOIN r.laptop l LEFT JOIN r.user u WHERE " +
+                        "(:status IS NULL OR r.status = :status) AND " +
+                        "(:start IS NULL OR r.startTime >= :start) AND " +
+                        "(:end IS NULL OR r.endTime <= :end) AND " +
+                        "(:userId IS NULL OR r.user.id = :userId) AND " +
+                        "(:professor IS NULL OR r.professor LIKE %:professor%) ORDER BY r.id")
+        java.util.stream.Stream<com.university.labmanager.dto.ReservationReportRow> streamReportRows(
+                        @org.springframework.data.repository.query.Param("status") ReservationStatus status,
+                        @org.springframework.data.repository.query.Param("start") LocalDateTime start,
+                        @org.springframework.data.repository.query.Param("end") LocalDateTime end,
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("professor") String professor);
 }
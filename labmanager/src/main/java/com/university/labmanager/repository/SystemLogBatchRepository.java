@@ -0,0 +1,38 @@
+package com.university.labmanager.repository;
+
+import com.university.labmanager.model.SystemLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * JDBC batch writer for audit log rows.
+ *
+ * Like reservations, system_logs uses IDENTITY keys, so Hibernate would send
+ * one INSERT per row. The async log writer hands over whole batches instead;
+ * nothing reads the generated IDs back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SystemLogBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO system_logs "
+            + "(timestamp, level, category, message, username) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<SystemLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setObject(1, log.getTimestamp());
+            ps.setString(2, log.getLevel().name());
+            ps.setString(3, log.getCategory());
+            ps.setString(4, log.getMessage());
+            ps.setString(5, log.getUsername());
+        });
+    }
+}
@@ -2,12 +2,20 @@ package com.university.labmanager.repository;
 
 import com.university.labmanager.model.SystemLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
-    // Basic finding, typically we want latest first
-    List<SystemLog> findAllByOrderByTimestampDesc();
+// Log pages are built as Specifications in LogService (only the filters actually given)
+public interface SystemLogRepository extends JpaRepository<SystemLog, Long>, JpaSpecificationExecutor<SystemLog> {
+
+    // Oldest rows first, one retention chunk at a time (walks the (timestamp, id) index)
+    @Query("SELECT l FROM SystemLog l WHERE l.timestamp < :cutoff ORDER BY l.timestamp, l.id")
+    List<SystemLog> findOlderThan(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package com.university.labmanager.repository;
+
+import com.university.labmanager.model.SystemLogRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SystemLogRollupRepository extends JpaRepository<SystemLogRollup, Long> {
+    // [from, to) by hour; uses the unique (hour_start, username, category) index
+    List<SystemLogRollup> findByHourStartGreaterThanEqualAndHourStartLessThanOrderByHourStartAsc(
+            LocalDateTime from, LocalDateTime to);
+}
@@ -2,7 +2,14 @@ package com.university.labmanager.repository;
 
 import com.university.labmanager.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository // Force re-compile
@@ -13,6 +20,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    Optional<User> findFirstByEmailNormalized(String emailNormalized);
+
+    // Case-insensitive, but through the indexed email_normalized column
+    default Optional<User> findByEmailIgnoreCase(String email) {
+        String normalized = User.normalizeEmail(email);
+        return normalized == null || normalized.isEmpty() ? Optional.empty() : findFirstByEmailNormalized(normalized);
+    }
+
+    default boolean existsByEmailIgnoreCase(String email) {
+        String normalized = User.normalizeEmail(email);
+        return normalized != null && existsByEmailNormalized(normalized);
+    }
+
     // Helper for simple login by username/matricula/email if needed - for now just
     // matricula
     default Optional<User> findByUsername(String username) {
@@ -20,4 +42,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     }
 
     Optional<User> findByResetPasswordToken(String token);
+
+    // Bulk sanction; callers publish UserChangedEvent themselves (no flush events for JPQL updates)
+    @Modifying
+    @Query("UPDATE User u SET u.isSanctioned = true, u.tokensValidAfter = :now "
+            + "WHERE u.id IN :ids AND u.isSanctioned = false")
+    int sanctionAll(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // [matricula, tokensValidAfter] of users whose older tokens must not be trusted
+    @Query("SELECT u.matricula, u.tokensValidAfter FROM User u WHERE u.tokensValidAfter > :since")
+    List<Object[]> findTokensValidAfter(@Param("since") Instant since);
+
+    // [id, matricula, role, fullName, email]
+    @Query("SELECT u.id, u.matricula, u.role, u.fullName, u.email FROM User u WHERE u.id IN :ids")
+    List<Object[]> findContactsByIdIn(@Param("ids") Collection<Long> ids);
 }
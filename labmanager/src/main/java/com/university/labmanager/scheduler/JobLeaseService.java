@@ -0,0 +1,239 @@
+package com.university.labmanager.scheduler;
+
+import com.university.labmanager.dto.JobStatusDTO;
+import com.university.labmanager.model.JobLease;
+import com.university.labmanager.repository.JobLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes a scheduled job run on one node of the cluster at a time.
+ *
+ * Every replica keeps its @Scheduled triggers; a job that writes shared data
+ * or sends mail wraps its body in {@link #runExclusively}, which first takes
+ * the job's row in job_leases. The holder keeps the lease by renewing it on
+ * each run (lease-ms ahead), so a frequent job stays on one node; if that
+ * node stops renewing, the lease expires and the next node to try takes it
+ * over with a higher fencing token. Chunked jobs call {@link #checkpoint()}
+ * inside each chunk's transaction: it renews the lease under the node's token
+ * and fails (rolling the chunk back) if another node has taken over in the
+ * meantime. Each run's start, duration and error are recorded on the row.
+ *
+ * Jobs that only maintain this node's memory or disk (availability index,
+ * analytics store and principal cache resyncs, rate limiter purges, report
+ * file cleanup) stay unguarded. Lease times use the nodes' clocks, which are
+ * assumed to agree to well within lease-ms.
+ */
+@Component
+@Slf4j
+public class JobLeaseService {
+
+    private static final LocalDateTime FREE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private record Lease(String job, long token) {
+    }
+
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate newTransaction;
+    private final boolean enabled;
+    private final long leaseMs;
+    private final String nodeId;
+
+    // Tokens of the leases this node holds, by job
+    private final Map<String, Long> held = new ConcurrentHashMap<>();
+    private final ThreadLocal<Lease> current = new ThreadLocal<>();
+
+    public JobLeaseService(JobLeaseRepository leaseRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${labmanager.jobs.leases-enabled:true}") boolean enabled,
+            @Value("${labmanager.jobs.lease-ms:60000}") long leaseMs,
+            @Value("${labmanager.jobs.node-id:}") String nodeId) {
+        if (leaseMs <= 0) {
+            throw new IllegalArgumentException("labmanager.jobs.lease-ms must be positive");
+        }
+        this.leaseRepository = leaseRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        // Lease bookkeeping commits on its own, also when the job runs inside a transaction
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.leaseMs = leaseMs;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Runs the task if this node holds (or can take) the job's lease; returns
+     * false without running it when another node holds it. With
+     * labmanager.jobs.leases-enabled=false (single node) the task always runs.
+     */
+    public boolean runExclusively(String job, Runnable task) {
+        if (!enabled) {
+            task.run();
+            return true;
+        }
+        Long token;
+        try {
+            token = acquire(job);
+        } catch (Exception e) {
+            log.error("Could not acquire lease for job {}: {}", job, e.getMessage());
+            return false;
+        }
+        if (token == null) {
+            return false;
+        }
+
+        Lease previous = current.get();
+        current.set(new Lease(job, token));
+        LocalDateTime startedAt = LocalDateTime.now();
+        long begin = System.nanoTime();
+        String error = null;
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            current.set(previous);
+            recordRun(job, token, startedAt, (System.nanoTime() - begin) / 1_000_000, error);
+        }
+        return true;
+    }
+
+    /**
+     * Renews the lease of the job running on this thread, in the caller's
+     * transaction. Throws IllegalStateException when the lease has passed to
+     * another node, so the caller's writes roll back. No-op outside a leased job.
+     */
+    public void checkpoint() {
+        Lease lease = current.get();
+        if (lease == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.renew(lease.job(), nodeId, lease.token(), now, now.plusNanos(leaseMs * 1_000_000)) != 1) {
+            held.remove(lease.job(), lease.token());
+            throw new IllegalStateException("Lease for job " + lease.job() + " (token " + lease.token()
+                    + ") was taken over by another node");
+        }
+    }
+
+    // Token of the lease the job on this thread runs under (0 when leases are disabled or outside a job)
+    public long currentFencingToken() {
+        Lease lease = current.get();
+        return lease != null ? lease.token() : 0;
+    }
+
+    public List<JobStatusDTO> getStatus() {
+        LocalDateTime now = LocalDateTime.now();
+        return leaseRepository.findAllByOrderByJobNameAsc().stream()
+                .map(lease -> toStatus(lease, now))
+                .toList();
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        LocalDateTime now = LocalDateTime.now();
+        held.forEach((job, token) -> {
+            try {
+                leaseRepository.release(job, nodeId, token, now);
+            } catch (Exception e) {
+                log.warn("Could not release lease for job {}: {}", job, e.getMessage());
+            }
+        });
+        held.clear();
+    }
+
+    private Long acquire(String job) {
+        Long token = held.get(job);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusNanos(leaseMs * 1_000_000);
+        if (token != null) {
+            Integer renewed = newTransaction.execute(status -> leaseRepository.renew(job, nodeId, token, now, until));
+            if (renewed != null && renewed == 1) {
+                return token;
+            }
+            held.remove(job, token);
+            log.warn("Lost lease for job {} (token {})", job, token);
+        }
+
+        Long taken = newTransaction.execute(status -> {
+            if (leaseRepository.takeOver(job, nodeId, now, until) == 1) {
+                return leaseRepository.findToken(job, nodeId);
+            }
+            return null;
+        });
+        if (taken == null && !leaseRepository.existsById(job)) {
+            createRow(job);
+            taken = newTransaction.execute(status -> leaseRepository.takeOver(job, nodeId, now, until) == 1
+                    ? leaseRepository.findToken(job, nodeId)
+                    : null);
+        }
+        if (taken != null) {
+            held.put(job, taken);
+            log.info("Node {} took the lease for job {} (token {})", nodeId, job, taken);
+        }
+        return taken;
+    }
+
+    private void createRow(String job) {
+        try {
+            newTransaction.executeWithoutResult(status -> leaseRepository.insertFree(job, FREE));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+    }
+
+    private void recordRun(String job, long token, LocalDateTime startedAt, long durationMs, String error) {
+        try {
+            newTransaction.executeWithoutResult(status -> leaseRepository.recordRun(job, token, nodeId, startedAt,
+                    LocalDateTime.now(), durationMs, error != null && error.length() > 1000
+                            ? error.substring(0, 1000)
+                            : error));
+        } catch (Exception e) {
+            log.warn("Could not record run of job {}: {}", job, e.getMessage());
+        }
+    }
+
+    private JobStatusDTO toStatus(JobLease lease, LocalDateTime now) {
+        boolean live = lease.getOwner() != null && lease.getLeaseUntil().isAfter(now);
+        return JobStatusDTO.builder()
+                .jobName(lease.getJobName())
+                .owner(live ? lease.getOwner() : null)
+                .heldByThisNode(live && nodeId.equals(lease.getOwner()))
+                .leaseUntil(live ? lease.getLeaseUntil() : null)
+                .fencingToken(lease.getFencingToken())
+                .lastStartedAt(lease.getLastStartedAt())
+                .lastFinishedAt(lease.getLastFinishedAt())
+                .lastDurationMs(lease.getLastDurationMs())
+                .lastRunBy(lease.getLastRunBy())
+                .lastError(lease.getLastError())
+                .build();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        // Unique per process, so two instances on one host never share a lease
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
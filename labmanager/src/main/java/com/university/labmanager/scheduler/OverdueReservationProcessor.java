@@ -0,0 +1,203 @@
+package com.university.labmanager.scheduler;
+
+import com.university.labmanager.dto.OverdueProcessingStatsDTO;
+import com.university.labmanager.event.EntityChangePublisher;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.model.enums.Role;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.repository.UserRepository;
+import com.university.labmanager.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves ACTIVE reservations that have ended to OVERDUE and sanctions their
+ * users, with set-based statements instead of a save per row.
+ *
+ * Ended reservations are taken oldest first in chunks of
+ * labmanager.lifecycle.overdue-chunk-size, each in its own short
+ * transaction: one UPDATE marks the chunk, one UPDATE sanctions its distinct
+ * users, and the notices go to the email outbox (delivered asynchronously once
+ * the chunk commits), with a single admin digest per chunk. JPQL updates skip
+ * the Hibernate flush events, so the matching change events are published
+ * here for the in-memory read models.
+ */
+@Component
+@Slf4j
+public class OverdueReservationProcessor {
+
+    private final ReservationRepository reservationRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final EntityChangePublisher entityChangePublisher;
+    private final JobLeaseService jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final String adminEmail;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder marked = new LongAdder();
+    private final LongAdder sanctioned = new LongAdder();
+    private final LongAdder notified = new LongAdder();
+    private final LongAdder totalRunMs = new LongAdder();
+    private volatile long lastRunMs;
+    private volatile LocalDateTime lastRunAt;
+
+    public OverdueReservationProcessor(ReservationRepository reservationRepository,
+            UserRepository userRepository,
+            EmailService emailService,
+            EntityChangePublisher entityChangePublisher,
+            JobLeaseService jobLeases,
+            PlatformTransactionManager transactionManager,
+            @Value("${labmanager.lifecycle.overdue-chunk-size:200}") int chunkSize,
+            @Value("${labmanager.lifecycle.admin-email:admin@university.edu}") String adminEmail) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("labmanager.lifecycle.overdue-chunk-size must be positive");
+        }
+        this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.entityChangePublisher = entityChangePublisher;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.adminEmail = adminEmail;
+    }
+
+    // Returns how many reservations were marked OVERDUE
+    public synchronized int process(LocalDateTime now) {
+        // Stored with microsecond precision; compared against what was written below
+        LocalDateTime stamp = now.truncatedTo(ChronoUnit.MICROS);
+        long begin = System.nanoTime();
+        int total = 0;
+        try {
+            while (true) {
+                ChunkResult result = transactionTemplate.execute(status -> processChunk(stamp));
+                if (result == null || result.selected() == 0) {
+                    break;
+                }
+                chunks.increment();
+                total += result.marked();
+                if (result.selected() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Overdue processing stopped after {} reservations: {}", total, e.getMessage());
+        } finally {
+            long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+            runs.increment();
+            totalRunMs.add(elapsedMs);
+            lastRunMs = elapsedMs;
+            lastRunAt = now;
+            if (total > 0) {
+                log.warn("⚠️ Marked {} reservations OVERDUE in {} ms", total, elapsedMs);
+            }
+        }
+        return total;
+    }
+
+    public OverdueProcessingStatsDTO getStats() {
+        return OverdueProcessingStatsDTO.builder()
+                .runs(runs.sum())
+                .chunks(chunks.sum())
+                .reservationsMarkedOverdue(marked.sum())
+                .usersSanctioned(sanctioned.sum())
+                .notificationsQueued(notified.sum())
+                .totalRunMs(totalRunMs.sum())
+                .lastRunMs(lastRunMs)
+                .lastRunAt(lastRunAt)
+                .build();
+    }
+
+    private ChunkResult processChunk(LocalDateTime now) {
+        List<Long> ids = reservationRepository.findEndedIds(ReservationStatus.ACTIVE, now,
+                PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, 0);
+        }
+        // Fencing: the chunk only commits while this node still holds the job lease
+        jobLeases.checkpoint();
+        int markedRows = reservationRepository.markEnded(ids, ReservationStatus.ACTIVE, ReservationStatus.OVERDUE,
+                now);
+
+        List<Object[]> rows = reservationRepository.findOverdueRows(ids, ReservationStatus.OVERDUE);
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            userIds.add((Long) row[1]);
+        }
+        int sanctionedRows = userIds.isEmpty() ? 0 : userRepository.sanctionAll(userIds, Instant.now());
+
+        Map<Long, User> users = new HashMap<>();
+        for (Object[] row : userRepository.findContactsByIdIn(userIds)) {
+            users.put((Long) row[0], User.builder().id((Long) row[0]).matricula((String) row[1]).role((Role) row[2])
+                    .fullName((String) row[3]).email((String) row[4]).isSanctioned(true).build());
+        }
+
+        List<Reservation> reservations = new ArrayList<>(rows.size());
+        List<Reservation> toNotify = new ArrayList<>();
+        for (Object[] row : rows) {
+            Reservation reservation = Reservation.builder()
+                    .id((Long) row[0])
+                    .user(users.get((Long) row[1]))
+                    .laptop(Laptop.builder().id((Long) row[2]).model((String) row[6]).serialNumber((String) row[7])
+                            .build())
+                    .startTime((LocalDateTime) row[3])
+                    .endTime((LocalDateTime) row[4])
+                    .overdueNotifiedAt((LocalDateTime) row[5])
+                    .status(ReservationStatus.OVERDUE)
+                    .build();
+            reservations.add(reservation);
+            // Stamped by this chunk (not already notified the first time it went overdue)
+            if (now.equals(reservation.getOverdueNotifiedAt()) && reservation.getUser() != null) {
+                toNotify.add(reservation);
+            }
+        }
+        entityChangePublisher.reservationsUpdated(reservations, ReservationStatus.ACTIVE);
+        entityChangePublisher.usersUpdated(users.values());
+
+        // Queued in the outbox, committed together with the chunk
+        for (Reservation reservation : toNotify) {
+            emailService.sendSanctionNotification(reservation.getUser(), "Reserva " + reservation.getId()
+                    + " no devuelta a tiempo (vencida el " + reservation.getEndTime() + ").");
+        }
+        if (!toNotify.isEmpty()) {
+            StringBuilder digest = new StringBuilder(toNotify.size() + " reservations are overdue:\n");
+            for (Reservation reservation : toNotify) {
+                digest.append("- Reservation ").append(reservation.getId()).append(" (")
+                        .append(reservation.getUser().getFullName()).append(", ")
+                        .append(reservation.getLaptop().getSerialNumber()).append("), due ")
+                        .append(reservation.getEndTime()).append('\n');
+            }
+            emailService.sendSimpleMessage(adminEmail, "Overdue Alert: " + toNotify.size() + " reservations",
+                    digest.toString());
+        }
+
+        marked.add(markedRows);
+        sanctioned.add(sanctionedRows);
+        notified.add(toNotify.size());
+        return new ChunkResult(ids.size(), markedRows);
+    }
+
+    private record ChunkResult(int selected, int marked) {
+    }
+}
@@ -0,0 +1,267 @@
+package com.university.labmanager.scheduler;
+
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Single owner of time-driven reservation transitions.
+ *
+ * Every APPROVED or ACTIVE reservation has its upcoming deadlines queued in
+ * memory, ordered by due time: a pick-up reminder start-reminder-minutes
+ * before an APPROVED booking starts, a return reminder
+ * return-reminder-minutes before an ACTIVE one ends, and the overdue
+ * transition at its end time (done in bulk by
+ * {@link OverdueReservationProcessor}). The queue is loaded once at startup
+ * (and resynced every resync-ms for writes made by other nodes), then kept
+ * current from committed reservation change events. Each tick only pops the
+ * entries that are due, so nothing is found by scanning the table.
+ *
+ * Return reminders and overdue notices are recorded on the reservation
+ * (reminder_sent_at, overdue_notified_at). A due return reminder sends to the
+ * ACTIVE reservations ending within the reminder window that have not been
+ * reminded yet, claiming each row with a conditional update first, so every
+ * reservation gets exactly one reminder even across restarts.
+ *
+ * Every node keeps its own queue, but only the holder of the
+ * reservation-lifecycle job lease fires it; a node that takes the lease over
+ * resyncs first.
+ */
+@Component
+@Slf4j
+public class ReservationLifecycleScheduler {
+
+    enum Trigger {
+        START_REMINDER, RETURN_REMINDER, OVERDUE
+    }
+
+    record Deadline(LocalDateTime dueAt, Long reservationId, Trigger trigger) {
+    }
+
+    static final String JOB_NAME = "reservation-lifecycle";
+
+    private static final Set<ReservationStatus> TRACKED = EnumSet.of(ReservationStatus.APPROVED,
+            ReservationStatus.ACTIVE);
+
+    private static final Comparator<Deadline> BY_DUE_TIME = Comparator.comparing(Deadline::dueAt)
+            .thenComparing(Deadline::reservationId)
+            .thenComparing(Deadline::trigger);
+
+    private final ReservationRepository reservationRepository;
+    private final EmailService emailService;
+    private final OverdueReservationProcessor overdueProcessor;
+    private final JobLeaseService jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long startReminderMinutes;
+    private final long returnReminderMinutes;
+
+    // Guarded by "this"
+    private final TreeSet<Deadline> queue = new TreeSet<>(BY_DUE_TIME);
+    private final Map<Long, List<Deadline>> byReservation = new HashMap<>();
+
+    // Lease token the last tick ran under; a new one means this node just took the job over
+    private long fencingToken = -1;
+
+    public ReservationLifecycleScheduler(ReservationRepository reservationRepository,
+            EmailService emailService,
+            OverdueReservationProcessor overdueProcessor,
+            JobLeaseService jobLeases,
+            PlatformTransactionManager transactionManager,
+            @Value("${labmanager.lifecycle.enabled:true}") boolean enabled,
+            @Value("${labmanager.lifecycle.start-reminder-minutes:60}") long startReminderMinutes,
+            @Value("${labmanager.lifecycle.return-reminder-minutes:60}") long returnReminderMinutes) {
+        this.reservationRepository = reservationRepository;
+        this.emailService = emailService;
+        this.overdueProcessor = overdueProcessor;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.startReminderMinutes = startReminderMinutes;
+        this.returnReminderMinutes = returnReminderMinutes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        resync();
+    }
+
+    @Scheduled(fixedDelayString = "${labmanager.lifecycle.resync-ms:3600000}", initialDelayString = "${labmanager.lifecycle.resync-ms:3600000}")
+    public void resync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Object[]> rows = reservationRepository.findLifecycleWindowsByStatusIn(TRACKED);
+            LocalDateTime now = LocalDateTime.now();
+            synchronized (this) {
+                queue.clear();
+                byReservation.clear();
+                for (Object[] row : rows) {
+                    plan((Long) row[0], (ReservationStatus) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3],
+                            (LocalDateTime) row[4], now);
+                }
+            }
+            log.info("Reservation lifecycle: {} deadlines queued for {} reservations", queue.size(), rows.size());
+        } catch (Exception e) {
+            log.error("Error loading reservation deadlines: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getReservationId() == null) {
+            return;
+        }
+        cancel(event.getReservationId());
+        if (event.getType() != EntityChangeType.DELETED) {
+            // The event does not carry reminder_sent_at; an extra wake-up finds nothing left to send
+            plan(event.getReservationId(), event.getStatus(), event.getStartTime(), event.getEndTime(), null,
+                    LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${labmanager.lifecycle.tick-ms:10000}")
+    public void tick() {
+        if (enabled) {
+            jobLeases.runExclusively(JOB_NAME, () -> {
+                long token = jobLeases.currentFencingToken();
+                if (token != fencingToken) {
+                    // Deadlines written on other nodes only reached this one through the database
+                    fencingToken = token;
+                    resync();
+                }
+                fireDue(LocalDateTime.now());
+            });
+        }
+    }
+
+    // Returns how many deadlines fired
+    int fireDue(LocalDateTime now) {
+        List<Deadline> due = takeDue(now);
+        // Reminder and overdue deadlines are sweeps: one per tick covers every deadline of that kind
+        Set<Trigger> swept = EnumSet.noneOf(Trigger.class);
+        for (Deadline deadline : due) {
+            try {
+                switch (deadline.trigger()) {
+                    case START_REMINDER -> transactionTemplate
+                            .executeWithoutResult(status -> sendStartReminder(deadline.reservationId(), now));
+                    case RETURN_REMINDER -> {
+                        if (swept.add(Trigger.RETURN_REMINDER)) {
+                            transactionTemplate.executeWithoutResult(status -> sendReturnReminders(now));
+                        }
+                    }
+                    case OVERDUE -> {
+                        if (swept.add(Trigger.OVERDUE)) {
+                            overdueProcessor.process(now);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error firing {} for reservation {}: {}", deadline.trigger(), deadline.reservationId(),
+                        e.getMessage());
+            }
+        }
+        return due.size();
+    }
+
+    synchronized List<Deadline> pendingDeadlines() {
+        return new ArrayList<>(queue);
+    }
+
+    private synchronized List<Deadline> takeDue(LocalDateTime now) {
+        List<Deadline> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.first().dueAt().isBefore(now)) {
+            Deadline deadline = queue.pollFirst();
+            List<Deadline> planned = byReservation.get(deadline.reservationId());
+            if (planned != null) {
+                planned.remove(deadline);
+                if (planned.isEmpty()) {
+                    byReservation.remove(deadline.reservationId());
+                }
+            }
+            due.add(deadline);
+        }
+        return due;
+    }
+
+    private void plan(Long reservationId, ReservationStatus status, LocalDateTime start, LocalDateTime end,
+            LocalDateTime reminderSentAt, LocalDateTime now) {
+        if (status == ReservationStatus.APPROVED && start != null) {
+            LocalDateTime remindAt = start.minusMinutes(startReminderMinutes);
+            if (remindAt.isAfter(now)) {
+                add(new Deadline(remindAt, reservationId, Trigger.START_REMINDER));
+            }
+        } else if (status == ReservationStatus.ACTIVE && end != null) {
+            if (reminderSentAt == null && end.isAfter(now)) {
+                // Already inside the window (e.g. missed while down): remind on the next tick
+                LocalDateTime remindAt = end.minusMinutes(returnReminderMinutes);
+                add(new Deadline(remindAt.isAfter(now) ? remindAt : now, reservationId, Trigger.RETURN_REMINDER));
+            }
+            // Queued even when already past: it fires on the next tick
+            add(new Deadline(end, reservationId, Trigger.OVERDUE));
+        }
+    }
+
+    private void add(Deadline deadline) {
+        queue.add(deadline);
+        byReservation.computeIfAbsent(deadline.reservationId(), id -> new ArrayList<>(3)).add(deadline);
+    }
+
+    private void cancel(Long reservationId) {
+        List<Deadline> planned = byReservation.remove(reservationId);
+        if (planned != null) {
+            planned.forEach(queue::remove);
+        }
+    }
+
+    // The row is re-read so a deadline that went stale does nothing
+    private void sendStartReminder(Long reservationId, LocalDateTime now) {
+        Reservation reservation = reservationRepository.findById(reservationId).orElse(null);
+        if (reservation != null && reservation.getStatus() == ReservationStatus.APPROVED
+                && reservation.getStartTime().isAfter(now)) {
+            // Fencing: the queued reminder only commits while this node still holds the job lease
+            jobLeases.checkpoint();
+            log.info("🔔 Sending pick-up reminder for reservation {}", reservation.getId());
+            emailService.sendReminder(reservation);
+        }
+    }
+
+    private void sendReturnReminders(LocalDateTime now) {
+        List<Reservation> due = reservationRepository.findReturnRemindersDue(ReservationStatus.ACTIVE, now,
+                now.plusMinutes(returnReminderMinutes));
+        if (due.isEmpty()) {
+            return;
+        }
+        // Fencing: the claims and queued reminders only commit while this node still holds the job lease
+        jobLeases.checkpoint();
+        for (Reservation reservation : due) {
+            if (reservationRepository.markReminderSent(reservation.getId(), now) == 1) {
+                log.info("🔔 Sending return reminder for reservation {}", reservation.getId());
+                emailService.sendReturnReminder(reservation);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.university.labmanager.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * BCrypt with a cost picked for this machine and a cap on concurrent hashing.
+ *
+ * Unless a fixed cost is configured, the cost is calibrated once at startup:
+ * the smallest one whose hash takes at least labmanager.auth.bcrypt.target-ms,
+ * within [min-cost, max-cost]. Hashes stored with a lower cost report
+ * upgradeEncoding() so Spring Security re-encodes them on the next successful
+ * login. Every encode/matches holds one of a fixed number of permits, so a
+ * login burst cannot use more CPU than that, whichever thread it arrives on.
+ */
+@Slf4j
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int cost;
+    private final Semaphore permits;
+
+    public AdaptivePasswordEncoder(int cost, long targetMs, int minCost, int maxCost, int maxConcurrent) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("labmanager.auth.bcrypt cost bounds must satisfy 4 <= min <= max <= 31");
+        }
+        this.cost = cost > 0 ? cost : calibrate(targetMs, minCost, maxCost);
+        this.delegate = new BCryptPasswordEncoder(this.cost);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        log.info("BCrypt cost {} ({}), at most {} concurrent hashes", this.cost,
+                cost > 0 ? "configured" : "calibrated for " + targetMs + " ms", Math.max(1, maxConcurrent));
+    }
+
+    // Each step doubles the work, so one timed hash at the minimum is enough to pick the cost
+    static int calibrate(long targetMs, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration");
+        long begin = System.nanoTime();
+        probe.encode("calibration");
+        double elapsedMs = Math.max(0.01, (System.nanoTime() - begin) / 1e6);
+
+        int calibrated = minCost;
+        while (calibrated < maxCost && elapsedMs < targetMs) {
+            calibrated++;
+            elapsedMs *= 2;
+        }
+        return calibrated;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        acquire();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        acquire();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // True for hashes stored with a lower cost than the current one
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash a password", e);
+        }
+    }
+}
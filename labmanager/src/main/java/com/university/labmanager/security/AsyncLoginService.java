@@ -0,0 +1,71 @@
+package com.university.labmanager.security;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs sign-in (and so its BCrypt check) off the servlet threads.
+ *
+ * Logins go to a small dedicated pool, sized like the encoder's hashing
+ * permits, with a bounded queue; the request thread is released while they
+ * wait. When the queue is full the login is rejected straight away (the
+ * controller answers 503) instead of tying up Tomcat threads other endpoints
+ * need.
+ */
+@Component
+@Slf4j
+public class AsyncLoginService {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncLoginService(@Lazy AuthenticationManager authenticationManager,
+            @Value("${labmanager.auth.hashing.threads:0}") int threads,
+            @Value("${labmanager.auth.hashing.queue-capacity:200}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        int poolSize = hashingThreads(threads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "login-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 0 means half the cores, so hashing never takes the whole machine
+    public static int hashingThreads(int configured) {
+        return configured > 0 ? configured : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * Authenticates on the login pool. Throws RejectedExecutionException when
+     * the queue is full; authentication failures complete the future
+     * exceptionally.
+     */
+    public CompletableFuture<Authentication> authenticate(String matricula, String password) {
+        return CompletableFuture.supplyAsync(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(matricula, password)), executor);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
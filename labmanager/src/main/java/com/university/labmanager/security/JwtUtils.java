@@ -1,28 +1,61 @@
 package com.university.labmanager.security;
 
-import com.university.labmanager.model.enums.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+
     @Value("${labmanager.app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${labmanager.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    // How many verified tokens to remember (0 disables the cache)
+    @Value("${labmanager.app.jwtCacheSize:10000}")
+    private int jwtCacheSize;
+
+    // Built once; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of the token -> its verified claims. Keyed by hash so bearer
+    // tokens are not kept in memory.
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    // Cache entries in the order they were verified. Every token gets the same lifetime, so this is
+    // (close to) expiry order: the head is what expires, or is evicted, first. Guarded by itself.
+    private final Deque<CacheEntry> verificationOrder = new ArrayDeque<>();
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -33,34 +66,100 @@ public class JwtUtils {
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
                 .claim("roles", roles)
+                // Enough to rebuild the principal without a user lookup (see AuthTokenFilter)
+                .claim("uid", userPrincipal.getId())
+                .claim("name", userPrincipal.getFullName())
+                .claim("sanctioned", userPrincipal.isSanctioned())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    /**
+     * Verifies the token once and returns its claims, or null when the token is
+     * malformed, badly signed or expired. A token seen recently is answered from
+     * the cache until its own expiry, without re-checking the signature.
+     */
+    public Claims parseJwtClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        if (jwtCacheSize <= 0) {
+            return verify(token);
+        }
+
+        String hash = hash(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(hash);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            verifiedTokens.remove(hash, cached);
+            return null;
+        }
+
+        Claims claims = verify(token);
+        if (claims != null && claims.getExpiration() != null) {
+            remember(hash, new VerifiedToken(claims, claims.getExpiration().getTime()), now);
+        }
+        return claims;
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        Claims claims = parseJwtClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseJwtClaims(authToken) != null;
+    }
+
+    int getCachedTokenCount() {
+        return verifiedTokens.size();
+    }
+
+    private Claims verify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            // Log: Invalid JWT token
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
-            // Log: JWT token is expired
-        } catch (UnsupportedJwtException e) {
-            // Log: JWT token is unsupported
+            logger.debug("JWT token is expired: {}", e.getMessage());
+        } catch (JwtException e) {
+            // Malformed, unsupported or bad signature
+            logger.debug("Invalid JWT token: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            // Log: JWT claims string is empty
+            logger.debug("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    private void remember(String hash, VerifiedToken token, long now) {
+        synchronized (verificationOrder) {
+            // Expired entries go first, then the oldest ones while the cache is full
+            while (!verificationOrder.isEmpty() && (verificationOrder.size() >= jwtCacheSize
+                    || verificationOrder.peekFirst().token().expiresAt <= now)) {
+                CacheEntry oldest = verificationOrder.pollFirst();
+                // No-op when a read already dropped it or a concurrent verification replaced it
+                verifiedTokens.remove(oldest.hash(), oldest.token());
+            }
+            verifiedTokens.put(hash, token);
+            verificationOrder.addLast(new CacheEntry(hash, token));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+
+    private record CacheEntry(String hash, VerifiedToken token) {
     }
 }
@@ -0,0 +1,125 @@
+package com.university.labmanager.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets for the forgot-password endpoint, one per client IP
+ * and one per (normalized) email. A bucket holds up to its capacity and gets a
+ * token back every refill-ms; a request takes one. Full buckets carry no state,
+ * so they are forgotten, and at most max-keys buckets are kept per kind.
+ */
+@Component
+public class PasswordResetRateLimiter {
+
+    private final Buckets byIp;
+    private final Buckets byEmail;
+    private final LongSupplier clock;
+
+    @Autowired
+    public PasswordResetRateLimiter(@Value("${labmanager.auth.reset-limit.ip-capacity:10}") int ipCapacity,
+            @Value("${labmanager.auth.reset-limit.ip-refill-ms:60000}") long ipRefillMs,
+            @Value("${labmanager.auth.reset-limit.email-capacity:3}") int emailCapacity,
+            @Value("${labmanager.auth.reset-limit.email-refill-ms:600000}") long emailRefillMs,
+            @Value("${labmanager.auth.reset-limit.max-keys:100000}") int maxKeys) {
+        this(ipCapacity, ipRefillMs, emailCapacity, emailRefillMs, maxKeys, System::currentTimeMillis);
+    }
+
+    PasswordResetRateLimiter(int ipCapacity, long ipRefillMs, int emailCapacity, long emailRefillMs, int maxKeys,
+            LongSupplier clock) {
+        if (ipRefillMs <= 0 || emailRefillMs <= 0) {
+            throw new IllegalArgumentException("labmanager.auth.reset-limit refill intervals must be positive");
+        }
+        this.byIp = new Buckets(ipCapacity, ipRefillMs, maxKeys);
+        this.byEmail = new Buckets(emailCapacity, emailRefillMs, maxKeys);
+        this.clock = clock;
+    }
+
+    // 0 when the request may go ahead, otherwise milliseconds until this IP gets a token back
+    public long acquireForIp(String ip) {
+        return byIp.acquire(ip != null ? ip : "unknown", clock.getAsLong());
+    }
+
+    public boolean acquireForEmail(String normalizedEmail) {
+        return byEmail.acquire(normalizedEmail, clock.getAsLong()) == 0;
+    }
+
+    @Scheduled(fixedDelayString = "${labmanager.auth.reset-limit.purge-ms:300000}")
+    public void purge() {
+        long now = clock.getAsLong();
+        byIp.purge(now);
+        byEmail.purge(now);
+    }
+
+    int getTrackedKeys() {
+        return byIp.buckets.size() + byEmail.buckets.size();
+    }
+
+    private static final class Buckets {
+        final int capacity;
+        final long refillMs;
+        final int maxKeys;
+        final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+        Buckets(int capacity, long refillMs, int maxKeys) {
+            this.capacity = capacity;
+            this.refillMs = refillMs;
+            this.maxKeys = maxKeys;
+        }
+
+        long acquire(String key, long now) {
+            if (buckets.size() >= maxKeys && !buckets.containsKey(key)) {
+                purge(now);
+                // Still full of active clients: make room rather than grow without bound
+                Iterator<String> keys = buckets.keySet().iterator();
+                while (buckets.size() >= maxKeys && keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+            synchronized (bucket) {
+                bucket.refill(capacity, refillMs, now);
+                if (bucket.tokens > 0) {
+                    bucket.tokens--;
+                    return 0;
+                }
+                return Math.max(1, bucket.lastRefill + refillMs - now);
+            }
+        }
+
+        void purge(long now) {
+            buckets.values().removeIf(bucket -> {
+                synchronized (bucket) {
+                    bucket.refill(capacity, refillMs, now);
+                    return bucket.tokens >= capacity;
+                }
+            });
+        }
+    }
+
+    private static final class Bucket {
+        int tokens;
+        long lastRefill;
+
+        Bucket(int tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        void refill(int capacity, long refillMs, long now) {
+            long earned = (now - lastRefill) / refillMs;
+            if (earned > 0) {
+                tokens = (int) Math.min(capacity, tokens + earned);
+                lastRefill = tokens >= capacity ? now : lastRefill + earned * refillMs;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.university.labmanager.security;
 
 import com.university.labmanager.model.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -48,6 +49,26 @@ public class UserDetailsImpl implements UserDetails {
                 authorities);
     }
 
+    // Principal carried by a signed token (no password); null for tokens issued without these claims
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        Object id = claims.get("uid");
+        Object roles = claims.get("roles");
+        if (!(id instanceof Number) || !(roles instanceof Collection)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = ((Collection<?>) roles).stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+
+        return new UserDetailsImpl(
+                ((Number) id).longValue(),
+                claims.getSubject(),
+                claims.get("name", String.class),
+                null,
+                Boolean.TRUE.equals(claims.get("sanctioned", Boolean.class)),
+                authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
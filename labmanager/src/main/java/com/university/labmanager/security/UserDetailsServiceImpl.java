@@ -4,20 +4,37 @@ import com.university.labmanager.model.User;
 import com.university.labmanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UserPrincipalCache principalCache;
+
+    // Served from the principal cache; a hit does not touch the database
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String matricula) throws UsernameNotFoundException {
+        return principalCache.get(matricula, this::loadFromDatabase);
+    }
+
+    // Called after a login whose stored hash has a lower BCrypt cost than the current one.
+    // The save is published as a UserChangedEvent, which drops the cached principal.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User stored = userRepository.findByMatricula(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with matricula: " + user.getUsername()));
+        stored.setPassword(newPassword);
+        return UserDetailsImpl.build(userRepository.save(stored));
+    }
+
+    private UserDetailsImpl loadFromDatabase(String matricula) {
         User user = userRepository.findByMatricula(matricula)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with matricula: " + matricula));
 
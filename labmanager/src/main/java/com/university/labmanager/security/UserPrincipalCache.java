@@ -0,0 +1,176 @@
+package com.university.labmanager.security;
+
+import com.university.labmanager.dto.PrincipalCacheStatsDTO;
+import com.university.labmanager.event.UserChangedEvent;
+import com.university.labmanager.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Principals by matricula, in front of {@link UserDetailsServiceImpl}.
+ *
+ * A loaded principal is kept for labmanager.auth.principal-cache-ttl-ms, at
+ * most principal-cache-size of them, and dropped as soon as a committed write
+ * to that user is published as a {@link UserChangedEvent} (sanction toggle,
+ * password reset, registration...). Each change is also remembered for as
+ * long as a token can live, so the stateless filter can tell which tokens
+ * were issued before their user's roles or sanction status changed.
+ *
+ * Events only reach this node. Changes made on other nodes (or before a
+ * restart) come from the users' tokens_valid_after column, re-read every
+ * labmanager.auth.revocation-refresh-ms; until the first read succeeds no
+ * token's claims are trusted.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final int maxSize;
+    private final long tokenLifetimeMs;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private volatile long lastLoadNanos;
+    private volatile boolean synced;
+
+    public UserPrincipalCache(UserRepository userRepository,
+            @Value("${labmanager.auth.principal-cache-ttl-ms:30000}") long ttlMs,
+            @Value("${labmanager.auth.principal-cache-size:5000}") int maxSize,
+            @Value("${labmanager.app.jwtExpirationMs}") long tokenLifetimeMs) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+    }
+
+    public UserDetailsImpl get(String matricula, Function<String, UserDetailsImpl> loader) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(matricula);
+        if (cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return cached.principal;
+        }
+        misses.increment();
+        long begin = System.nanoTime();
+        UserDetailsImpl principal = loader.apply(matricula);
+        long elapsed = System.nanoTime() - begin;
+        totalLoadNanos.add(elapsed);
+        lastLoadNanos = elapsed;
+
+        if (ttlMs > 0 && maxSize > 0) {
+            // A change committed while we were loading may not be in what we read
+            Long changed = changedAt.get(matricula);
+            if (changed == null || changed < now) {
+                remember(matricula, new CachedPrincipal(principal, now + ttlMs), now);
+            }
+        }
+        return principal;
+    }
+
+    // True when the user changed after the token was issued (iat has second precision, so ties count as changed)
+    public boolean changedSince(String matricula, Date issuedAt) {
+        if (!synced) {
+            return true;
+        }
+        Long changed = changedAt.get(matricula);
+        return changed != null && (issuedAt == null || issuedAt.getTime() <= changed);
+    }
+
+    public void invalidate(String matricula) {
+        changedAt.put(matricula, System.currentTimeMillis());
+        if (principals.remove(matricula) != null) {
+            invalidations.increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getMatricula() != null) {
+            invalidate(event.getMatricula());
+        }
+    }
+
+    // Picks up changes committed on other nodes; rows older than any live token no longer matter
+    @Scheduled(fixedDelayString = "${labmanager.auth.revocation-refresh-ms:10000}")
+    public void refresh() {
+        try {
+            Instant since = Instant.now().minusMillis(tokenLifetimeMs);
+            for (Object[] row : userRepository.findTokensValidAfter(since)) {
+                String matricula = (String) row[0];
+                long validAfter = ((Instant) row[1]).toEpochMilli();
+                Long known = changedAt.get(matricula);
+                if (known == null || known < validAfter) {
+                    changedAt.merge(matricula, validAfter, Math::max);
+                    if (principals.remove(matricula) != null) {
+                        invalidations.increment();
+                    }
+                }
+            }
+            synced = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh token revocations: {}", e.getMessage());
+        }
+    }
+
+    // Changes older than any live token no longer matter
+    @Scheduled(fixedDelayString = "${labmanager.auth.principal-cache-purge-ms:600000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        changedAt.values().removeIf(changed -> changed + tokenLifetimeMs < now);
+        principals.values().removeIf(cached -> cached.expiresAt <= now);
+    }
+
+    public PrincipalCacheStatsDTO getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return PrincipalCacheStatsDTO.builder()
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .hitRatio(requests > 0 ? (double) hitCount / requests : 0)
+                .lastLoadMs(lastLoadNanos / 1e6)
+                .averageLoadMs(missCount > 0 ? totalLoadNanos.sum() / 1e6 / missCount : 0)
+                .size(principals.size())
+                .maxSize(maxSize)
+                .ttlMs(ttlMs)
+                .build();
+    }
+
+    private void remember(String matricula, CachedPrincipal principal, long now) {
+        if (principals.size() >= maxSize && !principals.containsKey(matricula)) {
+            // Expired entries go first; if that frees nothing, drop arbitrary ones
+            principals.values().removeIf(cached -> cached.expiresAt <= now);
+            Iterator<String> keys = principals.keySet().iterator();
+            while (principals.size() >= maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        }
+        principals.put(matricula, principal);
+    }
+
+    private record CachedPrincipal(UserDetailsImpl principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,319 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.AnalyticsDashboardDTO;
+import com.university.labmanager.dto.DailyCountDTO;
+import com.university.labmanager.dto.IncidentCountDTO;
+import com.university.labmanager.dto.ReservationStatusCountDTO;
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.IncidentChangedEvent;
+import com.university.labmanager.event.LaptopChangedEvent;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.enums.IncidentSeverity;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.IncidentRepository;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Materialized dashboard metrics.
+ *
+ * Counters (reservations by status and start day, incidents by severity,
+ * resolution and type, fleet size), the most recent bookings and each
+ * laptop's software are loaded with a handful of GROUP BY queries on startup
+ * and then adjusted from committed entity change events. Building the
+ * dashboard reads only these counters, so its cost does not grow with history.
+ * A periodic resync repairs any drift (writes from other nodes, updates
+ * Hibernate could not give us the previous state for).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsMetricsStore {
+
+    // Bookings the "popular software" chart looks at
+    static final int RECENT_LIMIT = 50;
+    // Extra slack so a deleted booking rarely leaves the window short until the next resync
+    private static final int RECENT_CAPACITY = 2 * RECENT_LIMIT;
+    private static final String DEFAULT_REPORT_TYPE = "LAPTOP";
+    private static final int CHART_DAYS = 7;
+
+    private final ReservationRepository reservationRepository;
+    private final IncidentRepository incidentRepository;
+    private final LaptopRepository laptopRepository;
+
+    @Value("${labmanager.analytics.store-enabled:true}")
+    private boolean enabled = true;
+
+    // Everything below is guarded by "this"
+    private final Map<ReservationStatus, Long> reservationsByStatus = new EnumMap<>(ReservationStatus.class);
+    private final TreeMap<LocalDate, Long> reservationsByDay = new TreeMap<>();
+    private final Map<IncidentKey, Long> incidents = new HashMap<>();
+    private final TreeMap<RecentKey, Long> recentBookings = new TreeMap<>();
+    private final Map<Long, RecentKey> recentKeys = new HashMap<>();
+    private final Map<Long, List<String>> laptopSoftware = new HashMap<>();
+    private long laptops;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public synchronized AnalyticsDashboardDTO toDashboard(LocalDateTime now) {
+        long totalReservations = 0;
+        for (long count : reservationsByStatus.values()) {
+            totalReservations += count;
+        }
+        long active = reservationsByStatus.getOrDefault(ReservationStatus.ACTIVE, 0L);
+        double utilizationRate = laptops > 0 ? ((double) active / laptops) * 100 : 0;
+
+        // Last 7 days (and upcoming ones), at day granularity
+        Map<String, Long> byDay = new HashMap<>();
+        for (Map.Entry<LocalDate, Long> day : reservationsByDay.tailMap(now.minusDays(CHART_DAYS).toLocalDate(), true)
+                .entrySet()) {
+            byDay.put(day.getKey().toString(), day.getValue());
+        }
+
+        Map<String, Long> bySeverity = new HashMap<>();
+        Map<String, Long> activeBySeverity = new HashMap<>();
+        Map<String, Long> resolvedBySeverity = new HashMap<>();
+        Map<String, Long> byType = new HashMap<>();
+        long totalIncidents = 0;
+        long activeIncidents = 0;
+        for (Map.Entry<IncidentKey, Long> entry : incidents.entrySet()) {
+            IncidentKey key = entry.getKey();
+            long count = entry.getValue();
+            String severity = key.severity.name();
+            bySeverity.merge(severity, count, Long::sum);
+            (key.resolved ? resolvedBySeverity : activeBySeverity).merge(severity, count, Long::sum);
+            byType.merge(key.reportType, count, Long::sum);
+            totalIncidents += count;
+            if (!key.resolved) {
+                activeIncidents += count;
+            }
+        }
+
+        return AnalyticsDashboardDTO.builder()
+                .totalReservations(totalReservations)
+                .activeIncidents(activeIncidents)
+                .historicalIncidents(totalIncidents)
+                .utilizationRate(utilizationRate)
+                .reservationsByDay(byDay)
+                .incidentsBySeverity(bySeverity)
+                .activeIncidentsBySeverity(activeBySeverity)
+                .resolvedIncidentsBySeverity(resolvedBySeverity)
+                .popularSoftware(popularSoftware(5))
+                .incidentsByType(byType)
+                .build();
+    }
+
+    // Software on the laptops of the latest bookings, top "limit" packages
+    private Map<String, Long> popularSoftware(int limit) {
+        Map<String, Long> counts = new HashMap<>();
+        int seen = 0;
+        for (Long laptopId : recentBookings.values()) {
+            if (seen++ == RECENT_LIMIT) {
+                break;
+            }
+            for (String name : laptopSoftware.getOrDefault(laptopId, List.of())) {
+                counts.merge(name, 1L, Long::sum);
+            }
+        }
+        Map<String, Long> top = new HashMap<>();
+        counts.entrySet().stream()
+                // Same order as ReservationRepository.countSoftwareForReservations
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(e -> top.put(e.getKey(), e.getValue()));
+        return top;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${labmanager.analytics.resync-ms:600000}", initialDelayString = "${labmanager.analytics.resync-ms:600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long begin = System.nanoTime();
+            reservationsByStatus.clear();
+            for (ReservationStatusCountDTO row : reservationRepository.countGroupedByStatus()) {
+                reservationsByStatus.put(row.getStatus(), row.getCount());
+            }
+
+            // Only days the chart can still show; older buckets are never read again
+            reservationsByDay.clear();
+            LocalDateTime since = LocalDate.now().minusDays(CHART_DAYS).atStartOfDay().minusNanos(1);
+            for (DailyCountDTO row : reservationRepository.countGroupedByStartDaySince(since)) {
+                reservationsByDay.put(row.getDay(), row.getCount());
+            }
+
+            recentBookings.clear();
+            recentKeys.clear();
+            for (Object[] row : reservationRepository.findRecentBookings(PageRequest.of(0, RECENT_CAPACITY))) {
+                RecentKey key = new RecentKey((LocalDateTime) row[2], (Long) row[0]);
+                recentBookings.put(key, (Long) row[1]);
+                recentKeys.put(key.reservationId, key);
+            }
+
+            incidents.clear();
+            for (IncidentCountDTO row : incidentRepository.countGroupedBySeverityResolvedAndType()) {
+                IncidentKey key = new IncidentKey(row.getSeverity(), Boolean.TRUE.equals(row.getResolved()),
+                        row.getReportType());
+                incidents.merge(key, row.getCount(), Long::sum);
+            }
+
+            laptops = laptopRepository.count();
+            laptopSoftware.clear();
+            for (Object[] row : laptopRepository.findSoftwareNamesByLaptop()) {
+                laptopSoftware.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+
+            ready = true;
+            log.info("Analytics metrics rebuilt in {} ms", (System.nanoTime() - begin) / 1_000_000);
+        } catch (Exception e) {
+            // The dashboard falls back to querying the database until the next successful rebuild
+            ready = false;
+            log.error("Error rebuilding analytics metrics: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getReservationId() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED -> {
+                adjust(reservationsByStatus, event.getStatus(), 1);
+                adjust(reservationsByDay, dayOf(event.getStartTime()), 1);
+                addRecent(event);
+            }
+            case DELETED -> {
+                adjust(reservationsByStatus, event.getStatus(), -1);
+                adjust(reservationsByDay, dayOf(event.getStartTime()), -1);
+                RecentKey key = recentKeys.remove(event.getReservationId());
+                if (key != null) {
+                    recentBookings.remove(key);
+                }
+            }
+            case UPDATED -> {
+                if (event.getPreviousStatus() != event.getStatus()) {
+                    if (event.getPreviousStatus() == null) {
+                        // Unknown previous status: left for the periodic resync
+                        log.debug("Reservation {} updated without previous state", event.getReservationId());
+                    } else {
+                        adjust(reservationsByStatus, event.getPreviousStatus(), -1);
+                        adjust(reservationsByStatus, event.getStatus(), 1);
+                    }
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIncidentChanged(IncidentChangedEvent event) {
+        IncidentKey current = new IncidentKey(event.getSeverity(), event.isResolved(), event.getReportType());
+        switch (event.getType()) {
+            case CREATED -> adjust(incidents, current, 1);
+            case DELETED -> adjust(incidents, current, -1);
+            case UPDATED -> {
+                if (event.getPreviousResolved() == null) {
+                    log.debug("Incident {} updated without previous state", event.getIncidentId());
+                    return;
+                }
+                IncidentKey previous = new IncidentKey(event.getPreviousSeverity(), event.getPreviousResolved(),
+                        event.getPreviousReportType());
+                if (!previous.equals(current)) {
+                    adjust(incidents, previous, -1);
+                    adjust(incidents, current, 1);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLaptopChanged(LaptopChangedEvent event) {
+        if (event.getLaptopId() == null) {
+            return;
+        }
+        if (event.getType() == EntityChangeType.CREATED) {
+            laptops++;
+        } else if (event.getType() == EntityChangeType.DELETED) {
+            laptops = Math.max(0, laptops - 1);
+            laptopSoftware.remove(event.getLaptopId());
+            return;
+        }
+        if (event.getInstalledSoftware() != null) {
+            List<String> names = new ArrayList<>();
+            for (Software sw : event.getInstalledSoftware()) {
+                names.add(sw.getName());
+            }
+            laptopSoftware.put(event.getLaptopId(), names);
+        }
+    }
+
+    private void addRecent(ReservationChangedEvent event) {
+        if (event.getStartTime() == null || event.getLaptopId() == null) {
+            return;
+        }
+        RecentKey key = new RecentKey(event.getStartTime(), event.getReservationId());
+        if (recentBookings.size() >= RECENT_CAPACITY && key.compareTo(recentBookings.lastKey()) > 0) {
+            return;
+        }
+        recentBookings.put(key, event.getLaptopId());
+        recentKeys.put(key.reservationId, key);
+        if (recentBookings.size() > RECENT_CAPACITY) {
+            RecentKey evicted = recentBookings.pollLastEntry().getKey();
+            recentKeys.remove(evicted.reservationId);
+        }
+    }
+
+    private static LocalDate dayOf(LocalDateTime time) {
+        return time != null ? time.toLocalDate() : null;
+    }
+
+    private static <K> void adjust(Map<K, Long> counters, K key, long delta) {
+        if (key == null) {
+            return;
+        }
+        Long updated = counters.merge(key, delta, Long::sum);
+        if (updated != null && updated <= 0) {
+            counters.remove(key);
+        }
+    }
+
+    // Newest first, ties by reservation ID (also newest first)
+    private record RecentKey(LocalDateTime startTime, Long reservationId) implements Comparable<RecentKey> {
+        @Override
+        public int compareTo(RecentKey other) {
+            int byTime = other.startTime.compareTo(startTime);
+            return byTime != 0 ? byTime : other.reservationId.compareTo(reservationId);
+        }
+    }
+
+    private record IncidentKey(IncidentSeverity severity, boolean resolved, String reportType) {
+        IncidentKey {
+            reportType = reportType != null ? reportType : DEFAULT_REPORT_TYPE;
+        }
+    }
+}
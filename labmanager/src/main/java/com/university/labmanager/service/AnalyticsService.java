@@ -1,22 +1,24 @@
 package com.university.labmanager.service;
 
 import com.university.labmanager.dto.AnalyticsDashboardDTO;
-import com.university.labmanager.model.Incident;
-
-import com.university.labmanager.model.Reservation;
-import com.university.labmanager.model.Software;
+import com.university.labmanager.dto.DailyCountDTO;
+import com.university.labmanager.dto.IncidentCountDTO;
+import com.university.labmanager.dto.ReservationStatusCountDTO;
+import com.university.labmanager.dto.SoftwareCountDTO;
+import com.university.labmanager.model.enums.ReservationStatus;
 import com.university.labmanager.repository.IncidentRepository;
 import com.university.labmanager.repository.LaptopRepository;
 import com.university.labmanager.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,106 +28,85 @@ public class AnalyticsService {
         private final ReservationRepository reservationRepository;
         private final IncidentRepository incidentRepository;
         private final LaptopRepository laptopRepository;
+        private final AnalyticsMetricsStore metricsStore;
 
         @Transactional(readOnly = true)
         public AnalyticsDashboardDTO getDashboardMetrics() {
-                // 1. Basic Counts
-                long totalReservations = reservationRepository.count();
-                long activeIncidents = incidentRepository.countByResolvedFalse();
-                long totalLaptops = laptopRepository.count();
+                // Counters mantenidos en memoria; la consulta completa solo mientras se reconstruyen
+                if (metricsStore.isReady()) {
+                        return metricsStore.toDashboard(LocalDateTime.now());
+                }
+                return computeFromDatabase();
+        }
+
+        // Solo agregados SQL proyectados a DTOs: ninguna entidad se hidrata
+        private AnalyticsDashboardDTO computeFromDatabase() {
+                LocalDateTime now = LocalDateTime.now();
+
+                // 1. Reservations by status (total and utilization come from the same rows)
+                long totalReservations = 0;
+                long activeReservationsCount = 0;
+                for (ReservationStatusCountDTO row : reservationRepository.countGroupedByStatus()) {
+                        totalReservations += row.getCount();
+                        if (row.getStatus() == ReservationStatus.ACTIVE) {
+                                activeReservationsCount = row.getCount();
+                        }
+                }
 
                 // 2. Utilization Rate (Active Reservations / Total Laptops)
-                long activeReservationsCount = reservationRepository.findAll().stream()
-                                .filter(r -> r.getStatus() == com.university.labmanager.model.enums.ReservationStatus.ACTIVE)
-                                .count();
+                long totalLaptops = laptopRepository.count();
                 double utilizationRate = totalLaptops > 0 ? ((double) activeReservationsCount / totalLaptops) * 100 : 0;
 
                 // 3. Reservations by Day (Last 7 days)
-                // 3. Reservations by Day (Last 7 days)
-                LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-                List<Reservation> recentReservationsForChart = reservationRepository.findByStartTimeAfter(sevenDaysAgo);
-
                 Map<String, Long> reservationsByDayMap = new HashMap<>();
-                if (recentReservationsForChart != null) {
-                        Map<String, Long> grouped = recentReservationsForChart.stream()
-                                        .collect(Collectors.groupingBy(
-                                                        r -> r.getStartTime().toLocalDate().toString(),
-                                                        Collectors.counting()));
-                        reservationsByDayMap.putAll(grouped);
+                for (DailyCountDTO row : reservationRepository.countGroupedByStartDaySince(now.minusDays(7))) {
+                        reservationsByDayMap.put(row.getDay().toString(), row.getCount());
                 }
 
-                // 4. Incidents by Severity (Split Active vs Resolved)
-                List<Incident> allIncidents = incidentRepository.findAll();
+                // 4. Incidents: severity x resolved x type matrix
                 Map<String, Long> incidentsBySeverityMap = new HashMap<>();
-                Map<String, Long> activeIncidentsBySeverityMap = new HashMap<>(); // New
-                Map<String, Long> resolvedIncidentsBySeverityMap = new HashMap<>(); // New
-
-                if (allIncidents != null) {
-                        // Overall
-                        incidentsBySeverityMap.putAll(allIncidents.stream()
-                                        .collect(Collectors.groupingBy(i -> i.getSeverity().name(),
-                                                        Collectors.counting())));
-
-                        // Active (not resolved)
-                        activeIncidentsBySeverityMap.putAll(allIncidents.stream()
-                                        .filter(i -> !i.isResolved())
-                                        .collect(Collectors.groupingBy(i -> i.getSeverity().name(),
-                                                        Collectors.counting())));
-
-                        // Resolved
-                        resolvedIncidentsBySeverityMap.putAll(allIncidents.stream()
-                                        .filter(Incident::isResolved)
-                                        .collect(Collectors.groupingBy(i -> i.getSeverity().name(),
-                                                        Collectors.counting())));
-                }
-
-                // 5. Popular Software (Inferred from Reserved Laptops)
-                // Taking last 50 reservations to analyze trends
-                List<Reservation> recentReservations = reservationRepository.findAll().stream()
-                                .sorted((r1, r2) -> r2.getStartTime().compareTo(r1.getStartTime()))
-                                .limit(50)
-                                .collect(Collectors.toList());
-
-                Map<String, Long> softwareCount = new HashMap<>();
-                for (Reservation res : recentReservations) {
-                        if (res.getLaptop() != null && res.getLaptop().getInstalledSoftware() != null) {
-                                for (Software sw : res.getLaptop().getInstalledSoftware()) {
-                                        softwareCount.put(sw.getName(),
-                                                        softwareCount.getOrDefault(sw.getName(), 0L) + 1);
-                                }
+                Map<String, Long> activeIncidentsBySeverityMap = new HashMap<>();
+                Map<String, Long> resolvedIncidentsBySeverityMap = new HashMap<>();
+                Map<String, Long> incidentsByTypeMap = new HashMap<>();
+                long historicalIncidents = 0;
+                long activeIncidents = 0;
+                for (IncidentCountDTO row : incidentRepository.countGroupedBySeverityResolvedAndType()) {
+                        String severity = row.getSeverity().name();
+                        boolean resolved = Boolean.TRUE.equals(row.getResolved());
+                        incidentsBySeverityMap.merge(severity, row.getCount(), Long::sum);
+                        (resolved ? resolvedIncidentsBySeverityMap : activeIncidentsBySeverityMap)
+                                        .merge(severity, row.getCount(), Long::sum);
+                        // Old rows without a type are laptop incidents
+                        incidentsByTypeMap.merge(row.getReportType() != null ? row.getReportType() : "LAPTOP",
+                                        row.getCount(), Long::sum);
+                        historicalIncidents += row.getCount();
+                        if (!resolved) {
+                                activeIncidents += row.getCount();
                         }
                 }
 
-                // Sort and limit to top 5
-                Map<String, Long> topSoftware = softwareCount.entrySet().stream()
-                                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                                .limit(5)
-                                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-                // 6. Incidents by Type (Laptop vs Desktop)
-                Map<String, Long> incidentsByTypeMap = new HashMap<>();
-                if (allIncidents != null) {
-                        Map<String, Long> groupedType = allIncidents.stream()
-                                        .collect(Collectors.groupingBy(
-                                                        i -> i.getReportType() != null ? i.getReportType() : "LAPTOP", // Default
-                                                                                                                       // to
-                                                                                                                       // LAPTOP
-                                                                                                                       // for
-                                                                                                                       // old
-                                                                                                                       // data
-                                                        Collectors.counting()));
-                        incidentsByTypeMap.putAll(groupedType);
+                // 5. Popular Software: top 5 on the laptops of the last 50 reservations
+                List<Long> recentIds = new ArrayList<>();
+                for (Object[] row : reservationRepository.findRecentBookings(PageRequest.of(0, 50))) {
+                        recentIds.add((Long) row[0]);
+                }
+                Map<String, Long> topSoftware = new HashMap<>();
+                if (!recentIds.isEmpty()) {
+                        for (SoftwareCountDTO row : reservationRepository.countSoftwareForReservations(recentIds,
+                                        PageRequest.of(0, 5))) {
+                                topSoftware.put(row.getName(), row.getCount());
+                        }
                 }
 
                 return AnalyticsDashboardDTO.builder()
                                 .totalReservations(totalReservations)
                                 .activeIncidents(activeIncidents)
-                                .historicalIncidents(incidentRepository.count())
+                                .historicalIncidents(historicalIncidents)
                                 .utilizationRate(utilizationRate)
                                 .reservationsByDay(reservationsByDayMap)
                                 .incidentsBySeverity(incidentsBySeverityMap)
-                                .activeIncidentsBySeverity(activeIncidentsBySeverityMap) // New
-                                .resolvedIncidentsBySeverity(resolvedIncidentsBySeverityMap) // New
+                                .activeIncidentsBySeverity(activeIncidentsBySeverityMap)
+                                .resolvedIncidentsBySeverity(resolvedIncidentsBySeverityMap)
                                 .popularSoftware(topSoftware)
                                 .incidentsByType(incidentsByTypeMap)
                                 .build();
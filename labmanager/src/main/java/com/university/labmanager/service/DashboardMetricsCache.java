@@ -0,0 +1,179 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.AnalyticsDashboardDTO;
+import com.university.labmanager.dto.DashboardCacheStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the analytics dashboard in front of {@link AnalyticsService}.
+ *
+ * A cached dashboard is fresh for the rest of the TTL bucket it was computed in
+ * (buckets are aligned to the wall clock, so every poller sees the refresh at
+ * the same moment). After that it is still served for up to
+ * labmanager.analytics.cache-stale-ms while one background refresh runs. Only
+ * when nothing usable is cached do callers wait, and then all concurrent
+ * callers share a single computation.
+ */
+@Component
+@Slf4j
+public class DashboardMetricsCache {
+
+    private final AnalyticsService analyticsService;
+    private final Executor refreshExecutor;
+    private final long ttlMs;
+    private final long staleMs;
+    private final LongSupplier clock;
+
+    private volatile Snapshot current;
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder recomputations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalComputeNanos = new LongAdder();
+    private volatile long lastComputeNanos;
+
+    @Autowired
+    public DashboardMetricsCache(AnalyticsService analyticsService,
+            @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+            @Value("${labmanager.analytics.cache-ttl-ms:30000}") long ttlMs,
+            @Value("${labmanager.analytics.cache-stale-ms:120000}") long staleMs) {
+        this(analyticsService, refreshExecutor, ttlMs, staleMs, System::currentTimeMillis);
+    }
+
+    DashboardMetricsCache(AnalyticsService analyticsService, Executor refreshExecutor, long ttlMs, long staleMs,
+            LongSupplier clock) {
+        if (ttlMs <= 0) {
+            throw new IllegalArgumentException("labmanager.analytics.cache-ttl-ms must be positive");
+        }
+        this.analyticsService = analyticsService;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlMs = ttlMs;
+        this.staleMs = Math.max(0, staleMs);
+        this.clock = clock;
+    }
+
+    public AnalyticsDashboardDTO get() {
+        long now = clock.getAsLong();
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.computedAt / ttlMs == now / ttlMs) {
+            hits.increment();
+            return snapshot.value;
+        }
+        if (snapshot != null && now - snapshot.computedAt < ttlMs + staleMs) {
+            // Stale-while-revalidate: answer now, refresh once in the background
+            staleHits.increment();
+            refresh(true);
+            return snapshot.value;
+        }
+
+        misses.increment();
+        while (true) {
+            try {
+                return refresh(false).join().value;
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    // Joined a background refresh the executor turned down; this caller needs a value, so compute it
+                    continue;
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    public DashboardCacheStatsDTO getStats() {
+        long hitCount = hits.sum();
+        long staleCount = staleHits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + staleCount + missCount;
+        long computed = recomputations.sum();
+        Snapshot snapshot = current;
+        return DashboardCacheStatsDTO.builder()
+                .hits(hitCount)
+                .staleHits(staleCount)
+                .misses(missCount)
+                .recomputations(computed)
+                .failures(failures.sum())
+                .hitRatio(requests > 0 ? (double) (hitCount + staleCount) / requests : 0)
+                .lastComputeMs(lastComputeNanos / 1e6)
+                .averageComputeMs(computed > 0 ? totalComputeNanos.sum() / 1e6 / computed : 0)
+                .ageMs(snapshot != null ? clock.getAsLong() - snapshot.computedAt : -1)
+                .ttlMs(ttlMs)
+                .staleMs(staleMs)
+                .build();
+    }
+
+    // Single flight: joins the running computation or starts the only one
+    private CompletableFuture<Snapshot> refresh(boolean background) {
+        while (true) {
+            CompletableFuture<Snapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, mine)) {
+                continue;
+            }
+            if (!background) {
+                compute(mine);
+            } else {
+                try {
+                    refreshExecutor.execute(() -> compute(mine));
+                } catch (RejectedExecutionException e) {
+                    // Executor saturated: keep serving the stale copy, the next request retries
+                    inFlight.compareAndSet(mine, null);
+                    mine.completeExceptionally(e);
+                }
+            }
+            return mine;
+        }
+    }
+
+    private void compute(CompletableFuture<Snapshot> target) {
+        long computedAt = clock.getAsLong();
+        long begin = System.nanoTime();
+        try {
+            Snapshot snapshot = new Snapshot(analyticsService.getDashboardMetrics(), computedAt);
+            long elapsed = System.nanoTime() - begin;
+            recomputations.increment();
+            totalComputeNanos.add(elapsed);
+            lastComputeNanos = elapsed;
+            // Publish before releasing the flight so late arrivals find the new copy
+            current = snapshot;
+            target.complete(snapshot);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Error computing dashboard metrics: {}", e.getMessage());
+            target.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(target, null);
+        }
+    }
+
+    private static final class Snapshot {
+        final AnalyticsDashboardDTO value;
+        final long computedAt;
+
+        Snapshot(AnalyticsDashboardDTO value, long computedAt) {
+            this.value = value;
+            this.computedAt = computedAt;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.EmailOutboxStatsDTO;
+import com.university.labmanager.model.OutboundEmail;
+import com.university.labmanager.model.enums.OutboundEmailStatus;
+import com.university.labmanager.repository.OutboundEmailRepository;
+import com.university.labmanager.scheduler.JobLeaseService;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers the email outbox.
+ *
+ * Due PENDING rows are taken in batches of labmanager.mail.outbox.batch-size
+ * and each batch goes out over a single SMTP connection. Messages the server
+ * did not take are retried with exponential backoff (backoff-ms, doubling,
+ * capped at max-backoff-ms) until max-attempts, then marked FAILED. The
+ * outbox is polled every poll-ms, and a commit that queued mail also wakes
+ * the dispatcher on the mail executor so messages normally leave right away.
+ * Only the node holding the email-outbox job lease delivers; on the others a
+ * wake-up does nothing and the holder's next poll sends the message.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    static final String JOB_NAME = "email-outbox";
+
+    private final OutboundEmailRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final Executor mailExecutor;
+    private final JobLeaseService jobLeases;
+    private final String fromEmail;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final int keepSentDays;
+
+    // Only one drain at a time; at most one wake-up waiting on the executor
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public EmailOutboxDispatcher(OutboundEmailRepository outboxRepository,
+            JavaMailSender mailSender,
+            @Qualifier("mailExecutor") Executor mailExecutor,
+            JobLeaseService jobLeases,
+            @Value("${spring.mail.username:}") String fromEmail,
+            @Value("${labmanager.mail.outbox.batch-size:50}") int batchSize,
+            @Value("${labmanager.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${labmanager.mail.outbox.backoff-ms:30000}") long backoffMs,
+            @Value("${labmanager.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+            @Value("${labmanager.mail.outbox.keep-sent-days:7}") int keepSentDays) {
+        if (batchSize <= 0 || maxAttempts <= 0 || backoffMs <= 0) {
+            throw new IllegalArgumentException(
+                    "labmanager.mail.outbox batch-size, max-attempts and backoff-ms must be positive");
+        }
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.mailExecutor = mailExecutor;
+        this.jobLeases = jobLeases;
+        this.fromEmail = fromEmail == null || fromEmail.isBlank() ? "noreply@labmanager.com" : fromEmail;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = Math.max(backoffMs, maxBackoffMs);
+        this.keepSentDays = keepSentDays;
+    }
+
+    // Called right after a message is queued: dispatch once the surrounding transaction commits
+    public void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    public void wakeUp() {
+        if (!wakeUpQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            mailExecutor.execute(() -> {
+                wakeUpQueued.set(false);
+                jobLeases.runExclusively(JOB_NAME, this::dispatch);
+            });
+        } catch (RejectedExecutionException e) {
+            // The next poll picks the message up
+            wakeUpQueued.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${labmanager.mail.outbox.poll-ms:5000}")
+    public void poll() {
+        jobLeases.runExclusively(JOB_NAME, this::dispatch);
+    }
+
+    // Returns how many messages were attempted
+    public int dispatch() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int attempted = 0;
+        try {
+            while (true) {
+                List<OutboundEmail> batch = outboxRepository.findDue(OutboundEmailStatus.PENDING,
+                        LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                sendBatch(batch);
+                attempted += batch.size();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Email outbox dispatch stopped: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        return attempted;
+    }
+
+    @Scheduled(cron = "${labmanager.mail.outbox.purge-cron:0 15 4 * * *}")
+    public void purgeSent() {
+        jobLeases.runExclusively("email-outbox-purge", this::deleteOldSent);
+    }
+
+    private void deleteOldSent() {
+        int deleted = outboxRepository.deleteSentBefore(OutboundEmailStatus.SENT,
+                LocalDateTime.now().minusDays(keepSentDays));
+        if (deleted > 0) {
+            log.info("Email outbox: removed {} messages sent more than {} days ago", deleted, keepSentDays);
+        }
+    }
+
+    public EmailOutboxStatsDTO getStats() {
+        return EmailOutboxStatsDTO.builder()
+                .pending(outboxRepository.countByStatus(OutboundEmailStatus.PENDING))
+                .failed(outboxRepository.countByStatus(OutboundEmailStatus.FAILED))
+                .sentSinceStart(sent.sum())
+                .retriedSinceStart(retried.sum())
+                .failedSinceStart(failed.sum())
+                .batchesSinceStart(batches.sum())
+                .build();
+    }
+
+    private void sendBatch(List<OutboundEmail> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<MimeMessage, OutboundEmail> messages = new LinkedHashMap<>();
+        for (OutboundEmail email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException | RuntimeException e) {
+                // A message that cannot even be built will not get better with retries
+                giveUp(email, e);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        if (!messages.isEmpty()) {
+            // Do not send if another node has taken the outbox over meanwhile
+            jobLeases.checkpoint();
+            batches.increment();
+            try {
+                // JavaMailSenderImpl sends the whole array over one connection
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                batchFailure = failures.isEmpty() ? e : null;
+            } catch (MailException e) {
+                batchFailure = e;
+            }
+        }
+
+        for (Map.Entry<MimeMessage, OutboundEmail> entry : messages.entrySet()) {
+            OutboundEmail email = entry.getValue();
+            email.setAttempts(email.getAttempts() + 1);
+            Exception failure = batchFailure != null ? batchFailure : failures.get(entry.getKey());
+            if (failure == null) {
+                email.setStatus(OutboundEmailStatus.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                sent.increment();
+            } else if (email.getAttempts() >= maxAttempts) {
+                giveUp(email, failure);
+            } else {
+                long delay = Math.min(maxBackoffMs, backoffMs << Math.min(30, email.getAttempts() - 1));
+                email.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+                email.setLastError(truncate(failure.getMessage()));
+                retried.increment();
+                log.warn("Email {} to {} failed (attempt {}), retrying in {} ms: {}", email.getId(),
+                        email.getRecipient(), email.getAttempts(), delay, failure.getMessage());
+            }
+        }
+        outboxRepository.saveAll(batch);
+    }
+
+    private void giveUp(OutboundEmail email, Exception failure) {
+        email.setStatus(OutboundEmailStatus.FAILED);
+        email.setLastError(truncate(failure.getMessage()));
+        failed.increment();
+        log.error("Email {} to {} failed permanently after {} attempts: {}", email.getId(), email.getRecipient(),
+                email.getAttempts(), failure.getMessage());
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = email.isHtml()
+                ? new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                        StandardCharsets.UTF_8.name())
+                : new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        return message;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
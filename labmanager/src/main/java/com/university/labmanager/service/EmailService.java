@@ -1,59 +1,48 @@
 package com.university.labmanager.service;
 
+import com.university.labmanager.model.OutboundEmail;
 import com.university.labmanager.model.Reservation;
 import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.OutboundEmailStatus;
+import com.university.labmanager.repository.OutboundEmailRepository;
 import com.university.labmanager.util.QrCodeGenerator;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Renders notification emails and queues them in the email outbox, in the
+ * caller's transaction; {@link EmailOutboxDispatcher} delivers them.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender emailSender;
     private final TemplateEngine templateEngine;
+    private final OutboundEmailRepository outboxRepository;
+    private final EmailOutboxDispatcher outboxDispatcher;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
-    @Async
+    // Rendering failures only cost the email; failures to queue it propagate to the caller's transaction
     public void sendReservationConfirmation(Reservation reservation, User user) {
+        log.info("📧 [REAL SMTP] Preparing Reservation Confirmation for: {}", user.getEmail());
+        String htmlBody;
         try {
-            log.info("📧 [REAL SMTP] Preparing Reservation Confirmation for: {}", user.getEmail());
-
             // 1. Generate QR Code
             log.info("... Generating QR Code...");
-            String qrBase64 = "";
-            try {
-                String qrContent = "RES-" + reservation.getId();
-                byte[] qrImage = QrCodeGenerator.generateQRCodeImage(qrContent, 200, 200);
-                qrBase64 = Base64.getEncoder().encodeToString(qrImage);
-                log.info("... QR Code Generated successfully (Size: {} bytes)", qrImage.length);
-            } catch (Throwable t) {
-                log.error("❌ ERROR Generating QR Code: {}", t.getMessage(), t);
-                System.out.println("❌ QR GENERATION FAILED: " + t.toString());
-                // Fallback to empty/placeholder if QR fails, so email might still send?
-                // For now, let's keep it failing but LOGGED.
-                throw t;
-            }
+            String qrContent = "RES-" + reservation.getId();
+            byte[] qrImage = QrCodeGenerator.generateQRCodeImage(qrContent, 200, 200);
+            String qrBase64 = Base64.getEncoder().encodeToString(qrImage);
+            log.info("... QR Code Generated successfully (Size: {} bytes)", qrImage.length);
 
             // 2. Prepare Context
             Context context = new Context();
@@ -68,152 +57,143 @@ public class EmailService {
 
             // 3. Process Template
             log.info("... Processing Template 'mail/reservation-confirmation'...");
-            String htmlBody = templateEngine.process("mail/reservation-confirmation", context);
-
-            // 4. Send Email
-            log.info("... Sending HTML Message...");
-            sendHtmlMessage(user.getEmail(), "Confirmación de Reserva - LabManager", htmlBody);
-
-        } catch (Throwable e) {
-            log.error("❌ CRITICAL ERROR sending reservation confirmation", e);
-            System.out.println("❌ CRITICAL ERROR in sendReservationConfirmation: " + e.toString());
-            e.printStackTrace();
+            htmlBody = templateEngine.process("mail/reservation-confirmation", context);
+        } catch (Exception e) {
+            log.error("❌ CRITICAL ERROR rendering reservation confirmation", e);
+            return;
         }
+
+        // 4. Queue Email
+        log.info("... Sending HTML Message...");
+        sendHtmlMessage(user.getEmail(), "Confirmación de Reserva - LabManager", htmlBody);
     }
 
-    @Async
     public void sendSanctionNotification(User user, String reason) {
+        log.info("📧 [REAL SMTP] Preparing Sanction Notification for: {}", user.getEmail());
+        String htmlBody;
         try {
-            log.info("📧 [REAL SMTP] Preparing Sanction Notification for: {}", user.getEmail());
-
             Context context = new Context();
             context.setVariable("name", user.getFullName());
             context.setVariable("reason", reason);
 
-            String htmlBody = templateEngine.process("mail/sanction-notice", context);
-
-            sendHtmlMessage(user.getEmail(), "Aviso de Sanción - LabManager", htmlBody);
-        } catch (Throwable e) {
-            log.error("❌ Error sending sanction notification", e);
-            System.out.println("❌ CRITICAL ERROR in sendSanctionNotification: " + e.toString());
-            e.printStackTrace();
+            htmlBody = templateEngine.process("mail/sanction-notice", context);
+        } catch (Exception e) {
+            log.error("❌ Error rendering sanction notification", e);
+            return;
         }
+
+        sendHtmlMessage(user.getEmail(), "Aviso de Sanción - LabManager", htmlBody);
     }
 
-    @Async
     public void sendReminder(Reservation reservation) {
+        User user = reservation.getUser();
+        log.info("📧 [REAL SMTP] Preparing Reminder for: {}", user.getEmail());
+        String htmlBody;
         try {
-            User user = reservation.getUser();
-            log.info("📧 [REAL SMTP] Preparing Reminder for: {}", user.getEmail());
-
             Context context = new Context();
             context.setVariable("name", user.getFullName());
             context.setVariable("laptop", reservation.getLaptop().getModel());
             context.setVariable("startTime", reservation.getStartTime().format(DateTimeFormatter.ofPattern("HH:mm")));
 
-            String htmlBody = templateEngine.process("mail/reminder", context);
+            htmlBody = templateEngine.process("mail/reminder", context);
+        } catch (Exception e) {
+            log.error("❌ Error rendering reminder", e);
+            return;
+        }
+
+        sendHtmlMessage(user.getEmail(), "Recordatorio de Reserva - LabManager", htmlBody);
+    }
 
-            sendHtmlMessage(user.getEmail(), "Recordatorio de Reserva - LabManager", htmlBody);
-        } catch (Throwable e) {
-            log.error("❌ Error sending reminder", e);
-            System.out.println("❌ CRITICAL ERROR in sendReminder: " + e.toString());
-            e.printStackTrace();
+    public void sendReturnReminder(Reservation reservation) {
+        User user = reservation.getUser();
+        log.info("📧 Preparing Return Reminder for: {}", user.getEmail());
+        String text;
+        try {
+            text = "Hola " + user.getFullName() + ",\n\n" +
+                    "Tu reserva del equipo " + reservation.getLaptop().getModel() + " ("
+                    + reservation.getLaptop().getSerialNumber() + ") termina a las " +
+                    reservation.getEndTime().format(DateTimeFormatter.ofPattern("HH:mm")) + ".\n" +
+                    "Por favor devuélvelo a tiempo para evitar sanciones.\n\n" +
+                    "LabManager";
+        } catch (Exception e) {
+            log.error("❌ Error rendering return reminder", e);
+            return;
         }
+
+        sendSimpleMessage(user.getEmail(), "Recordatorio de Devolución - LabManager", text);
     }
 
-    @Async
     public void sendReturnConfirmation(Reservation reservation, User user) {
+        log.info("📧 [REAL SMTP] Preparing Return Confirmation for: {}", user.getEmail());
+        String htmlBody;
         try {
-            log.info("📧 [REAL SMTP] Preparing Return Confirmation for: {}", user.getEmail());
-
             Context context = new Context();
             context.setVariable("name", user.getFullName());
             context.setVariable("laptop", reservation.getLaptop().getModel());
             context.setVariable("returnTime",
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
 
-            String htmlBody = templateEngine.process("mail/return-confirmation", context);
-
-            sendHtmlMessage(user.getEmail(), "Devolución Exitosa - LabManager", htmlBody);
-        } catch (Throwable e) {
-            log.error("❌ Error sending return confirmation", e);
-            System.out.println("❌ CRITICAL ERROR in sendReturnConfirmation: " + e.toString());
-            e.printStackTrace();
+            htmlBody = templateEngine.process("mail/return-confirmation", context);
+        } catch (Exception e) {
+            log.error("❌ Error rendering return confirmation", e);
+            return;
         }
+
+        sendHtmlMessage(user.getEmail(), "Devolución Exitosa - LabManager", htmlBody);
     }
 
-    @Async
     public void sendPasswordResetLink(String to, String token) {
-        try {
-            log.info("📧 [REAL SMTP] Preparing Password Reset for: {}", to);
+        log.info("📧 [REAL SMTP] Preparing Password Reset for: {}", to);
 
-            String resetUrl = "http://localhost:5173/reset-password?token=" + token;
+        String resetUrl = "http://localhost:5173/reset-password?token=" + token;
 
-            // Log link for safety/dev
-            System.out.println(">>> PASSWORD RESET LINK: " + resetUrl);
+        // Log link for safety/dev
+        System.out.println(">>> PASSWORD RESET LINK: " + resetUrl);
 
+        String htmlBody;
+        try {
             Context context = new Context();
             context.setVariable("resetLink", resetUrl);
 
-            String htmlBody = templateEngine.process("mail/password-reset", context);
-
-            sendHtmlMessage(to, "Recuperación de Contraseña - LabManager", htmlBody);
-        } catch (Throwable e) {
-            log.error("❌ Error sending password reset link", e);
-            System.out.println("❌ CRITICAL ERROR in sendPasswordResetLink: " + e.toString());
-            e.printStackTrace();
+            htmlBody = templateEngine.process("mail/password-reset", context);
+        } catch (Exception e) {
+            log.error("❌ Error rendering password reset link", e);
+            return;
         }
+
+        sendHtmlMessage(to, "Recuperación de Contraseña - LabManager", htmlBody);
     }
 
-    @Async
     public void sendSimpleMessage(String to, String subject, String text) {
-        log.info("📧 [REAL SMTP] Attempting to send Simple Email to: {}", to);
-        System.out.println(">>> CHECKING SMTP: Sending to " + to + " via " + fromEmail);
-
-        try {
-            if (to == null || !to.contains("@")) {
-                log.warn("⚠️ Cannot send email, invalid address: {}", to);
-                return;
-            }
-
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
-
-            String safeFrom = fromEmail != null ? fromEmail : "noreply@labmanager.com";
-            helper.setFrom(safeFrom);
-            helper.setTo(to);
-            helper.setSubject(subject != null ? subject : "No Subject");
-            helper.setText(text != null ? text : "");
-
-            emailSender.send(message);
-            log.info("✅ REAL Email sent successfully to {}", to);
-            System.out.println(">>> SMTP SUCCESS: Email sent to " + to);
-        } catch (Exception e) {
-            log.error("❌ SMTP ERROR sending simple email to {}", to, e);
-            System.out.println(">>> SMTP FAILED: " + e.getMessage());
-            e.printStackTrace();
+        log.info("📧 Queueing Simple Email to: {}", to);
+        if (to == null || !to.contains("@")) {
+            log.warn("⚠️ Cannot send email, invalid address: {}", to);
+            return;
         }
+        enqueue(to, subject != null ? subject : "No Subject", text != null ? text : "", false);
     }
 
-    private void sendHtmlMessage(String to, String subject, String htmlBody) throws MessagingException {
-        log.info("📧 [REAL SMTP] Attempting to send HTML Email to: {}", to);
-        try {
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                    StandardCharsets.UTF_8.name());
-
-            String safeFrom = fromEmail != null ? fromEmail : "noreply@labmanager.com";
-            helper.setFrom(safeFrom);
-            helper.setTo(to != null ? to : "");
-            helper.setSubject(subject != null ? subject : "Notification");
-            helper.setText(htmlBody != null ? htmlBody : "", true);
-
-            emailSender.send(message);
-            log.info("✅ REAL HTML Email sent successfully to {}", to);
-        } catch (Exception e) {
-            log.error("❌ SMTP ERROR sending HTML email to {}", to, e);
-            System.out.println(">>> SMTP FAILED: " + e.getMessage());
-            e.printStackTrace();
+    private void sendHtmlMessage(String to, String subject, String htmlBody) {
+        log.info("📧 Queueing HTML Email to: {}", to);
+        if (to == null || !to.contains("@")) {
+            log.warn("⚠️ Cannot send email, invalid address: {}", to);
+            return;
         }
+        enqueue(to, subject != null ? subject : "Notification", htmlBody != null ? htmlBody : "", true);
+    }
+
+    // Joins the caller's transaction, so the message is only sent if the change that caused it commits
+    private void enqueue(String to, String subject, String body, boolean html) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(OutboundEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .html(html)
+                .status(OutboundEmailStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        outboxDispatcher.wakeUpAfterCommit();
     }
 }
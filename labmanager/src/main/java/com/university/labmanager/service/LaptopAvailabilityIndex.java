@@ -0,0 +1,296 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.LaptopChangedEvent;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.enums.LaptopStatus;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory answer to {@link LaptopRepository#findAvailableLaptopsWithSoftware}.
+ *
+ * Each laptop keeps an immutable slot with its status, a software bitmap and a
+ * sorted array of the reservation windows that block it. Slots are rebuilt
+ * from the database on startup (and periodically, to pick up writes made by
+ * other nodes) and kept current from committed entity change events, so
+ * searches never touch the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LaptopAvailabilityIndex {
+
+    private final LaptopRepository laptopRepository;
+    private final ReservationRepository reservationRepository;
+    private final SoftwareDictionary softwareDictionary;
+
+    @Value("${labmanager.availability.index-enabled:true}")
+    private boolean enabled = true;
+
+    // Ordered by laptop ID so results come back in a stable order
+    private volatile ConcurrentSkipListMap<Long, LaptopSlot> slots = new ConcurrentSkipListMap<>();
+
+    // reservationId -> laptopId for every booking currently held in a slot (guarded by "this")
+    private final Map<Long, Long> bookingLaptops = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Same contract as the JPQL query: AVAILABLE laptops that have every
+     * requested software package and no blocking reservation overlapping
+     * [start, end). An empty list of names means "any software".
+     */
+    public List<Laptop> findAvailable(List<String> softwareNames, LocalDateTime start, LocalDateTime end) {
+        long[] required = softwareDictionary.requirementOf(softwareNames);
+        if (required == null) {
+            return new ArrayList<>();
+        }
+
+        long from = toNanos(start);
+        long to = toNanos(end);
+        List<Laptop> result = new ArrayList<>();
+        for (LaptopSlot slot : slots.values()) {
+            if (slot.laptop != null && slot.laptop.getStatus() == LaptopStatus.AVAILABLE
+                    && SoftwareDictionary.containsAll(slot.capabilities, required)
+                    && !slot.busy.overlaps(from, to)) {
+                result.add(copyOf(slot.laptop));
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${labmanager.availability.resync-ms:300000}", initialDelayString = "${labmanager.availability.resync-ms:300000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long begin = System.nanoTime();
+            ConcurrentSkipListMap<Long, LaptopSlot> fresh = new ConcurrentSkipListMap<>();
+            for (Laptop laptop : laptopRepository.findAllWithSoftware()) {
+                Laptop snapshot = copyOf(laptop);
+                fresh.put(laptop.getId(), LaptopSlot.EMPTY.withLaptop(snapshot, bitsOf(snapshot.getInstalledSoftware())));
+            }
+
+            bookingLaptops.clear();
+            for (Object[] row : reservationRepository.findBookingWindowsByStatusIn(ReservationStatus.BLOCKING)) {
+                Long reservationId = (Long) row[0];
+                Long laptopId = (Long) row[1];
+                LaptopSlot slot = fresh.getOrDefault(laptopId, LaptopSlot.EMPTY);
+                fresh.put(laptopId, slot.withBooking(reservationId,
+                        toNanos((LocalDateTime) row[2]), toNanos((LocalDateTime) row[3])));
+                bookingLaptops.put(reservationId, laptopId);
+            }
+
+            slots = fresh;
+            ready = true;
+            log.info("Availability index rebuilt: {} laptops, {} blocking reservations in {} ms",
+                    fresh.size(), bookingLaptops.size(), (System.nanoTime() - begin) / 1_000_000);
+        } catch (Exception e) {
+            // Searches fall back to the database query until the next successful rebuild
+            ready = false;
+            log.error("Error rebuilding availability index: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        Long reservationId = event.getReservationId();
+        if (reservationId == null) {
+            return;
+        }
+
+        Long previousLaptopId = bookingLaptops.remove(reservationId);
+        if (previousLaptopId != null) {
+            slots.computeIfPresent(previousLaptopId, (id, slot) -> slot.withoutBooking(reservationId));
+        }
+
+        if (event.getType() != EntityChangeType.DELETED && ReservationStatus.BLOCKING.contains(event.getStatus())
+                && event.getLaptopId() != null && event.getStartTime() != null && event.getEndTime() != null) {
+            long from = toNanos(event.getStartTime());
+            long to = toNanos(event.getEndTime());
+            slots.compute(event.getLaptopId(),
+                    (id, slot) -> (slot != null ? slot : LaptopSlot.EMPTY).withBooking(reservationId, from, to));
+            bookingLaptops.put(reservationId, event.getLaptopId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLaptopChanged(LaptopChangedEvent event) {
+        Long laptopId = event.getLaptopId();
+        if (laptopId == null) {
+            return;
+        }
+
+        if (event.getType() == EntityChangeType.DELETED) {
+            slots.remove(laptopId);
+            bookingLaptops.values().removeIf(laptopId::equals);
+            return;
+        }
+
+        slots.compute(laptopId, (id, slot) -> {
+            LaptopSlot current = slot != null ? slot : LaptopSlot.EMPTY;
+            Set<Software> software = event.getInstalledSoftware();
+            if (software == null) {
+                // Collection was not touched by this write: keep what we already know
+                software = current.laptop != null ? current.laptop.getInstalledSoftware() : new HashSet<>();
+            }
+            Laptop snapshot = Laptop.builder()
+                    .id(laptopId)
+                    .serialNumber(event.getSerialNumber())
+                    .model(event.getModel())
+                    .status(event.getStatus())
+                    .installedSoftware(new HashSet<>(software))
+                    .build();
+            return current.withLaptop(snapshot, bitsOf(software));
+        });
+    }
+
+    private long[] bitsOf(Set<Software> software) {
+        List<String> names = new ArrayList<>();
+        if (software != null) {
+            for (Software sw : software) {
+                names.add(sw.getName());
+            }
+        }
+        return softwareDictionary.bitmapOf(names);
+    }
+
+    // Detached copy with a plain collection, safe to serialize and to share across threads
+    private static Laptop copyOf(Laptop laptop) {
+        Set<Software> software = new HashSet<>();
+        if (laptop.getInstalledSoftware() != null) {
+            for (Software sw : laptop.getInstalledSoftware()) {
+                software.add(Software.builder().id(sw.getId()).name(sw.getName()).version(sw.getVersion()).build());
+            }
+        }
+        return Laptop.builder()
+                .id(laptop.getId())
+                .serialNumber(laptop.getSerialNumber())
+                .model(laptop.getModel())
+                .status(laptop.getStatus())
+                .installedSoftware(software)
+                .build();
+    }
+
+    static long toNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    /**
+     * Immutable per-laptop state. Writers replace the whole slot, readers never lock.
+     */
+    static final class LaptopSlot {
+        static final LaptopSlot EMPTY = new LaptopSlot(null, new long[0], Map.of());
+
+        // Null while we have only seen reservations for this laptop, not the laptop itself
+        final Laptop laptop;
+        // Installed software as a SoftwareDictionary bitmap
+        final long[] capabilities;
+        final Map<Long, long[]> bookings;
+        final BusyIntervals busy;
+
+        private LaptopSlot(Laptop laptop, long[] capabilities, Map<Long, long[]> bookings) {
+            this.laptop = laptop;
+            this.capabilities = capabilities;
+            this.bookings = bookings;
+            this.busy = BusyIntervals.of(bookings.values());
+        }
+
+        LaptopSlot withLaptop(Laptop laptop, long[] capabilities) {
+            return new LaptopSlot(laptop, capabilities, bookings);
+        }
+
+        LaptopSlot withBooking(Long reservationId, long start, long end) {
+            Map<Long, long[]> copy = new HashMap<>(bookings);
+            copy.put(reservationId, new long[] { start, end });
+            return new LaptopSlot(laptop, capabilities, copy);
+        }
+
+        LaptopSlot withoutBooking(Long reservationId) {
+            if (!bookings.containsKey(reservationId)) {
+                return this;
+            }
+            Map<Long, long[]> copy = new HashMap<>(bookings);
+            copy.remove(reservationId);
+            return new LaptopSlot(laptop, capabilities, copy);
+        }
+    }
+
+    /**
+     * Reservation windows sorted by start, plus a running maximum of end times.
+     * "Does anything overlap [from, to)?" is one binary search.
+     */
+    static final class BusyIntervals {
+        static final BusyIntervals NONE = new BusyIntervals(new long[0], new long[0]);
+
+        private final long[] starts;
+        private final long[] maxEnds;
+
+        private BusyIntervals(long[] starts, long[] maxEnds) {
+            this.starts = starts;
+            this.maxEnds = maxEnds;
+        }
+
+        static BusyIntervals of(Collection<long[]> windows) {
+            if (windows.isEmpty()) {
+                return NONE;
+            }
+            long[][] sorted = windows.toArray(new long[0][]);
+            Arrays.sort(sorted, Comparator.comparingLong(w -> w[0]));
+            long[] starts = new long[sorted.length];
+            long[] maxEnds = new long[sorted.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < sorted.length; i++) {
+                starts[i] = sorted[i][0];
+                max = Math.max(max, sorted[i][1]);
+                maxEnds[i] = max;
+            }
+            return new BusyIntervals(starts, maxEnds);
+        }
+
+        // Matches "r.startTime < :end AND r.endTime > :start"
+        boolean overlaps(long from, long to) {
+            // Last window starting strictly before "to"
+            int low = 0;
+            int high = starts.length - 1;
+            int last = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < to) {
+                    last = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return last >= 0 && maxEnds[last] > from;
+        }
+    }
+}
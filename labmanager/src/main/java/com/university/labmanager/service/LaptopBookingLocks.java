@@ -0,0 +1,79 @@
+package com.university.labmanager.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-process locks keyed by laptop ID.
+ *
+ * Bookings for the same laptop queue up here instead of on the database row
+ * lock, while bookings for unrelated laptops almost always land on different
+ * stripes and run in parallel. Stripes are always taken in ascending order so
+ * multi-laptop (bulk) bookings cannot deadlock with each other.
+ *
+ * When a transaction is active the stripes are held until it completes, so a
+ * second booking can only check for overlaps after the first one committed.
+ */
+class LaptopBookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    LaptopBookingLocks(int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    Held lock(Collection<Long> laptopIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long id : laptopIds) {
+            indexes.add(stripeOf(id));
+        }
+        ReentrantLock[] held = new ReentrantLock[indexes.size()];
+        int i = 0;
+        for (Integer index : indexes) {
+            stripes[index].lock();
+            held[i++] = stripes[index];
+        }
+        return new Held(held);
+    }
+
+    private int stripeOf(Long laptopId) {
+        long h = laptopId * 0x9E3779B97F4A7C15L;
+        return (int) ((h ^ (h >>> 32)) & Integer.MAX_VALUE) % stripes.length;
+    }
+
+    static final class Held implements AutoCloseable {
+        private final ReentrantLock[] locks;
+
+        private Held(ReentrantLock[] locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Keep other bookings out until our rows are committed (or rolled back)
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        unlock();
+                    }
+                });
+            } else {
+                unlock();
+            }
+        }
+
+        private void unlock() {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+}
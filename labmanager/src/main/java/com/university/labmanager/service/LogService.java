@@ -1,24 +1,30 @@
 package com.university.labmanager.service;
 
+import com.university.labmanager.dto.SystemLogPage;
 import com.university.labmanager.model.SystemLog;
 import com.university.labmanager.repository.SystemLogRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 public class LogService {
 
     private final SystemLogRepository logRepository;
+    private final SystemLogWriter logWriter;
 
-    // Use REQUIRES_NEW propagation to ensure logs are saved even if the main
-    // transaction fails (e.g. an error log)
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    // Rows are handed to the async writer so the request thread never waits on
+    // the DB. With labmanager.logs.async-enabled=false they are saved inline; the
+    // only caller (LoggingAspect) runs outside any business transaction, so an
+    // error log still survives the rollback of the failed request.
     public void log(SystemLog.LogLevel level, String category, String message, String username) {
         try {
             SystemLog log = SystemLog.builder()
@@ -31,7 +37,11 @@ public class LogService {
                                                                                                                 // long
                     .username(username != null ? username : "SYSTEM")
                     .build();
-            logRepository.save(log);
+            if (logWriter.isEnabled()) {
+                logWriter.append(log);
+            } else {
+                logRepository.save(log);
+            }
         } catch (Exception e) {
             // Fallback to console if DB logging fails
             System.err.println("FAILED TO WRITE TO DB LOG: " + e.getMessage());
@@ -50,8 +60,78 @@ public class LogService {
         log(SystemLog.LogLevel.WARN, category, message, username);
     }
 
-    public List<SystemLog> getRecentLogs() {
-        // Retrieve all sorted by date desc. Ideally pagination in future.
-        return logRepository.findAllByOrderByTimestampDesc();
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
+
+    /**
+     * One page of logs, newest first. Paging is keyset based: the cursor holds
+     * the (timestamp, id) of the last row returned, so every page is a range
+     * scan on one of the system_logs indexes no matter how deep the client
+     * pages. Filters left null are not applied; to is exclusive.
+     */
+    public SystemLogPage findLogs(String level, String category, String username, LocalDateTime from,
+            LocalDateTime to, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+
+        Specification<SystemLog> spec = Specification.where(null);
+        if (level != null && !level.isBlank()) {
+            SystemLog.LogLevel logLevel = parseLevel(level);
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("level"), logLevel));
+        }
+        if (category != null && !category.isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("category"), category));
+        }
+        if (username != null && !username.isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("username"), username));
+        }
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), from));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("timestamp"), to));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            SystemLog last = decodeCursor(cursor);
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("timestamp"), last.getTimestamp()),
+                    cb.and(cb.equal(root.get("timestamp"), last.getTimestamp()),
+                            cb.lessThan(root.get("id"), last.getId()))));
+        }
+
+        // One extra row tells us whether there is a next page without a COUNT
+        List<SystemLog> rows = logRepository.findBy(spec, q -> q.sortBy(NEWEST_FIRST).limit(size + 1).all());
+        if (rows.size() <= size) {
+            return new SystemLogPage(rows, null);
+        }
+        List<SystemLog> page = rows.subList(0, size);
+        return new SystemLogPage(page, encodeCursor(page.get(size - 1)));
+    }
+
+    private static SystemLog.LogLevel parseLevel(String level) {
+        try {
+            return SystemLog.LogLevel.valueOf(level.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid log level: " + level);
+        }
+    }
+
+    static String encodeCursor(SystemLog log) {
+        String key = log.getTimestamp() + "|" + log.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SystemLog decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('|');
+            return SystemLog.builder()
+                    .timestamp(LocalDateTime.parse(key.substring(0, separator)))
+                    .id(Long.parseLong(key.substring(separator + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 }
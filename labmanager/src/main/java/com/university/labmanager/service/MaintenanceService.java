@@ -1,75 +1,138 @@
 package com.university.labmanager.service;
 
+import com.university.labmanager.event.EntityChangePublisher;
 import com.university.labmanager.model.Laptop;
 import com.university.labmanager.model.enums.LaptopStatus;
 import com.university.labmanager.model.enums.ReservationStatus;
 import com.university.labmanager.repository.LaptopRepository;
 import com.university.labmanager.repository.ReservationRepository;
-import lombok.RequiredArgsConstructor;
+import com.university.labmanager.scheduler.JobLeaseService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Nightly predictive maintenance check.
+ *
+ * Usage per laptop is counted by the database in one GROUP BY over the
+ * reservations, returning only the AVAILABLE or INACTIVE laptops over the
+ * threshold. Those still AVAILABLE or INACTIVE are locked and flagged
+ * MAINTENANCE_REQUIRED with set-based updates, announced to the read models,
+ * and listed in a single digest email to the admins. A failure rolls the
+ * whole run back and is recorded on the job lease.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class MaintenanceService {
 
+    private static final Set<LaptopStatus> CHECKED = EnumSet.of(LaptopStatus.AVAILABLE, LaptopStatus.INACTIVE);
+
+    // Reservations that count as use (mocked as total use; a real system would count since the last maintenance)
+    private static final Set<ReservationStatus> USAGE = EnumSet.of(ReservationStatus.COMPLETED,
+            ReservationStatus.ACTIVE);
+
+    // Keeps the IN lists of the bulk update well under database parameter limits
+    private static final int UPDATE_BATCH = 500;
+
+    // Laptops listed one per line in the digest; the rest are summarized
+    private static final int DIGEST_LINES = 200;
+
     private final LaptopRepository laptopRepository;
     private final ReservationRepository reservationRepository;
     private final EmailService emailService;
-
+    private final EntityChangePublisher entityChangePublisher;
+    private final JobLeaseService jobLeases;
     // Maintenance Threshold (e.g., 50 reservations = ~100 hours of heavy use)
-    private static final int MAINTENANCE_THRESHOLD_RESERVATIONS = 50;
+    private final long usageThreshold;
+    private final String adminEmail;
+
+    public MaintenanceService(LaptopRepository laptopRepository,
+            ReservationRepository reservationRepository,
+            EmailService emailService,
+            EntityChangePublisher entityChangePublisher,
+            JobLeaseService jobLeases,
+            @Value("${labmanager.maintenance.usage-threshold:50}") long usageThreshold,
+            @Value("${labmanager.maintenance.admin-email:admin@university.edu}") String adminEmail) {
+        this.laptopRepository = laptopRepository;
+        this.reservationRepository = reservationRepository;
+        this.emailService = emailService;
+        this.entityChangePublisher = entityChangePublisher;
+        this.jobLeases = jobLeases;
+        this.usageThreshold = usageThreshold;
+        this.adminEmail = adminEmail;
+    }
 
     @Scheduled(cron = "0 0 2 * * *") // Run daily at 2 AM
     @Transactional
     public void performMaintenanceCheck() {
-        log.info("🛠️ Starting Predictive Maintenance Check...");
-        try {
-            List<Laptop> allLaptops = laptopRepository.findAll();
-
-            for (Laptop laptop : allLaptops) {
-                try {
-                    if (laptop.getStatus() == LaptopStatus.AVAILABLE || laptop.getStatus() == LaptopStatus.INACTIVE) {
-                        // Determine usage based on reservation count since last maintenance (mocked
-                        // here by total count for simplicity)
-                        // In a real system, we would check 'LastMaintenanceDate'
-                        long usageCount = reservationRepository.findAll().stream()
-                                .filter(r -> r.getLaptop().getId().equals(laptop.getId())
-                                        && (r.getStatus() == ReservationStatus.COMPLETED
-                                                || r.getStatus() == ReservationStatus.ACTIVE))
-                                .count();
+        // One node per cluster; the lease bookkeeping commits separately from this transaction
+        jobLeases.runExclusively("maintenance-check", this::checkLaptops);
+    }
 
-                        if (usageCount > MAINTENANCE_THRESHOLD_RESERVATIONS) {
-                            // Check if already in maintenance
-                            if (laptop.getStatus() != LaptopStatus.MAINTENANCE_REQUIRED
-                                    && laptop.getStatus() != LaptopStatus.EN_REPARACION) {
-                                log.warn("⚠️ Laptop {} (SN: {}) requires maintenance. Usage: {} reservations.",
-                                        laptop.getModel(), laptop.getSerialNumber(), usageCount);
+    // Returns how many laptops were flagged
+    int checkLaptops() {
+        log.info("🛠️ Starting Predictive Maintenance Check...");
+        long begin = System.nanoTime();
 
-                                laptop.setStatus(LaptopStatus.MAINTENANCE_REQUIRED);
-                                laptopRepository.save(laptop);
+        // [laptopId, serialNumber, model, reservations], heaviest first
+        List<Object[]> overused = reservationRepository.findLaptopsUsedMoreThan(CHECKED, USAGE, usageThreshold);
 
-                                // Notify Admin
-                                emailService.sendSimpleMessage("admin@university.edu",
-                                        "Maintenance Alert: " + laptop.getModel(),
-                                        "Laptop " + laptop.getSerialNumber() + " has exceeded usage thresholds ("
-                                                + usageCount
-                                                + " uses). Please inspect.");
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Error processing maintenance for laptop {}: {}", laptop.getId(), e.getMessage());
+        List<Laptop> flagged = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (int from = 0; from < overused.size(); from += UPDATE_BATCH) {
+            List<Object[]> batch = overused.subList(from, Math.min(from + UPDATE_BATCH, overused.size()));
+            List<Long> ids = batch.stream().map(row -> (Long) row[0]).toList();
+            // Laptops that changed status since the count (e.g. picked up) are skipped; the rest stay locked
+            Set<Long> updated = new HashSet<>(laptopRepository.lockIdsByIdInAndStatusIn(ids, CHECKED));
+            if (updated.isEmpty()) {
+                continue;
+            }
+            // Fencing: the flags only commit while this node still holds the job lease
+            jobLeases.checkpoint();
+            laptopRepository.updateStatus(updated, CHECKED, LaptopStatus.MAINTENANCE_REQUIRED);
+            for (Object[] row : batch) {
+                if (!updated.contains((Long) row[0])) {
+                    continue;
+                }
+                flagged.add(Laptop.builder()
+                        .id((Long) row[0])
+                        .serialNumber((String) row[1])
+                        .model((String) row[2])
+                        .status(LaptopStatus.MAINTENANCE_REQUIRED)
+                        .build());
+                if (lines.size() < DIGEST_LINES) {
+                    lines.add("- " + row[2] + " (SN: " + row[1] + "): " + row[3] + " uses");
                 }
             }
-            log.info("✅ Maintenance check completed.");
-        } catch (Exception e) {
-            log.error("Error in scheduled task performMaintenanceCheck: {}", e.getMessage());
         }
+
+        if (!flagged.isEmpty()) {
+            // Bulk updates skip the Hibernate flush events the read models listen to
+            entityChangePublisher.laptopsUpdated(flagged);
+            notifyAdmins(flagged.size(), lines);
+        }
+        log.info("✅ Maintenance check completed: {} laptops flagged in {} ms", flagged.size(),
+                (System.nanoTime() - begin) / 1_000_000);
+        return flagged.size();
+    }
+
+    private void notifyAdmins(int flagged, List<String> lines) {
+        log.warn("⚠️ {} laptops require maintenance (over {} reservations)", flagged, usageThreshold);
+        StringBuilder body = new StringBuilder()
+                .append(flagged).append(" laptops have exceeded usage thresholds (")
+                .append(usageThreshold).append(" uses) and were marked MAINTENANCE_REQUIRED. Please inspect:\n\n");
+        lines.forEach(line -> body.append(line).append('\n'));
+        if (flagged > lines.size()) {
+            body.append("... and ").append(flagged - lines.size()).append(" more\n");
+        }
+        emailService.sendSimpleMessage(adminEmail, "Maintenance Alert: " + flagged + " laptops", body.toString());
     }
 }
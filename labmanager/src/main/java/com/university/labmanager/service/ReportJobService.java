@@ -0,0 +1,338 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.ReportJobDTO;
+import com.university.labmanager.dto.ReportJobRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs large reports in the background and keeps the finished files on disk.
+ *
+ * Jobs run on a small bounded pool; when its queue is full new submissions
+ * are rejected instead of piling up. A submission identical to one that is
+ * still queued or running gets that job back. Finished files (plus a small
+ * metadata sidecar) live in labmanager.reports.jobs.dir for
+ * labmanager.reports.jobs.ttl-ms, so downloads survive a restart.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private static final String META_SUFFIX = ".meta";
+    private static final String PART_SUFFIX = ".part";
+    // <job id>.<format>|.meta|.part; the directory may be shared, so nothing else in it is ever touched
+    private static final Pattern STORE_FILE = Pattern.compile(
+            "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})\\.(pdf|xlsx|meta|part)");
+
+    private final ReportService reportService;
+    private final Path directory;
+    private final long ttlMs;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Dedup key -> job still queued or running
+    private final Map<String, Job> inFlight = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService,
+            @Value("${labmanager.reports.jobs.dir:${java.io.tmpdir}/labmanager-reports}") String directory,
+            @Value("${labmanager.reports.jobs.threads:2}") int threads,
+            @Value("${labmanager.reports.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${labmanager.reports.jobs.ttl-ms:3600000}") long ttlMs) {
+        this.reportService = reportService;
+        this.directory = Paths.get(directory);
+        this.ttlMs = ttlMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        Files.createDirectories(directory);
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+            for (Path meta : files) {
+                Job job = readMeta(meta);
+                if (job != null && Files.exists(resultFile(job)) && job.finishedAt + ttlMs > now) {
+                    jobs.put(job.id, job);
+                }
+            }
+        }
+        // Store files not belonging to a recovered job are leftovers (expired, or interrupted mid-write)
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Matcher name = STORE_FILE.matcher(file.getFileName().toString());
+                if (name.matches() && !jobs.containsKey(name.group(1))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        log.info("Report job store at {} ({} finished reports recovered)", directory, jobs.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            // Interrupted jobs still clean up their partial files
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a report, or returns the identical job that is already queued or
+     * running. Throws IllegalArgumentException for an invalid request and
+     * RejectedExecutionException when the queue is full.
+     */
+    public ReportJobDTO submit(ReportJobRequest request) {
+        String type = upper(request.getType());
+        String format = request.getFormat() != null ? request.getFormat().toLowerCase(Locale.ROOT) : "pdf";
+        validate(type, format, request);
+        String key = String.join("|", type, format, String.valueOf(request.getStatus()),
+                String.valueOf(request.getStart()), String.valueOf(request.getEnd()),
+                String.valueOf(request.getStudentId()), String.valueOf(request.getProfessor()));
+
+        synchronized (inFlight) {
+            Job existing = inFlight.get(key);
+            if (existing != null) {
+                return toDto(existing);
+            }
+            Job job = new Job(UUID.randomUUID().toString(), key, type, format, request, System.currentTimeMillis());
+            jobs.put(job.id, job);
+            inFlight.put(key, job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                inFlight.remove(key);
+                throw e;
+            }
+            return toDto(job);
+        }
+    }
+
+    // Null when the job is unknown or already expired
+    public ReportJobDTO getJob(String id) {
+        Job job = jobs.get(id);
+        return job != null ? toDto(job) : null;
+    }
+
+    // The finished file, or null while the job is not DONE
+    public Path getResultFile(String id) {
+        Job job = jobs.get(id);
+        return job != null && DONE.equals(job.status) ? resultFile(job) : null;
+    }
+
+    public String getMediaType(String id) {
+        Job job = jobs.get(id);
+        return job != null && "xlsx".equals(job.format) ? "application/octet-stream" : "application/pdf";
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Scheduled(fixedDelayString = "${labmanager.reports.jobs.cleanup-ms:300000}")
+    public void removeExpired() {
+        removeExpired(System.currentTimeMillis());
+    }
+
+    void removeExpired(long now) {
+        for (Job job : jobs.values()) {
+            if (job.finishedAt > 0 && job.finishedAt + ttlMs <= now) {
+                jobs.remove(job.id);
+                try {
+                    Files.deleteIfExists(resultFile(job));
+                    Files.deleteIfExists(directory.resolve(job.id + META_SUFFIX));
+                } catch (IOException e) {
+                    log.warn("Could not delete expired report {}: {}", job.id, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void run(Job job) {
+        job.status = RUNNING;
+        Path part = directory.resolve(job.id + PART_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                write(job, out);
+            }
+            Files.move(part, resultFile(job), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.finishedAt = System.currentTimeMillis();
+            writeMeta(job);
+            job.status = DONE;
+            log.info("Report job {} ({} {}) finished in {} ms", job.id, job.type, job.format,
+                    job.finishedAt - job.createdAt);
+        } catch (Exception e) {
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.finishedAt = System.currentTimeMillis();
+            job.status = FAILED;
+            log.error("Report job {} failed: {}", job.id, job.error);
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+                // Removed by the next startup sweep
+            }
+        } finally {
+            inFlight.remove(job.key, job);
+        }
+    }
+
+    private void write(Job job, OutputStream out) throws Exception {
+        ReportJobRequest request = job.request;
+        boolean pdf = "pdf".equals(job.format);
+        switch (job.type) {
+            case "RESERVATIONS" -> reportService.writeReservationReportPdf(request.getStatus(), request.getStart(),
+                    request.getEnd(), request.getStudentId(), request.getProfessor(), out);
+            case "INVENTORY" -> {
+                String status = request.getStatus() != null ? request.getStatus() : "ALL";
+                if (pdf) {
+                    reportService.writeLaptopReportPdf(status, out);
+                } else {
+                    reportService.writeLaptopReportExcel(status, out);
+                }
+            }
+            case "INCIDENTS" -> {
+                if (pdf) {
+                    reportService.writeIncidentReportPdf(out);
+                } else {
+                    reportService.writeIncidentReportExcel(out);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown report type: " + job.type);
+        }
+    }
+
+    private static void validate(String type, String format, ReportJobRequest request) {
+        if (!"pdf".equals(format) && !"xlsx".equals(format)) {
+            throw new IllegalArgumentException("Unsupported report format: " + format);
+        }
+        switch (type) {
+            case "RESERVATIONS" -> {
+                if (!"pdf".equals(format)) {
+                    throw new IllegalArgumentException("Reservation reports are only available as PDF");
+                }
+                ReportService.reservationStatusFilter(request.getStatus());
+            }
+            case "INVENTORY" -> ReportService.laptopStatusFilter(request.getStatus());
+            case "INCIDENTS" -> {
+            }
+            default -> throw new IllegalArgumentException("Unknown report type: " + type);
+        }
+    }
+
+    private Path resultFile(Job job) {
+        return directory.resolve(job.id + "." + job.format);
+    }
+
+    private void writeMeta(Job job) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("id", job.id);
+        meta.setProperty("type", job.type);
+        meta.setProperty("format", job.format);
+        meta.setProperty("createdAt", String.valueOf(job.createdAt));
+        meta.setProperty("finishedAt", String.valueOf(job.finishedAt));
+        try (OutputStream out = Files.newOutputStream(directory.resolve(job.id + META_SUFFIX))) {
+            meta.store(out, null);
+        }
+    }
+
+    private Job readMeta(Path file) {
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            meta.load(in);
+            Job job = new Job(meta.getProperty("id"), null, meta.getProperty("type"), meta.getProperty("format"),
+                    null, Long.parseLong(meta.getProperty("createdAt")));
+            job.finishedAt = Long.parseLong(meta.getProperty("finishedAt"));
+            job.status = DONE;
+            return job;
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable report metadata {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String upper(String value) {
+        return value != null ? value.toUpperCase(Locale.ROOT) : "";
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return epochMillis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                : null;
+    }
+
+    private static ReportJobDTO toDto(Job job) {
+        return ReportJobDTO.builder()
+                .id(job.id)
+                .type(job.type)
+                .format(job.format)
+                .status(job.status)
+                .createdAt(toDateTime(job.createdAt))
+                .finishedAt(toDateTime(job.finishedAt))
+                .fileName(job.type.toLowerCase(Locale.ROOT) + "_report." + job.format)
+                .error(job.error)
+                .build();
+    }
+
+    private static final class Job {
+        final String id;
+        final String key;
+        final String type;
+        final String format;
+        final ReportJobRequest request;
+        final long createdAt;
+        volatile String status = QUEUED;
+        volatile long finishedAt;
+        volatile String error;
+
+        Job(String id, String key, String type, String format, ReportJobRequest request, long createdAt) {
+            this.id = id;
+            this.key = key;
+            this.type = type;
+            this.format = format;
+            this.request = request;
+            this.createdAt = createdAt;
+        }
+    }
+}
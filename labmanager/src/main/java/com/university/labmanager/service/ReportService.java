@@ -4,144 +4,234 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
-import com.university.labmanager.model.Laptop;
-import com.university.labmanager.model.Reservation;
+import com.university.labmanager.dto.IncidentReportRow;
+import com.university.labmanager.dto.LaptopReportRow;
+import com.university.labmanager.dto.ReservationReportRow;
+import com.university.labmanager.model.enums.LaptopStatus;
+import com.university.labmanager.model.enums.ReservationStatus;
 import com.university.labmanager.repository.LaptopRepository;
 import com.university.labmanager.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Iterator;
 import java.util.stream.Stream;
 
+/**
+ * Report documents written straight to an output stream.
+ *
+ * Rows come from projection queries read through a JDBC cursor, Excel sheets
+ * keep only a small window of rows in memory (SXSSF) and PDF tables are
+ * flushed to the writer every few hundred rows, so heap use does not depend on
+ * the size of the report. Each write runs in its own read-only transaction,
+ * which keeps the cursor open while the caller streams the response.
+ */
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
+    // Rows SXSSF keeps in memory before spilling to its temp file
+    private static final int EXCEL_ROW_WINDOW = 100;
+    // Rows buffered in a PdfPTable before they are written out
+    private static final int PDF_FLUSH_ROWS = 200;
+
     private final LaptopRepository laptopRepository;
     private final ReservationRepository reservationRepository;
     private final com.university.labmanager.repository.IncidentRepository incidentRepository;
 
-    public byte[] generateLaptopReportPdf(String status) throws DocumentException {
-        List<Laptop> laptops = "ALL".equals(status) ? laptopRepository.findAll()
-                : laptopRepository.findByStatus(com.university.labmanager.model.enums.LaptopStatus.valueOf(status));
-
-        Document document = new Document();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, out);
-
-        document.open();
-        com.itextpdf.text.Font font = FontFactory.getFont(FontFactory.COURIER, 14, BaseColor.BLACK);
-        Paragraph para = new Paragraph("Reporte de Inventario - " + status, font);
-        para.setAlignment(Element.ALIGN_CENTER);
-        document.add(para);
-        document.add(Chunk.NEWLINE);
+    // "ALL" (or nothing) means no filter; anything else must be a LaptopStatus name
+    public static LaptopStatus laptopStatusFilter(String status) {
+        return status == null || status.isEmpty() || "ALL".equals(status) ? null : LaptopStatus.valueOf(status);
+    }
 
-        PdfPTable table = new PdfPTable(3);
-        Stream.of("ID", "Modelo", "Estado").forEach(headerTitle -> {
-            PdfPCell header = new PdfPCell();
-            header.setBackgroundColor(BaseColor.LIGHT_GRAY);
-            header.setBorderWidth(2);
-            header.setPhrase(new Phrase(headerTitle));
-            table.addCell(header);
-        });
+    public static ReservationStatus reservationStatusFilter(String status) {
+        return status == null || status.isEmpty() || "ALL".equals(status) ? null
+                : ReservationStatus.valueOf(status);
+    }
 
-        for (Laptop laptop : laptops) {
-            table.addCell(String.valueOf(laptop.getId()));
-            table.addCell(laptop.getModel());
-            table.addCell(translateLaptopStatus(laptop.getStatus()));
+    @Transactional(readOnly = true)
+    public void writeLaptopReportPdf(String status, OutputStream out) throws DocumentException {
+        Document document = openPdf(out, "Reporte de Inventario - " + status, null);
+        PdfPTable table = newPdfTable("ID", "Modelo", "Estado");
+
+        try (Stream<LaptopReportRow> rows = laptopRepository.streamReportRows(laptopStatusFilter(status))) {
+            Iterator<LaptopReportRow> it = rows.iterator();
+            for (int n = 1; it.hasNext(); n++) {
+                LaptopReportRow laptop = it.next();
+                table.addCell(String.valueOf(laptop.getId()));
+                table.addCell(laptop.getModel());
+                table.addCell(translateLaptopStatus(laptop.getStatus()));
+                flushIfNeeded(document, table, n);
+            }
         }
 
-        document.add(table);
-        document.close();
-
-        return out.toByteArray();
+        closePdf(document, table);
     }
 
-    public byte[] generateLaptopReportExcel(String status) throws Exception {
-        List<Laptop> laptops = "ALL".equals(status) ? laptopRepository.findAll()
-                : laptopRepository.findByStatus(com.university.labmanager.model.enums.LaptopStatus.valueOf(status));
+    @Transactional(readOnly = true)
+    public void writeLaptopReportExcel(String status, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        try (Stream<LaptopReportRow> rows = laptopRepository.streamReportRows(laptopStatusFilter(status))) {
+            Sheet sheet = workbook.createSheet("Laptops");
+            writeHeader(sheet, "ID", "Modelo", "Número de Serie", "Estado");
+
+            Iterator<LaptopReportRow> it = rows.iterator();
+            for (int rowNum = 1; it.hasNext(); rowNum++) {
+                LaptopReportRow laptop = it.next();
+                Row row = sheet.createRow(rowNum);
+                row.createCell(0).setCellValue(laptop.getId());
+                row.createCell(1).setCellValue(laptop.getModel());
+                row.createCell(2).setCellValue(laptop.getSerialNumber());
+                row.createCell(3).setCellValue(translateLaptopStatus(laptop.getStatus()));
+            }
+
+            workbook.write(out);
+        } finally {
+            // Deletes the temp file backing the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
 
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Laptops");
+    @Transactional(readOnly = true)
+    public void writeReservationReportPdf(String status, LocalDateTime start, LocalDateTime end, Long studentId,
+            String professor, OutputStream out) throws DocumentException {
+        String filterText = "";
+        if (start != null)
+            filterText += " Desde: " + start.toLocalDate();
+        if (end != null)
+            filterText += " Hasta: " + end.toLocalDate();
 
-        Row headerRow = sheet.createRow(0);
-        String[] columns = { "ID", "Modelo", "Número de Serie", "Estado" };
-        for (int i = 0; i < columns.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(columns[i]);
+        Document document = openPdf(out, "Reporte de Reservas", filterText.isEmpty() ? null : filterText);
+        PdfPTable table = newPdfTable("Laptop", "Estudiante", "Profesor", "Estado");
+
+        try (Stream<ReservationReportRow> rows = reservationRepository.streamReportRows(
+                reservationStatusFilter(status), start, end, studentId,
+                professor != null && !professor.isEmpty() ? professor : null)) {
+            Iterator<ReservationReportRow> it = rows.iterator();
+            for (int n = 1; it.hasNext(); n++) {
+                ReservationReportRow res = it.next();
+                table.addCell(res.getLaptopModel() != null ? res.getLaptopModel() : "N/A");
+                table.addCell(res.getUserFullName() != null ? res.getUserFullName() : "N/A");
+                table.addCell(res.getProfessor() != null ? res.getProfessor() : "N/A");
+                table.addCell(res.getStatus() != null ? translateReservationStatus(res.getStatus()) : "N/A");
+                flushIfNeeded(document, table, n);
+            }
         }
 
-        int rowNum = 1;
-        for (Laptop laptop : laptops) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(laptop.getId());
-            row.createCell(1).setCellValue(laptop.getModel());
-            row.createCell(2).setCellValue(laptop.getSerialNumber());
-            row.createCell(3).setCellValue(translateLaptopStatus(laptop.getStatus()));
+        closePdf(document, table);
+    }
+
+    @Transactional(readOnly = true)
+    public void writeIncidentReportPdf(OutputStream out) throws DocumentException {
+        Document document = openPdf(out, "Reporte de Incidentes", null);
+        PdfPTable table = newPdfTable("Tipo", "Equipo/Ubicación", "Descripción", "Severidad", "Fecha");
+
+        try (Stream<IncidentReportRow> rows = incidentRepository.streamReportRows()) {
+            Iterator<IncidentReportRow> it = rows.iterator();
+            for (int n = 1; it.hasNext(); n++) {
+                IncidentReportRow incident = it.next();
+                table.addCell(formatReportType(incident));
+                table.addCell(formatEquipment(incident));
+                table.addCell(incident.getDescription());
+                table.addCell(translateSeverity(incident.getSeverity()));
+                table.addCell(
+                        incident.getReportedAt() != null ? incident.getReportedAt().toLocalDate().toString() : "N/A");
+                flushIfNeeded(document, table, n);
+            }
         }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        workbook.write(out);
-        workbook.close();
-        return out.toByteArray();
+        closePdf(document, table);
     }
 
-    public byte[] generateReservationReportPdf(String status, LocalDateTime start, LocalDateTime end, Long studentId,
-            String professor) throws DocumentException {
-        List<Reservation> reservations = reservationRepository.findReservationsByFilters(
-                status != null && !status.isEmpty() && !"ALL".equals(status)
-                        ? com.university.labmanager.model.enums.ReservationStatus.valueOf(status)
-                        : null,
-                start, end, studentId, professor != null && !professor.isEmpty() ? professor : null);
+    @Transactional(readOnly = true)
+    public void writeIncidentReportExcel(OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        try (Stream<IncidentReportRow> rows = incidentRepository.streamReportRows()) {
+            Sheet sheet = workbook.createSheet("Incidentes");
+            writeHeader(sheet, "Tipo", "Equipo/Ubicación", "Descripción", "Severidad", "Fecha");
+
+            Iterator<IncidentReportRow> it = rows.iterator();
+            for (int rowNum = 1; it.hasNext(); rowNum++) {
+                IncidentReportRow incident = it.next();
+                Row row = sheet.createRow(rowNum);
+                row.createCell(0).setCellValue(formatReportType(incident));
+                row.createCell(1).setCellValue(formatEquipment(incident));
+                row.createCell(2).setCellValue(incident.getDescription());
+                row.createCell(3).setCellValue(translateSeverity(incident.getSeverity()));
+                row.createCell(4).setCellValue(
+                        incident.getReportedAt() != null ? incident.getReportedAt().toLocalDate().toString() : "N/A");
+            }
+
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
 
+    private Document openPdf(OutputStream out, String title, String subtitle) throws DocumentException {
         Document document = new Document();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, out);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        // The caller owns the stream (e.g. the servlet response)
+        writer.setCloseStream(false);
 
         document.open();
         com.itextpdf.text.Font font = FontFactory.getFont(FontFactory.COURIER, 14, BaseColor.BLACK);
-        Paragraph para = new Paragraph("Reporte de Reservas", font);
+        Paragraph para = new Paragraph(title, font);
         para.setAlignment(Element.ALIGN_CENTER);
         document.add(para);
 
-        String filterText = "";
-        if (start != null)
-            filterText += " Desde: " + start.toLocalDate();
-        if (end != null)
-            filterText += " Hasta: " + end.toLocalDate();
-        if (!filterText.isEmpty()) {
-            Paragraph sub = new Paragraph(filterText, FontFactory.getFont(FontFactory.COURIER, 10));
+        if (subtitle != null) {
+            Paragraph sub = new Paragraph(subtitle, FontFactory.getFont(FontFactory.COURIER, 10));
             sub.setAlignment(Element.ALIGN_CENTER);
             document.add(sub);
         }
 
         document.add(Chunk.NEWLINE);
+        return document;
+    }
 
-        PdfPTable table = new PdfPTable(4);
-        Stream.of("Laptop", "Estudiante", "Profesor", "Estado").forEach(headerTitle -> {
+    private PdfPTable newPdfTable(String... headers) {
+        PdfPTable table = new PdfPTable(headers.length);
+        for (String headerTitle : headers) {
             PdfPCell header = new PdfPCell();
             header.setBackgroundColor(BaseColor.LIGHT_GRAY);
             header.setBorderWidth(2);
             header.setPhrase(new Phrase(headerTitle));
             table.addCell(header);
-        });
+        }
+        // Repeat the header on every page; incomplete tables can be added in pieces
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        return table;
+    }
 
-        for (Reservation res : reservations) {
-            table.addCell(res.getLaptop() != null ? res.getLaptop().getModel() : "N/A");
-            table.addCell(res.getUser() != null ? res.getUser().getFullName() : "N/A");
-            table.addCell(res.getProfessor() != null ? res.getProfessor() : "N/A");
-            table.addCell(res.getStatus() != null ? translateReservationStatus(res.getStatus()) : "N/A");
+    // Writes the buffered rows out; iText keeps the table open for the next batch
+    private void flushIfNeeded(Document document, PdfPTable table, int rowsAdded) throws DocumentException {
+        if (rowsAdded % PDF_FLUSH_ROWS == 0) {
+            document.add(table);
         }
+    }
 
+    private void closePdf(Document document, PdfPTable table) throws DocumentException {
+        table.setComplete(true);
         document.add(table);
         document.close();
+    }
 
-        return out.toByteArray();
+    private void writeHeader(Sheet sheet, String... columns) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < columns.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columns[i]);
+        }
     }
 
     private String translateLaptopStatus(com.university.labmanager.model.enums.LaptopStatus status) {
@@ -182,74 +272,6 @@ public class ReportService {
         }
     }
 
-    public byte[] generateIncidentReportPdf() throws DocumentException {
-        List<com.university.labmanager.model.Incident> incidents = incidentRepository.findAll();
-
-        Document document = new Document();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, out);
-
-        document.open();
-        com.itextpdf.text.Font font = FontFactory.getFont(FontFactory.COURIER, 14, BaseColor.BLACK);
-        Paragraph para = new Paragraph("Reporte de Incidentes", font);
-        para.setAlignment(Element.ALIGN_CENTER);
-        document.add(para);
-        document.add(Chunk.NEWLINE);
-
-        PdfPTable table = new PdfPTable(5);
-        Stream.of("Tipo", "Equipo/Ubicación", "Descripción", "Severidad", "Fecha").forEach(headerTitle -> {
-            PdfPCell header = new PdfPCell();
-            header.setBackgroundColor(BaseColor.LIGHT_GRAY);
-            header.setBorderWidth(2);
-            header.setPhrase(new Phrase(headerTitle));
-            table.addCell(header);
-        });
-
-        for (com.university.labmanager.model.Incident incident : incidents) {
-            table.addCell(formatReportType(incident));
-            table.addCell(formatEquipment(incident));
-            table.addCell(incident.getDescription());
-            table.addCell(translateSeverity(incident.getSeverity()));
-            table.addCell(
-                    incident.getReportedAt() != null ? incident.getReportedAt().toLocalDate().toString() : "N/A");
-        }
-
-        document.add(table);
-        document.close();
-
-        return out.toByteArray();
-    }
-
-    public byte[] generateIncidentReportExcel() throws Exception {
-        List<com.university.labmanager.model.Incident> incidents = incidentRepository.findAll();
-
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Incidentes");
-
-        Row headerRow = sheet.createRow(0);
-        String[] columns = { "Tipo", "Equipo/Ubicación", "Descripción", "Severidad", "Fecha" };
-        for (int i = 0; i < columns.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(columns[i]);
-        }
-
-        int rowNum = 1;
-        for (com.university.labmanager.model.Incident incident : incidents) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(formatReportType(incident));
-            row.createCell(1).setCellValue(formatEquipment(incident));
-            row.createCell(2).setCellValue(incident.getDescription());
-            row.createCell(3).setCellValue(translateSeverity(incident.getSeverity()));
-            row.createCell(4).setCellValue(
-                    incident.getReportedAt() != null ? incident.getReportedAt().toLocalDate().toString() : "N/A");
-        }
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        workbook.write(out);
-        workbook.close();
-        return out.toByteArray();
-    }
-
     private String translateSeverity(com.university.labmanager.model.enums.IncidentSeverity severity) {
         if (severity == null)
             return "N/A";
@@ -267,19 +289,19 @@ public class ReportService {
         }
     }
 
-    private String formatReportType(com.university.labmanager.model.Incident incident) {
+    private String formatReportType(IncidentReportRow incident) {
         if ("DESKTOP".equals(incident.getReportType())) {
             return "Escritorio";
         }
         return "Laptop";
     }
 
-    private String formatEquipment(com.university.labmanager.model.Incident incident) {
+    private String formatEquipment(IncidentReportRow incident) {
         if ("DESKTOP".equals(incident.getReportType())) {
             return incident.getLocation() != null ? incident.getLocation() : "Sin Ubicación";
         }
-        return incident.getLaptop() != null
-                ? incident.getLaptop().getModel() + " (" + incident.getLaptop().getSerialNumber() + ")"
+        return incident.getLaptopId() != null
+                ? incident.getLaptopModel() + " (" + incident.getLaptopSerialNumber() + ")"
                 : "N/A";
     }
 }
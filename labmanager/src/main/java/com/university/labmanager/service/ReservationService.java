@@ -6,6 +6,7 @@ import com.university.labmanager.model.enums.LaptopStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,31 +25,8 @@ public class ReservationService {
         }
         validateReservationTime(start, end);
 
-        List<String> softwareList = new java.util.ArrayList<>();
-        boolean isAny = true;
-        long softwareCount = 0;
-
-        if (softwareNeeded != null && !softwareNeeded.trim().equalsIgnoreCase("Any")
-                && !softwareNeeded.trim().isEmpty()) {
-            isAny = false;
-            String[] parts = softwareNeeded.split(",");
-            for (String p : parts) {
-                if (!p.trim().isEmpty()) {
-                    softwareList.add(p.trim());
-                }
-            }
-            softwareCount = softwareList.size();
-            if (softwareCount == 0)
-                isAny = true;
-        }
-
-        // Prevent SQL error with empty list in IN clause
-        if (softwareList.isEmpty()) {
-            softwareList.add("DUMMY_SOFTWARE_TO_PREVENT_SQL_SYNTAX_ERROR");
-        }
-
-        // Búsqueda inteligente usando el repositorio
-        return laptopRepository.findAvailableLaptopsWithSoftware(softwareList, isAny, softwareCount, start, end);
+        // Búsqueda inteligente (índice en memoria, o repositorio si aún no está listo)
+        return findAvailableLaptops(parseSoftwareNeeded(softwareNeeded), start, end);
     }
 
     @Transactional
@@ -56,91 +34,122 @@ public class ReservationService {
             LocalDateTime start, LocalDateTime end, String subject, String professor) {
         if (start.isAfter(end))
             throw new IllegalArgumentException("Start date must be before end date");
-        validateReservationTime(start, end);
 
-        // 2. Verificar disponibilidad
-        // Si hay una reserva ACCEPTED o PENDING en ese horario, no se puede.
-        // TODO: Mejorar query para incluir PENDING/ACCEPTED en bloqueo.
-        // Por ahora mantenemos logica simple (si query devuelve laptop, es "valida").
+        // 1. Bloquear la laptop: stripe en memoria + SELECT ... FOR UPDATE (otros nodos).
+        // Se toma antes de cualquier otra lectura para que la verificación de traslape
+        // vea las reservas ya confirmadas por quien tenía el bloqueo.
+        try (LaptopBookingLocks.Held ignored = bookingLocks.lock(List.of(laptopId))) {
+            com.university.labmanager.model.Laptop laptop = laptopRepository.findByIdForUpdate(laptopId)
+                    .orElseThrow(() -> new IllegalArgumentException("Laptop not found with ID: " + laptopId));
+
+            validateReservationTime(start, end);
 
-        com.university.labmanager.model.User user = new com.university.labmanager.model.User();
-        user.setId(userId);
+            // 2. Verificar disponibilidad: PENDING/APPROVED/ACTIVE en ese horario bloquean la laptop
+            if (!reservationRepository.findOverlappingLaptopIds(List.of(laptopId), start, end,
+                    com.university.labmanager.model.enums.ReservationStatus.BLOCKING).isEmpty()) {
+                throw new IllegalArgumentException("Laptop is already reserved for the selected time slot.");
+            }
 
-        com.university.labmanager.model.Laptop laptop = laptopRepository.findById(laptopId)
-                .orElseThrow(() -> new IllegalArgumentException("Laptop not found with ID: " + laptopId));
+            com.university.labmanager.model.User user = new com.university.labmanager.model.User();
+            user.setId(userId);
 
-        com.university.labmanager.model.Reservation reservation = com.university.labmanager.model.Reservation.builder()
-                .user(user)
-                .laptop(laptop)
-                .startTime(start)
-                .endTime(end)
-                .subject(subject)
-                .professor(professor)
-                .status(com.university.labmanager.model.enums.ReservationStatus.PENDING)
-                .build();
+            com.university.labmanager.model.Reservation reservation = com.university.labmanager.model.Reservation
+                    .builder()
+                    .user(user)
+                    .laptop(laptop)
+                    .startTime(start)
+                    .endTime(end)
+                    .subject(subject)
+                    .professor(professor)
+                    .status(com.university.labmanager.model.enums.ReservationStatus.PENDING)
+                    .build();
 
-        return reservationRepository.save(reservation);
+            return reservationRepository.save(reservation);
+        }
     }
 
-    @Transactional
+    /**
+     * Candidates are searched and picked outside the booking transaction. Each
+     * booking attempt then runs in its own transaction that locks only the
+     * chosen laptops (stripes + FOR UPDATE) before its first plain read, so the
+     * validation and overlap re-check see every booking committed by an earlier
+     * lock holder, on any node (on MySQL REPEATABLE READ the snapshot is taken
+     * by the first plain read). If a chosen laptop was booked meanwhile the
+     * attempt is abandoned and the pick is retried without it.
+     */
     public List<com.university.labmanager.model.Reservation> createBulkReservation(Long userId, Integer quantity,
             String softwareNeeded,
             LocalDateTime start, LocalDateTime end, String subject) {
         if (start.isAfter(end))
             throw new IllegalArgumentException("Start date must be before end date");
-        validateReservationTime(start, end);
 
-        // Parse software requirements similarly to findSmartOptions
-        List<String> softwareList = new java.util.ArrayList<>();
-        boolean isAny = true;
-        long softwareCount = 0;
-
-        if (softwareNeeded != null && !softwareNeeded.trim().equalsIgnoreCase("Any")
-                && !softwareNeeded.trim().isEmpty()) {
-            isAny = false;
-            String[] parts = softwareNeeded.split(",");
-            for (String p : parts) {
-                if (!p.trim().isEmpty()) {
-                    softwareList.add(p.trim());
-                }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<Laptop> pool = new java.util.ArrayList<>(
+                readOnly.execute(status -> findAvailableLaptops(parseSoftwareNeeded(softwareNeeded), start, end)));
+
+        TransactionTemplate booking = new TransactionTemplate(transactionManager);
+        while (true) {
+            if (pool.size() < quantity) {
+                throw new IllegalArgumentException(
+                        "Not enough laptops available. Requested: " + quantity + ", Found: " + pool.size());
             }
-            softwareCount = softwareList.size();
+            // Which laptops get picked is up to the configured allocation strategy
+            List<Laptop> chosen = laptopAllocator.select(pool, quantity);
+            BulkAttempt attempt = booking.execute(status -> bookLaptops(userId, chosen, start, end, subject));
+            if (attempt.reservations() != null) {
+                return attempt.reservations();
+            }
+            pool.removeIf(l -> attempt.taken().contains(l.getId()));
         }
+    }
 
-        if (softwareList.isEmpty()) {
-            softwareList.add("DUMMY_SOFTWARE_TO_PREVENT_SQL_SYNTAX_ERROR");
-        }
+    // Either the inserted reservations, or the chosen laptops that were booked meanwhile
+    private record BulkAttempt(List<com.university.labmanager.model.Reservation> reservations, List<Long> taken) {
+    }
 
-        List<Laptop> available = laptopRepository.findAvailableLaptopsWithSoftware(softwareList, isAny, softwareCount,
-                start, end);
+    private BulkAttempt bookLaptops(Long userId, List<Laptop> chosen, LocalDateTime start, LocalDateTime end,
+            String subject) {
+        List<Long> ids = idsOf(chosen);
+        try (LaptopBookingLocks.Held ignored = bookingLocks.lock(ids)) {
+            // Locking read first, as in createReservation: everything below sees the committed bookings
+            laptopRepository.findAllByIdForUpdate(ids);
 
-        if (available.size() < quantity) {
-            throw new IllegalArgumentException(
-                    "Not enough laptops available. Requested: " + quantity + ", Found: " + available.size());
-        }
+            validateReservationTime(start, end);
 
-        String batchId = java.util.UUID.randomUUID().toString();
-        List<com.university.labmanager.model.Reservation> reservations = new java.util.ArrayList<>();
+            List<Long> taken = reservationRepository.findOverlappingLaptopIds(ids, start, end,
+                    com.university.labmanager.model.enums.ReservationStatus.BLOCKING);
+            if (!taken.isEmpty()) {
+                // Nothing written; the locks go with this transaction
+                return new BulkAttempt(null, taken);
+            }
 
-        com.university.labmanager.model.User user = new com.university.labmanager.model.User();
-        user.setId(userId);
+            String batchId = java.util.UUID.randomUUID().toString();
+            List<com.university.labmanager.model.Reservation> reservations = new java.util.ArrayList<>();
+
+            com.university.labmanager.model.User user = new com.university.labmanager.model.User();
+            user.setId(userId);
+
+            for (Laptop laptop : chosen) {
+                com.university.labmanager.model.Reservation res = com.university.labmanager.model.Reservation
+                        .builder()
+                        .user(user)
+                        .laptop(laptop)
+                        .startTime(start)
+                        .endTime(end)
+                        .subject(subject)
+                        .professor(user.getFullName()) // Professor requesting for themselves/class
+                        .status(com.university.labmanager.model.enums.ReservationStatus.PENDING)
+                        .batchId(batchId)
+                        .build();
+                reservations.add(res);
+            }
 
-        for (int i = 0; i < quantity; i++) {
-            Laptop laptop = available.get(i);
-            com.university.labmanager.model.Reservation res = com.university.labmanager.model.Reservation.builder()
-                    .user(user)
-                    .laptop(laptop)
-                    .startTime(start)
-                    .endTime(end)
-                    .subject(subject)
-                    .professor(user.getFullName()) // Professor requesting for themselves/class
-                    .status(com.university.labmanager.model.enums.ReservationStatus.PENDING)
-                    .batchId(batchId)
-                    .build();
-            reservations.add(res);
+            // Una sola ida al servidor: JDBC batch (IDs IDENTITY impiden el batching de Hibernate)
+            reservationBatchRepository.insertAll(reservations);
+            entityChangePublisher.reservationsInserted(reservations);
+            return new BulkAttempt(reservations, List.of());
         }
-
-        return reservationRepository.saveAll(reservations);
     }
 
     public List<com.university.labmanager.model.Reservation> getReservationsByUserId(Long userId) {
@@ -153,6 +162,7 @@ public class ReservationService {
 
     private final EmailService emailService;
 
+    @Transactional
     public com.university.labmanager.model.Reservation updateStatus(Long reservationId,
             com.university.labmanager.model.enums.ReservationStatus status) {
         com.university.labmanager.model.Reservation reservation = reservationRepository.findById(reservationId)
@@ -177,36 +187,11 @@ public class ReservationService {
             laptopRepository.save(laptop);
         }
 
-        try {
-            // Create "Safe" (Detached) objects to pass to Async method
-            // This prevents Hibernate Proxy errors (Illegal pop) when accessing entities in
-            // a different thread
-            com.university.labmanager.model.User safeUser = new com.university.labmanager.model.User();
-            safeUser.setId(updated.getUser().getId());
-            safeUser.setEmail(updated.getUser().getEmail());
-            safeUser.setFullName(updated.getUser().getFullName());
-            safeUser.setMatricula(updated.getUser().getMatricula());
-
-            com.university.labmanager.model.Laptop safeLaptop = new com.university.labmanager.model.Laptop();
-            safeLaptop.setModel(updated.getLaptop().getModel());
-            safeLaptop.setSerialNumber(updated.getLaptop().getSerialNumber());
-
-            com.university.labmanager.model.Reservation safeReservation = new com.university.labmanager.model.Reservation();
-            safeReservation.setId(updated.getId());
-            safeReservation.setSubject(updated.getSubject());
-            safeReservation.setStartTime(updated.getStartTime());
-            safeReservation.setEndTime(updated.getEndTime());
-            safeReservation.setLaptop(safeLaptop);
-
-            if (status == com.university.labmanager.model.enums.ReservationStatus.APPROVED) {
-                emailService.sendReservationConfirmation(safeReservation, safeUser);
-            } else if (status == com.university.labmanager.model.enums.ReservationStatus.COMPLETED) {
-                emailService.sendReturnConfirmation(safeReservation, safeUser);
-            }
-        } catch (Exception e) {
-            // Log error but don't fail the transaction
-            System.err.println(">>> EMAIL SENDING FAILED (Transaction safe): " + e.getMessage());
-            e.printStackTrace();
+        // Queued in the outbox within this transaction: sent only if the status change commits
+        if (status == com.university.labmanager.model.enums.ReservationStatus.APPROVED) {
+            emailService.sendReservationConfirmation(updated, updated.getUser());
+        } else if (status == com.university.labmanager.model.enums.ReservationStatus.COMPLETED) {
+            emailService.sendReturnConfirmation(updated, updated.getUser());
         }
 
         return updated;
@@ -261,6 +246,46 @@ public class ReservationService {
         laptopRepository.deleteById(id);
     }
 
+    // Splits "Python, Docker Desktop" into names; an empty list means any software
+    private List<String> parseSoftwareNeeded(String softwareNeeded) {
+        List<String> softwareList = new java.util.ArrayList<>();
+        if (softwareNeeded != null && !softwareNeeded.trim().equalsIgnoreCase("Any")) {
+            for (String p : softwareNeeded.split(",")) {
+                if (!p.trim().isEmpty()) {
+                    softwareList.add(p.trim());
+                }
+            }
+        }
+        return softwareList;
+    }
+
+    private List<Laptop> findAvailableLaptops(List<String> softwareList, LocalDateTime start, LocalDateTime end) {
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.findAvailable(softwareList, start, end);
+        }
+
+        boolean isAny = softwareList.isEmpty();
+        long softwareCount = softwareList.size();
+
+        // Prevent SQL error with empty list in IN clause
+        List<String> names = isAny ? List.of("DUMMY_SOFTWARE_TO_PREVENT_SQL_SYNTAX_ERROR") : softwareList;
+        List<Laptop> candidates = laptopRepository.findAvailableLaptopsWithSoftware(names, isAny, softwareCount,
+                start, end, com.university.labmanager.model.enums.ReservationStatus.BLOCKING);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        // Allocation scoring (best-fit) and the response read every candidate's software: load it in one query
+        return laptopRepository.findAllWithSoftwareByIdIn(idsOf(candidates));
+    }
+
+    private static List<Long> idsOf(List<Laptop> laptops) {
+        List<Long> ids = new java.util.ArrayList<>(laptops.size());
+        for (Laptop laptop : laptops) {
+            ids.add(laptop.getId());
+        }
+        return ids;
+    }
+
     private void validateReservationTime(LocalDateTime start, LocalDateTime end) {
         // 1. Check Day (Mon-Fri)
         java.time.DayOfWeek day = start.getDayOfWeek();
@@ -286,4 +311,10 @@ public class ReservationService {
 
     private final com.university.labmanager.repository.ReservationRepository reservationRepository;
     private final com.university.labmanager.repository.SoftwareRepository softwareRepository;
+    private final LaptopAvailabilityIndex availabilityIndex;
+    private final com.university.labmanager.repository.ReservationBatchRepository reservationBatchRepository;
+    private final com.university.labmanager.event.EntityChangePublisher entityChangePublisher;
+    private final com.university.labmanager.service.allocation.LaptopAllocator laptopAllocator;
+    private final org.springframework.transaction.PlatformTransactionManager transactionManager;
+    private final LaptopBookingLocks bookingLocks = new LaptopBookingLocks(256);
 }
@@ -0,0 +1,99 @@
+package com.university.labmanager.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns software names into dense integer IDs so "laptop has all of X, Y, Z"
+ * becomes a bitwise AND over a few long words instead of a GROUP BY/HAVING.
+ *
+ * IDs only ever grow, so bitmaps built earlier stay valid. With a few dozen
+ * packages a capability set is one or two longs.
+ */
+@Component
+public class SoftwareDictionary {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public int intern(String name) {
+        return ids.computeIfAbsent(name, n -> nextId.getAndIncrement());
+    }
+
+    // -1 when no laptop has ever had this package
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public int size() {
+        return nextId.get();
+    }
+
+    public long[] bitmapOf(Collection<String> names) {
+        long[] bits = new long[0];
+        for (String name : names) {
+            int id = intern(name);
+            if ((id >>> 6) >= bits.length) {
+                bits = Arrays.copyOf(bits, (id >>> 6) + 1);
+            }
+            bits[id >>> 6] |= 1L << id;
+        }
+        return bits;
+    }
+
+    /**
+     * Bitmap a laptop must cover to satisfy the request, or null when nothing
+     * can match: a package nobody has, or a repeated name (the JPQL query
+     * requires COUNT(DISTINCT name) >= number of names requested).
+     */
+    public long[] requirementOf(List<String> names) {
+        Set<String> distinct = new HashSet<>(names);
+        if (distinct.size() < names.size()) {
+            return null;
+        }
+        int[] required = new int[distinct.size()];
+        int maxId = -1;
+        int i = 0;
+        for (String name : distinct) {
+            int id = idOf(name);
+            if (id < 0) {
+                return null;
+            }
+            required[i++] = id;
+            maxId = Math.max(maxId, id);
+        }
+        long[] bits = new long[maxId < 0 ? 0 : (maxId >>> 6) + 1];
+        for (int id : required) {
+            bits[id >>> 6] |= 1L << id;
+        }
+        return bits;
+    }
+
+    // Allocation-free subset test: (required & ~capabilities) == 0 word by word
+    public static boolean containsAll(long[] capabilities, long[] required) {
+        for (int i = 0; i < required.length; i++) {
+            long have = i < capabilities.length ? capabilities[i] : 0L;
+            if ((required[i] & ~have) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
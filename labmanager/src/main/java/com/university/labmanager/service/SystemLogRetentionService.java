@@ -0,0 +1,204 @@
+package com.university.labmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.university.labmanager.model.SystemLog;
+import com.university.labmanager.model.SystemLogRollup;
+import com.university.labmanager.repository.SystemLogRepository;
+import com.university.labmanager.repository.SystemLogRollupRepository;
+import com.university.labmanager.scheduler.JobLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps system_logs small.
+ *
+ * Rows older than labmanager.logs.retention.hot-days leave the table in
+ * chunks of chunk-size, oldest first, one short transaction per chunk:
+ * the raw rows are appended to a gzip NDJSON archive (synced to disk before
+ * the delete commits), INFO "ACTION" rows are added to hourly per-user,
+ * per-category counts in system_log_rollups, and the chunk is deleted by id.
+ * A crash between the archive write and the commit can archive a chunk twice
+ * but never loses one.
+ *
+ * archive-dir has no default: it must point at persistent storage (a mounted
+ * volume in containers). While it is unset nothing is archived or deleted.
+ */
+@Service
+@Slf4j
+public class SystemLogRetentionService {
+
+    private static final ObjectMapper ARCHIVE_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final DateTimeFormatter ARCHIVE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final SystemLogRepository logRepository;
+    private final SystemLogRollupRepository rollupRepository;
+    private final JobLeaseService jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int hotDays;
+    private final int chunkSize;
+    private final long chunkPauseMs;
+    // null while archive-dir is unset
+    private final Path archiveDir;
+
+    public SystemLogRetentionService(SystemLogRepository logRepository,
+            SystemLogRollupRepository rollupRepository,
+            JobLeaseService jobLeases,
+            PlatformTransactionManager transactionManager,
+            @Value("${labmanager.logs.retention.enabled:true}") boolean enabled,
+            @Value("${labmanager.logs.retention.hot-days:30}") int hotDays,
+            @Value("${labmanager.logs.retention.chunk-size:1000}") int chunkSize,
+            @Value("${labmanager.logs.retention.chunk-pause-ms:100}") long chunkPauseMs,
+            @Value("${labmanager.logs.retention.archive-dir:}") String archiveDir) {
+        this.logRepository = logRepository;
+        this.rollupRepository = rollupRepository;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.hotDays = hotDays;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMs = chunkPauseMs;
+        this.archiveDir = archiveDir == null || archiveDir.isBlank() ? null : Paths.get(archiveDir);
+        if (enabled && this.archiveDir == null) {
+            log.warn("Log retention is disabled: labmanager.logs.retention.archive-dir is not set");
+        }
+    }
+
+    @Scheduled(cron = "${labmanager.logs.retention.cron:0 30 3 * * *}")
+    public void applyRetention() {
+        if (enabled && archiveDir != null) {
+            jobLeases.runExclusively("log-retention", () -> applyRetention(LocalDateTime.now()));
+        }
+    }
+
+    // Returns how many rows were moved out of system_logs
+    int applyRetention(LocalDateTime now) {
+        if (archiveDir == null) {
+            return 0;
+        }
+        LocalDateTime cutoff = now.minusDays(hotDays);
+        Path archive = archiveDir.resolve("system_logs_" + now.format(ARCHIVE_NAME) + ".ndjson.gz");
+        int total = 0;
+        try {
+            Files.createDirectories(archiveDir);
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> compactChunk(cutoff, archive));
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                total += moved;
+                if (moved < chunkSize) {
+                    break;
+                }
+                // Let inserts and log queries through between chunks
+                Thread.sleep(chunkPauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Log retention stopped after {} rows: {}", total, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Log retention archived {} rows older than {} to {}", total, cutoff, archive);
+        }
+        return total;
+    }
+
+    public List<SystemLogRollup> getRollups(LocalDateTime from, LocalDateTime to) {
+        return rollupRepository.findByHourStartGreaterThanEqualAndHourStartLessThanOrderByHourStartAsc(from, to);
+    }
+
+    private int compactChunk(LocalDateTime cutoff, Path archive) {
+        List<SystemLog> rows = logRepository.findOlderThan(cutoff, PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        // Fencing: fails (nothing archived or deleted) if another node has taken the job over
+        jobLeases.checkpoint();
+        appendToArchive(archive, rows);
+        rollUp(rows);
+        logRepository.deleteAllByIdInBatch(rows.stream().map(SystemLog::getId).toList());
+        return rows.size();
+    }
+
+    // Each chunk is a complete gzip member; concatenated members still read as one stream
+    private void appendToArchive(Path archive, List<SystemLog> rows) {
+        try (FileOutputStream file = new FileOutputStream(archive.toFile(), true)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(file);
+            Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            for (SystemLog row : rows) {
+                writer.write(ARCHIVE_MAPPER.writeValueAsString(row));
+                writer.write('\n');
+            }
+            writer.flush();
+            gzip.finish();
+            file.getFD().sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write log archive " + archive, e);
+        }
+    }
+
+    private void rollUp(List<SystemLog> rows) {
+        Map<RollupKey, Long> counts = new HashMap<>();
+        for (SystemLog row : rows) {
+            if (row.getLevel() == SystemLog.LogLevel.INFO && "ACTION".equals(row.getCategory())) {
+                RollupKey key = new RollupKey(row.getTimestamp().truncatedTo(ChronoUnit.HOURS), row.getUsername(),
+                        row.getCategory());
+                counts.merge(key, 1L, Long::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        LocalDateTime first = counts.keySet().stream().map(RollupKey::hourStart).min(LocalDateTime::compareTo).get();
+        LocalDateTime last = counts.keySet().stream().map(RollupKey::hourStart).max(LocalDateTime::compareTo).get();
+        // Earlier chunks (or runs) may already have counted part of the same hour
+        Map<RollupKey, SystemLogRollup> existing = new HashMap<>();
+        for (SystemLogRollup rollup : getRollups(first, last.plusHours(1))) {
+            existing.put(new RollupKey(rollup.getHourStart(), rollup.getUsername(), rollup.getCategory()), rollup);
+        }
+        List<SystemLogRollup> changed = counts.entrySet().stream().map(entry -> {
+            SystemLogRollup rollup = existing.get(entry.getKey());
+            if (rollup == null) {
+                rollup = SystemLogRollup.builder()
+                        .hourStart(entry.getKey().hourStart())
+                        .username(entry.getKey().username())
+                        .category(entry.getKey().category())
+                        .build();
+            }
+            rollup.setEntryCount(rollup.getEntryCount() + entry.getValue());
+            return rollup;
+        }).toList();
+        rollupRepository.saveAll(changed);
+    }
+
+    private record RollupKey(LocalDateTime hourStart, String username, String category) {
+    }
+}
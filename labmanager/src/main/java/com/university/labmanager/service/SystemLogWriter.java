@@ -0,0 +1,350 @@
+package com.university.labmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.university.labmanager.model.SystemLog;
+import com.university.labmanager.repository.SystemLogBatchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves audit logging off the request path.
+ *
+ * LogService drops rows into a bounded lock-free ring buffer; one background
+ * thread drains it every labmanager.logs.flush-ms (or as soon as a full batch
+ * is waiting) and writes each batch with a single JDBC batch INSERT. When the
+ * buffer is full the overflow policy decides: DROP the row, BLOCK the caller
+ * for up to block-timeout-ms, or SPILL it to a local NDJSON file that is
+ * replayed into the database once the buffer has drained. Whatever is still
+ * buffered at shutdown is flushed before the DataSource closes.
+ */
+@Service
+@Slf4j
+public class SystemLogWriter {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK, SPILL
+    }
+
+    private static final ObjectMapper SPILL_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final SystemLogBatchRepository batchRepository;
+    private final boolean enabled;
+    private final RingBuffer<SystemLog> buffer;
+    private final int batchSize;
+    private final long flushNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Path spillFile;
+    private final Object spillLock = new Object();
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread drainer;
+
+    public SystemLogWriter(SystemLogBatchRepository batchRepository,
+            @Value("${labmanager.logs.async-enabled:true}") boolean enabled,
+            @Value("${labmanager.logs.buffer-capacity:8192}") int capacity,
+            @Value("${labmanager.logs.batch-size:200}") int batchSize,
+            @Value("${labmanager.logs.flush-ms:1000}") long flushMs,
+            @Value("${labmanager.logs.overflow-policy:DROP}") String overflowPolicy,
+            @Value("${labmanager.logs.block-timeout-ms:50}") long blockTimeoutMs,
+            @Value("${labmanager.logs.spill-file:${java.io.tmpdir}/labmanager-logs.spill}") String spillFile) {
+        this.batchRepository = batchRepository;
+        this.enabled = enabled;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMs);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.toUpperCase(Locale.ROOT));
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.spillFile = Paths.get(spillFile);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "system-log-writer");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+        log.info("Async audit log writer started (capacity {}, batch {}, overflow {})", buffer.capacity(),
+                batchSize, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever arrived after the drainer's last pass
+        drain();
+        log.info("Async audit log writer stopped ({} written, {} dropped, {} spilled, {} failed)",
+                written.sum(), dropped.sum(), spilled.sum(), failed.sum());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Never touches the database; see the overflow policy for what happens when the buffer is full
+    public void append(SystemLog entry) {
+        if (buffer.offer(entry)) {
+            if (buffer.size() >= batchSize) {
+                wakeDrainer();
+            }
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                wakeDrainer();
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (!buffer.offer(entry)) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        dropped.increment();
+                        return;
+                    }
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+            }
+            case SPILL -> spill(List.of(entry));
+            default -> dropped.increment();
+        }
+    }
+
+    public int getPending() {
+        return buffer.size();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getSpilled() {
+        return spilled.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    // Writes everything currently buffered; returns how many rows were taken off the buffer
+    int drain() {
+        int taken = 0;
+        List<SystemLog> batch = new ArrayList<>(batchSize);
+        SystemLog entry;
+        while ((entry = buffer.poll()) != null) {
+            batch.add(entry);
+            taken++;
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        write(batch);
+        return taken;
+    }
+
+    // Feeds rows spilled during a burst back into the database
+    void replaySpill() {
+        List<SystemLog> rows = new ArrayList<>();
+        synchronized (spillLock) {
+            if (!Files.exists(spillFile)) {
+                return;
+            }
+            Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+            try {
+                Files.move(spillFile, replaying, StandardCopyOption.REPLACE_EXISTING);
+                try (BufferedReader reader = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            rows.add(SPILL_MAPPER.readValue(line, SystemLog.class));
+                        }
+                    }
+                }
+                Files.delete(replaying);
+            } catch (IOException e) {
+                log.error("Failed to replay spilled audit logs from {}", replaying, e);
+                return;
+            }
+        }
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            write(rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(this, flushNanos);
+            }
+            try {
+                drain();
+                if (overflowPolicy == OverflowPolicy.SPILL && buffer.size() == 0) {
+                    replaySpill();
+                }
+            } catch (RuntimeException e) {
+                log.error("Audit log writer error", e);
+            }
+        }
+    }
+
+    private void write(List<SystemLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batchRepository.insertAll(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            log.warn("Failed to write {} audit logs to the database", batch.size(), e);
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                failed.add(batch.size());
+            }
+        }
+    }
+
+    private void spill(List<SystemLog> entries) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (SystemLog entry : entries) {
+                    writer.write(SPILL_MAPPER.writeValueAsString(entry));
+                    writer.newLine();
+                }
+                spilled.add(entries.size());
+            } catch (IOException e) {
+                log.error("Failed to spill {} audit logs to {}, dropping them", entries.size(), spillFile, e);
+                dropped.add(entries.size());
+            }
+        }
+    }
+
+    private void wakeDrainer() {
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Bounded multi-producer queue over a power-of-two array (Vyukov style).
+     * Each slot carries a sequence number, so producers and the consumer only
+     * CAS their own cursor and never take a lock.
+     */
+    static final class RingBuffer<E> {
+
+        private final AtomicReferenceArray<E> slots;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        RingBuffer(int requestedCapacity) {
+            int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+            slots = new AtomicReferenceArray<>(capacity);
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+            mask = capacity - 1;
+        }
+
+        boolean offer(E element) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) (position & mask);
+                long diff = sequences.get(index) - position;
+                if (diff == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        slots.set(index, element);
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (diff < 0) {
+                    // Slot still holds an element from the previous lap: full
+                    return false;
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        E poll() {
+            long position = head.get();
+            while (true) {
+                int index = (int) (position & mask);
+                long diff = sequences.get(index) - (position + 1);
+                if (diff == 0) {
+                    if (head.compareAndSet(position, position + 1)) {
+                        E element = slots.get(index);
+                        slots.set(index, null);
+                        sequences.set(index, position + mask + 1);
+                        return element;
+                    }
+                    position = head.get();
+                } else if (diff < 0) {
+                    // Nothing published in this slot yet: empty
+                    return null;
+                } else {
+                    position = head.get();
+                }
+            }
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
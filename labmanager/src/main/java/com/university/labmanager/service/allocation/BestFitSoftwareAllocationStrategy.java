@@ -0,0 +1,24 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.model.Laptop;
+import org.springframework.stereotype.Component;
+
+/**
+ * Laptops with the fewest installed packages first. Every candidate already has
+ * the requested software, so this hands out the plainest machines and keeps the
+ * well-equipped ones free for classes that need them. Usage breaks ties.
+ */
+@Component
+public class BestFitSoftwareAllocationStrategy implements LaptopAllocationStrategy {
+
+    @Override
+    public String getName() {
+        return "best-fit";
+    }
+
+    @Override
+    public long cost(Laptop laptop, LaptopUsageCounters.Usage usage) {
+        long installed = laptop.getInstalledSoftware() != null ? laptop.getInstalledSoftware().size() : 0;
+        return (installed << 32) | Math.min(usage.getReservations(), 0xFFFFFFFFL);
+    }
+}
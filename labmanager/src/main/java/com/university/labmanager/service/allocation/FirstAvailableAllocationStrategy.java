@@ -0,0 +1,19 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.model.Laptop;
+import org.springframework.stereotype.Component;
+
+// Previous behaviour: lowest laptop IDs first
+@Component
+public class FirstAvailableAllocationStrategy implements LaptopAllocationStrategy {
+
+    @Override
+    public String getName() {
+        return "first-available";
+    }
+
+    @Override
+    public long cost(Laptop laptop, LaptopUsageCounters.Usage usage) {
+        return 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.model.Laptop;
+
+/**
+ * Decides which of the candidate laptops a bulk booking should take.
+ *
+ * A strategy only scores a single laptop; {@link LaptopAllocator} keeps the
+ * {@code quantity} cheapest ones. Scores must come from data already in memory
+ * (the laptop snapshot and its usage counters), never from extra queries.
+ */
+public interface LaptopAllocationStrategy {
+
+    // Value of labmanager.allocation.strategy that selects this strategy
+    String getName();
+
+    // Lower is better; ties are broken by laptop ID
+    long cost(Laptop laptop, LaptopUsageCounters.Usage usage);
+}
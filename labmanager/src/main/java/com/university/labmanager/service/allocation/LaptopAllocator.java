@@ -0,0 +1,86 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.model.Laptop;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Picks which laptops a bulk booking gets, using the strategy configured in
+ * labmanager.allocation.strategy.
+ *
+ * Keeps the {@code quantity} cheapest candidates in a bounded max-heap, so a
+ * pick is O(n log k) over n candidates instead of sorting the whole fleet.
+ */
+@Component
+@Slf4j
+public class LaptopAllocator {
+
+    private final LaptopAllocationStrategy strategy;
+    private final LaptopUsageCounters usageCounters;
+
+    public LaptopAllocator(List<LaptopAllocationStrategy> strategies, LaptopUsageCounters usageCounters,
+            @Value("${labmanager.allocation.strategy:wear-leveling}") String strategyName) {
+        Map<String, LaptopAllocationStrategy> byName = new HashMap<>();
+        for (LaptopAllocationStrategy candidate : strategies) {
+            byName.put(candidate.getName(), candidate);
+        }
+        this.strategy = byName.get(strategyName);
+        if (this.strategy == null) {
+            throw new IllegalStateException("Unknown labmanager.allocation.strategy '" + strategyName
+                    + "'. Available: " + byName.keySet());
+        }
+        this.usageCounters = usageCounters;
+        log.info("Bulk reservations allocate laptops with the '{}' strategy", strategyName);
+    }
+
+    /**
+     * The {@code quantity} best candidates, best first. Returns fewer when there
+     * are not enough candidates.
+     */
+    public List<Laptop> select(List<Laptop> candidates, int quantity) {
+        if (quantity <= 0) {
+            return new ArrayList<>();
+        }
+        Comparator<Scored> best = Comparator.comparingLong((Scored s) -> s.cost)
+                .thenComparing(s -> s.laptop.getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+        // Worst of the kept candidates on top, evicted when something better shows up
+        PriorityQueue<Scored> kept = new PriorityQueue<>(Math.min(quantity, Math.max(1, candidates.size())),
+                best.reversed());
+        for (Laptop laptop : candidates) {
+            Scored scored = new Scored(laptop, strategy.cost(laptop, usageCounters.of(laptop.getId())));
+            if (kept.size() < quantity) {
+                kept.add(scored);
+            } else if (best.compare(scored, kept.peek()) < 0) {
+                kept.poll();
+                kept.add(scored);
+            }
+        }
+
+        List<Scored> ordered = new ArrayList<>(kept);
+        ordered.sort(best);
+        List<Laptop> result = new ArrayList<>(ordered.size());
+        for (Scored scored : ordered) {
+            result.add(scored.laptop);
+        }
+        return result;
+    }
+
+    private static final class Scored {
+        final Laptop laptop;
+        final long cost;
+
+        Scored(Laptop laptop, long cost) {
+            this.laptop = laptop;
+            this.cost = cost;
+        }
+    }
+}
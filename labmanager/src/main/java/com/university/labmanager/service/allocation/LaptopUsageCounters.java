@@ -0,0 +1,92 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-laptop reservation counters used to score allocation candidates.
+ *
+ * Loaded with one GROUP BY on startup and then kept current from committed
+ * reservation events, so allocating a class never queries usage per laptop.
+ * Counts are advisory: a missed event only makes the spread a little less even.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LaptopUsageCounters {
+
+    private final ReservationRepository reservationRepository;
+
+    private volatile Map<Long, Usage> usage = new ConcurrentHashMap<>();
+
+    public Usage of(Long laptopId) {
+        return usage.getOrDefault(laptopId, Usage.NONE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        try {
+            Map<Long, Usage> fresh = new ConcurrentHashMap<>();
+            for (Object[] row : reservationRepository.countUsageByLaptop(ReservationStatus.COMPLETED)) {
+                long reservations = row[1] != null ? ((Number) row[1]).longValue() : 0;
+                long completed = row[2] != null ? ((Number) row[2]).longValue() : 0;
+                fresh.put((Long) row[0], new Usage(reservations, completed));
+            }
+            usage = fresh;
+            log.info("Laptop usage counters loaded for {} laptops", fresh.size());
+        } catch (Exception e) {
+            log.error("Error loading laptop usage counters: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getLaptopId() == null) {
+            return;
+        }
+        long reservations = 0;
+        long completed = 0;
+        if (event.getType() == EntityChangeType.CREATED) {
+            reservations = 1;
+            completed = event.getStatus() == ReservationStatus.COMPLETED ? 1 : 0;
+        } else if (event.getType() == EntityChangeType.DELETED) {
+            reservations = -1;
+            completed = event.getStatus() == ReservationStatus.COMPLETED ? -1 : 0;
+        } else if (event.getPreviousStatus() != event.getStatus()) {
+            if (event.getStatus() == ReservationStatus.COMPLETED) {
+                completed = 1;
+            } else if (event.getPreviousStatus() == ReservationStatus.COMPLETED) {
+                completed = -1;
+            }
+        }
+        if (reservations != 0 || completed != 0) {
+            long deltaReservations = reservations;
+            long deltaCompleted = completed;
+            usage.compute(event.getLaptopId(), (id, current) -> {
+                Usage base = current != null ? current : Usage.NONE;
+                return new Usage(Math.max(0, base.getReservations() + deltaReservations),
+                        Math.max(0, base.getCompleted() + deltaCompleted));
+            });
+        }
+    }
+
+    @Value
+    public static class Usage {
+        static final Usage NONE = new Usage(0, 0);
+
+        long reservations;
+        long completed;
+    }
+}
@@ -0,0 +1,19 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.model.Laptop;
+import org.springframework.stereotype.Component;
+
+// Laptops with the fewest reservations of any status first
+@Component
+public class LeastUsedAllocationStrategy implements LaptopAllocationStrategy {
+
+    @Override
+    public String getName() {
+        return "least-used";
+    }
+
+    @Override
+    public long cost(Laptop laptop, LaptopUsageCounters.Usage usage) {
+        return usage.getReservations();
+    }
+}
@@ -0,0 +1,24 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.model.Laptop;
+import org.springframework.stereotype.Component;
+
+/**
+ * Laptops with the fewest completed reservations first, i.e. the ones furthest
+ * from the MaintenanceService threshold. The total number of reservations (of
+ * any status) breaks ties, so a laptop that is already booked often is not
+ * piled on.
+ */
+@Component
+public class WearLevelingAllocationStrategy implements LaptopAllocationStrategy {
+
+    @Override
+    public String getName() {
+        return "wear-leveling";
+    }
+
+    @Override
+    public long cost(Laptop laptop, LaptopUsageCounters.Usage usage) {
+        return (usage.getCompleted() << 32) | Math.min(usage.getReservations(), 0xFFFFFFFFL);
+    }
+}
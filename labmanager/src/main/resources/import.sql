@@ -7,14 +7,14 @@ INSERT INTO whitelist_alumnos (matricula) VALUES ('A00202020');
 INSERT INTO whitelist_alumnos (matricula) VALUES ('A00303030');
 INSERT INTO whitelist_alumnos (matricula) VALUES ('admin');
 
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('admin', 'Administrador del Sistema', 'admin@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_ADMIN', false);
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('A00123456', 'Juan Pérez González', 'juan@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('A00987654', 'María Rodríguez', 'maria@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', true);
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('A00555555', 'Carlos López Martínez', 'carlos@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('A00112233', 'Ana García Fernández', 'ana@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('A00101010', 'Pedro Martínez Ruiz', 'pedro@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('A00202020', 'Laura Torres Sánchez', 'laura@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
-INSERT INTO app_users (matricula, full_name, email, password, role, is_sanctioned) VALUES ('P001', 'Dr. Roberto Hernández', 'roberto@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_PROFFESOR', false);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('admin', 'Administrador del Sistema', 'admin@test.com', 'admin@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_ADMIN', false);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('A00123456', 'Juan Pérez González', 'juan@test.com', 'juan@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('A00987654', 'María Rodríguez', 'maria@test.com', 'maria@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', true);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('A00555555', 'Carlos López Martínez', 'carlos@test.com', 'carlos@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('A00112233', 'Ana García Fernández', 'ana@test.com', 'ana@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('A00101010', 'Pedro Martínez Ruiz', 'pedro@test.com', 'pedro@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('A00202020', 'Laura Torres Sánchez', 'laura@test.com', 'laura@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_STUDENT', false);
+INSERT INTO app_users (matricula, full_name, email, email_normalized, password, role, is_sanctioned) VALUES ('P001', 'Dr. Roberto Hernández', 'roberto@test.com', 'roberto@test.com', '$2a$10$slYQmyNdGzTn7ZLBXBChFOC9f6kFjAqPhccnP6DxlWXx2lPk1C3G6', 'ROLE_PROFFESOR', false);
 
 INSERT INTO software (name, version) VALUES ('Android Studio', '2023.1');
 INSERT INTO software (name, version) VALUES ('Visual Studio Code', '1.85');
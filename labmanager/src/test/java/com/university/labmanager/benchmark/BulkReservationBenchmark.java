@@ -0,0 +1,141 @@
+package com.university.labmanager.benchmark;
+
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.LaptopStatus;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationBatchRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.repository.UserRepository;
+import com.university.labmanager.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Latency of class-sized bookings: per-row IDENTITY inserts (saveAll) against
+ * the single JDBC batch used by createBulkReservation.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes); run with
+ * mvn test -Dtest=BulkReservationBenchmark
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BulkReservationBenchmark {
+
+    private static final int[] BATCH_SIZES = { 10, 50, 200 };
+    private static final int WARMUP = 5;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private ReservationBatchRepository reservationBatchRepository;
+    @Autowired
+    private LaptopRepository laptopRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Every run books its own time window so nothing ever overlaps
+    private LocalDateTime nextWindow = LocalDate.now().plusYears(5)
+            .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(LocalTime.of(8, 0));
+
+    @Test
+    void compareInsertPaths() {
+        List<Laptop> laptops = createLaptops(BATCH_SIZES[BATCH_SIZES.length - 1]);
+        User user = userRepository.findByMatricula("admin").orElseThrow();
+
+        System.out.println("size | saveAll p50/p95 ms | JDBC batch p50/p95 ms | createBulkReservation p50/p95 ms");
+        for (int size : BATCH_SIZES) {
+            List<Laptop> subset = laptops.subList(0, size);
+            double[] legacy = measure(() -> transactionTemplate.executeWithoutResult(
+                    status -> reservationRepository.saveAll(build(user, subset))));
+            double[] batched = measure(() -> transactionTemplate.executeWithoutResult(
+                    status -> reservationBatchRepository.insertAll(build(user, subset))));
+            double[] endToEnd = measure(() -> {
+                LocalDateTime start = nextSlot();
+                List<Reservation> booked = reservationService.createBulkReservation(user.getId(), size, "",
+                        start, start.plusHours(1), "benchmark");
+                assertEquals(size, booked.size());
+            });
+            System.out.printf("%4d | %7.2f / %7.2f | %7.2f / %7.2f | %7.2f / %7.2f%n", size,
+                    legacy[0], legacy[1], batched[0], batched[1], endToEnd[0], endToEnd[1]);
+        }
+    }
+
+    private List<Laptop> createLaptops(int count) {
+        List<Laptop> laptops = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            laptops.add(Laptop.builder()
+                    .serialNumber("BENCH-" + UUID.randomUUID())
+                    .model("Benchmark")
+                    .status(LaptopStatus.AVAILABLE)
+                    .build());
+        }
+        return laptopRepository.saveAll(laptops);
+    }
+
+    private List<Reservation> build(User user, List<Laptop> laptops) {
+        LocalDateTime start = nextSlot();
+        String batchId = UUID.randomUUID().toString();
+        List<Reservation> reservations = new ArrayList<>();
+        for (Laptop laptop : laptops) {
+            reservations.add(Reservation.builder()
+                    .user(user)
+                    .laptop(laptop)
+                    .startTime(start)
+                    .endTime(start.plusHours(1))
+                    .subject("benchmark")
+                    .status(ReservationStatus.PENDING)
+                    .batchId(batchId)
+                    .build());
+        }
+        return reservations;
+    }
+
+    // Next one-hour weekday slot inside opening hours
+    private LocalDateTime nextSlot() {
+        LocalDateTime slot = nextWindow;
+        nextWindow = nextWindow.plusHours(1);
+        if (nextWindow.getHour() >= 20) {
+            nextWindow = nextWindow.toLocalDate().plusDays(1).atTime(8, 0);
+        }
+        while (nextWindow.getDayOfWeek() == DayOfWeek.SATURDAY || nextWindow.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            nextWindow = nextWindow.plusDays(1);
+        }
+        return slot;
+    }
+
+    // p50 and p95 in milliseconds
+    private static double[] measure(Runnable action) {
+        for (int i = 0; i < WARMUP; i++) {
+            action.run();
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long begin = System.nanoTime();
+            action.run();
+            samples[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(samples);
+        return new double[] { samples[RUNS / 2] / 1e6, samples[(int) Math.ceil(RUNS * 0.95) - 1] / 1e6 };
+    }
+}
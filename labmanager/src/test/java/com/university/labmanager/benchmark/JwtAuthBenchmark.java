@@ -0,0 +1,86 @@
+package com.university.labmanager.benchmark;
+
+import com.university.labmanager.security.JwtUtils;
+import com.university.labmanager.security.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CPU cost of the token check AuthTokenFilter does on every request: the old
+ * path (key rebuilt and token parsed twice), a single parse with the key built
+ * once, and the verified-token cache.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes); run with
+ * mvn test -Dtest=JwtAuthBenchmark
+ */
+class JwtAuthBenchmark {
+
+    private static final String SECRET = "SecretKeyToGenJWTsShouldBeLongAndComplexAndStoredSecurely";
+    private static final int WARMUP = 20_000;
+    private static final int RUNS = 200_000;
+    // Distinct tokens in rotation, like a few hundred active students
+    private static final int TOKENS = 300;
+
+    @Test
+    void compareFilterPaths() {
+        JwtUtils uncached = jwtUtils(0);
+        JwtUtils cached = jwtUtils(10_000);
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = token(cached, "S" + i);
+        }
+
+        System.out.println("path | ns/request");
+        report("rebuild key, parse twice", tokens, JwtAuthBenchmark::legacyFilterPath);
+        report("key once, single parse", tokens, t -> uncached.parseJwtClaims(t) != null);
+        report("verified-token cache", tokens, t -> cached.parseJwtClaims(t) != null);
+    }
+
+    // What the filter did before: validateJwtToken + getUserNameFromJwtToken, each building key and parser
+    private static boolean legacyFilterPath(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Key again = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(again).build().parseClaimsJws(token).getBody()
+                .getSubject() != null;
+    }
+
+    private static void report(String name, String[] tokens, Predicate<String> path) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertTrue(path.test(tokens[i % TOKENS]));
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            if (!path.test(tokens[i % TOKENS])) {
+                throw new AssertionError("token rejected");
+            }
+        }
+        System.out.printf("%-26s | %8.0f%n", name, (System.nanoTime() - begin) / (double) RUNS);
+    }
+
+    private static JwtUtils jwtUtils(int cacheSize) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(utils, "jwtCacheSize", cacheSize);
+        utils.init();
+        return utils;
+    }
+
+    private static String token(JwtUtils utils, String matricula) {
+        UserDetailsImpl user = new UserDetailsImpl(1L, matricula, "Bench", "x", false,
+                List.of(new SimpleGrantedAuthority("STUDENT")));
+        return utils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.university.labmanager.benchmark;
+
+import com.university.labmanager.security.AdaptivePasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Load test for sign-in: CLIENTS threads log in as fast as they can for
+ * DURATION_MS (the 8:00 burst), while one more thread keeps calling a cheap
+ * authenticated endpoint to show whether the burst starves the rest of the API.
+ * Prints logins/sec, login latency percentiles, 503 rejections and the latency
+ * of the other endpoint.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes); run with
+ * mvn test -Dtest=LoginThroughputBenchmark
+ */
+@SpringBootTest(properties = "logging.level.root=WARN")
+@AutoConfigureMockMvc
+class LoginThroughputBenchmark {
+
+    private static final int CLIENTS = 32;
+    private static final long DURATION_MS = 10_000;
+    private static final String LOGIN = "{\"matricula\":\"admin\",\"password\":\"password\"}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void loginBurst() throws Exception {
+        String token = signIn().getContentAsString().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> loginNanos = Collections.synchronizedList(new ArrayList<>());
+        List<Long> otherNanos = Collections.synchronizedList(new ArrayList<>());
+        long deadline = System.currentTimeMillis() + DURATION_MS;
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS + 1);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.submit(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    long begin = System.nanoTime();
+                    int status = signIn().getStatus();
+                    loginNanos.add(System.nanoTime() - begin);
+                    (status == 200 ? ok : rejected).incrementAndGet();
+                }
+                return null;
+            });
+        }
+        clients.submit(() -> {
+            while (System.currentTimeMillis() < deadline) {
+                long begin = System.nanoTime();
+                mvc.perform(get("/api/laptops/all").header("Authorization", "Bearer " + token)).andReturn();
+                otherNanos.add(System.nanoTime() - begin);
+                Thread.sleep(50);
+            }
+            return null;
+        });
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(DURATION_MS + 60_000, TimeUnit.MILLISECONDS));
+
+        System.out.printf("BCrypt cost %d, %d clients, %d s%n", ((AdaptivePasswordEncoder) passwordEncoder).getCost(),
+                CLIENTS, DURATION_MS / 1000);
+        System.out.printf("logins/sec %.1f (%d ok, %d rejected with 503)%n", ok.get() * 1000.0 / DURATION_MS,
+                ok.get(), rejected.get());
+        System.out.printf("login latency ms: p50 %.1f p99 %.1f%n", percentile(loginNanos, 50),
+                percentile(loginNanos, 99));
+        System.out.printf("other endpoint latency ms during burst: p50 %.1f p99 %.1f%n",
+                percentile(otherNanos, 50), percentile(otherNanos, 99));
+        assertTrue(ok.get() > 0);
+    }
+
+    // Sign-in is an async request: the first perform starts it, asyncDispatch collects the result
+    private MockHttpServletResponse signIn() throws Exception {
+        MvcResult started = mvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+                .content(LOGIN)).andReturn();
+        if (!started.getRequest().isAsyncStarted()) {
+            return started.getResponse();
+        }
+        started.getAsyncResult(30_000);
+        return mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+    }
+
+    private static double percentile(List<Long> nanos, int percentile) {
+        List<Long> sorted = new ArrayList<>(nanos);
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(sorted);
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
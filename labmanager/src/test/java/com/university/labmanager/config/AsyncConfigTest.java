@@ -0,0 +1,76 @@
+package com.university.labmanager.config;
+
+import com.university.labmanager.dto.ExecutorStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTest {
+
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+    private final AsyncConfig config = new AsyncConfig(metrics);
+
+    AsyncConfigTest() {
+        ReflectionTestUtils.setField(config, "mailThreads", 1);
+        ReflectionTestUtils.setField(config, "mailQueueCapacity", 1);
+        ReflectionTestUtils.setField(config, "mailOfferTimeoutMs", 50L);
+        ReflectionTestUtils.setField(config, "defaultThreads", 1);
+        ReflectionTestUtils.setField(config, "defaultQueueCapacity", 1);
+    }
+
+    @Test
+    void fullMailQueue_WaitsThenDropsWithoutFailingCaller() throws Exception {
+        ThreadPoolTaskExecutor mail = config.mailExecutor();
+        mail.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            mail.execute(() -> await(release));
+            mail.execute(() -> await(release));
+
+            long begin = System.nanoTime();
+            assertDoesNotThrow(() -> mail.execute(() -> {
+            }));
+            assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(50));
+
+            ExecutorStatsDTO stats = metrics.getStats().get(0);
+            assertEquals("mail", stats.getName());
+            assertEquals(1, stats.getQueued());
+            assertEquals(1, stats.getRejected());
+        } finally {
+            release.countDown();
+            mail.shutdown();
+        }
+    }
+
+    @Test
+    void fullDefaultQueue_Rejects() {
+        ThreadPoolTaskExecutor executor = config.applicationTaskExecutor();
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            assertThrows(TaskRejectedException.class, () -> executor.execute(() -> {
+            }));
+            assertEquals(1, metrics.getStats().get(0).getRejected());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.university.labmanager.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Behind nginx every request comes from the proxy; the per-IP reset limit must key on the forwarded client
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "labmanager.auth.reset-limit.ip-capacity=1")
+class ForwardedClientRateLimitTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void forwardedClients_GetSeparateResetBuckets() {
+        assertEquals(HttpStatus.OK, forgotPassword("203.0.113.10").getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, forgotPassword("203.0.113.10").getStatusCode());
+
+        // Same proxy (127.0.0.1), different client
+        assertEquals(HttpStatus.OK, forgotPassword("198.51.100.20").getStatusCode());
+    }
+
+    private ResponseEntity<String> forgotPassword(String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        return restTemplate.postForEntity("/api/auth/forgot-password",
+                new HttpEntity<>(Map.of("email", "nobody@test.com"), headers), String.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.university.labmanager.controller;
+
+import com.university.labmanager.security.JwtUtils;
+import com.university.labmanager.security.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Streamed reports are written on an async dispatch, which must get past the security filter chain
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReportControllerStreamingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        // The admin account is created by DataInitializer
+        UserDetails admin = userDetailsService.loadUserByUsername("admin");
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @Test
+    void inventoryExcel_IsStreamedOnTheAsyncDispatch() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reports/inventory/excel")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult done = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=inventory_report.xlsx"))
+                .andReturn();
+
+        byte[] body = done.getResponse().getContentAsByteArray();
+        // An .xlsx file is a zip archive
+        assertTrue(body.length > 0);
+        assertEquals('P', body[0]);
+        assertEquals('K', body[1]);
+    }
+
+    @Test
+    void incidentPdf_IsStreamedOnTheAsyncDispatch() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reports/incidents/pdf")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult done = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue(new String(done.getResponse().getContentAsByteArray(), 0, 5).startsWith("%PDF-"));
+    }
+
+    @Test
+    void withoutAToken_NothingIsStreamed() throws Exception {
+        mockMvc.perform(get("/api/reports/inventory/excel"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(request().asyncNotStarted());
+    }
+}
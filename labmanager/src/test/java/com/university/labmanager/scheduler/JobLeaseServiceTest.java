@@ -0,0 +1,120 @@
+package com.university.labmanager.scheduler;
+
+import com.university.labmanager.repository.JobLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseServiceTest {
+
+    @Mock
+    private JobLeaseRepository leaseRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JobLeaseService leases;
+
+    @BeforeEach
+    void setUp() {
+        leases = new JobLeaseService(leaseRepository, transactionManager, true, 60_000, "node-a");
+    }
+
+    @Test
+    void freeLease_IsTakenAndThenRenewed() {
+        when(leaseRepository.takeOver(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+        when(leaseRepository.findToken("job", "node-a")).thenReturn(5L);
+        when(leaseRepository.renew(eq("job"), eq("node-a"), eq(5L), any(), any())).thenReturn(1);
+        AtomicLong seenToken = new AtomicLong();
+
+        assertTrue(leases.runExclusively("job", () -> seenToken.set(leases.currentFencingToken())));
+        assertTrue(leases.runExclusively("job", () -> {
+        }));
+
+        assertEquals(5, seenToken.get());
+        assertEquals(0, leases.currentFencingToken());
+        // Taken once, renewed on the second run
+        verify(leaseRepository, times(1)).takeOver(any(), any(), any(), any());
+        verify(leaseRepository, times(2)).recordRun(eq("job"), eq(5L), eq("node-a"), any(), any(), anyLong(),
+                isNull());
+    }
+
+    @Test
+    void leaseHeldElsewhere_SkipsTheJob() {
+        when(leaseRepository.takeOver(any(), any(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById("job")).thenReturn(true);
+
+        assertFalse(leases.runExclusively("job", () -> fail("must not run")));
+
+        verify(leaseRepository, never()).recordRun(any(), anyLong(), any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void missingRow_IsCreatedThenTaken() {
+        when(leaseRepository.takeOver(eq("job"), eq("node-a"), any(), any())).thenReturn(0, 1);
+        when(leaseRepository.existsById("job")).thenReturn(false);
+        when(leaseRepository.findToken("job", "node-a")).thenReturn(1L);
+
+        assertTrue(leases.runExclusively("job", () -> {
+        }));
+
+        verify(leaseRepository).insertFree(eq("job"), any());
+    }
+
+    @Test
+    void lostLease_IsNotRenewedAndTheJobSkipped() {
+        when(leaseRepository.takeOver(any(), any(), any(), any())).thenReturn(1, 0);
+        when(leaseRepository.findToken("job", "node-a")).thenReturn(3L);
+        when(leaseRepository.existsById("job")).thenReturn(true);
+        assertTrue(leases.runExclusively("job", () -> {
+        }));
+
+        // Our lease expired and another node took it (token 4)
+        when(leaseRepository.renew(eq("job"), eq("node-a"), eq(3L), any(), any())).thenReturn(0);
+
+        assertFalse(leases.runExclusively("job", () -> fail("must not run")));
+    }
+
+    @Test
+    void checkpoint_FailsOnceTheLeaseHasPassedOn() {
+        when(leaseRepository.takeOver(any(), any(), any(), any())).thenReturn(1);
+        when(leaseRepository.findToken("job", "node-a")).thenReturn(7L);
+        when(leaseRepository.renew(eq("job"), eq("node-a"), eq(7L), any(), any())).thenReturn(1, 0);
+
+        assertThrows(IllegalStateException.class, () -> leases.runExclusively("job", () -> {
+            leases.checkpoint();
+            leases.checkpoint();
+        }));
+
+        // The failure is recorded on the lease row
+        verify(leaseRepository).recordRun(eq("job"), eq(7L), eq("node-a"), any(), any(), anyLong(),
+                contains("taken over"));
+    }
+
+    @Test
+    void checkpointOutsideAJob_DoesNothing() {
+        leases.checkpoint();
+
+        verifyNoInteractions(leaseRepository);
+    }
+
+    @Test
+    void disabled_RunsWithoutCoordination() {
+        JobLeaseService single = new JobLeaseService(leaseRepository, transactionManager, false, 60_000, "node-a");
+        AtomicLong runs = new AtomicLong();
+
+        assertTrue(single.runExclusively("job", runs::incrementAndGet));
+
+        assertEquals(1, runs.get());
+        verifyNoInteractions(leaseRepository);
+    }
+}
@@ -0,0 +1,135 @@
+package com.university.labmanager.scheduler;
+
+import com.university.labmanager.event.EntityChangePublisher;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.model.enums.Role;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.repository.UserRepository;
+import com.university.labmanager.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueReservationProcessorTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+    @Mock
+    private JobLeaseService jobLeases;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OverdueReservationProcessor processor;
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @BeforeEach
+    void setUp() {
+        processor = new OverdueReservationProcessor(reservationRepository, userRepository, emailService,
+                entityChangePublisher, jobLeases, transactionManager, 2, "admin@test.com");
+    }
+
+    private Object[] row(long id, long userId, LocalDateTime notifiedAt) {
+        return new Object[] { id, userId, 100 + id, now.minusDays(3), now.minusDays(2), notifiedAt, "X1",
+                "SN" + id };
+    }
+
+    private static Object[] contact(long id) {
+        return new Object[] { id, "A00" + id, Role.ROLE_STUDENT, "Student " + id, "s" + id + "@test.com" };
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void endedReservations_AreMarkedAndSanctionedInChunks() {
+        when(reservationRepository.findEndedIds(eq(ReservationStatus.ACTIVE), eq(now), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(reservationRepository.markEnded(anyCollection(), eq(ReservationStatus.ACTIVE),
+                eq(ReservationStatus.OVERDUE), eq(now))).thenReturn(2, 1);
+        // Reservations 1 and 2 belong to the same student
+        when(reservationRepository.findOverdueRows(List.of(1L, 2L), ReservationStatus.OVERDUE))
+                .thenReturn(List.of(row(1, 7, now), row(2, 7, now)));
+        when(reservationRepository.findOverdueRows(List.of(3L), ReservationStatus.OVERDUE))
+                .thenReturn(List.<Object[]>of(row(3, 8, now)));
+        when(userRepository.sanctionAll(eq(Set.of(7L)), any())).thenReturn(1);
+        when(userRepository.sanctionAll(eq(Set.of(8L)), any())).thenReturn(1);
+        when(userRepository.findContactsByIdIn(Set.of(7L))).thenReturn(List.<Object[]>of(contact(7)));
+        when(userRepository.findContactsByIdIn(Set.of(8L))).thenReturn(List.<Object[]>of(contact(8)));
+
+        assertEquals(3, processor.process(now));
+
+        // One sanction UPDATE per chunk, for the distinct users
+        verify(userRepository, times(2)).sanctionAll(anyCollection(), any());
+        verify(reservationRepository, never()).save(any());
+        verify(userRepository, never()).save(any());
+
+        ArgumentCaptor<List<Reservation>> reservations = ArgumentCaptor.forClass(List.class);
+        verify(entityChangePublisher, times(2)).reservationsUpdated(reservations.capture(),
+                eq(ReservationStatus.ACTIVE));
+        assertEquals(2, reservations.getAllValues().get(0).size());
+        assertEquals(ReservationStatus.OVERDUE, reservations.getAllValues().get(0).get(0).getStatus());
+        assertEquals(101L, reservations.getAllValues().get(0).get(0).getLaptop().getId());
+        ArgumentCaptor<Collection<User>> users = ArgumentCaptor.forClass(Collection.class);
+        verify(entityChangePublisher, times(2)).usersUpdated(users.capture());
+        assertTrue(users.getAllValues().get(0).iterator().next().isSanctioned());
+
+        verify(emailService, times(3)).sendSanctionNotification(any(), anyString());
+        // One admin digest per chunk
+        verify(emailService).sendSimpleMessage(eq("admin@test.com"), eq("Overdue Alert: 2 reservations"),
+                contains("Reservation 2"));
+        verify(emailService).sendSimpleMessage(eq("admin@test.com"), eq("Overdue Alert: 1 reservations"),
+                anyString());
+
+        assertEquals(1, processor.getStats().getRuns());
+        assertEquals(2, processor.getStats().getChunks());
+        assertEquals(3, processor.getStats().getReservationsMarkedOverdue());
+        assertEquals(2, processor.getStats().getUsersSanctioned());
+        assertEquals(3, processor.getStats().getNotificationsQueued());
+    }
+
+    @Test
+    void alreadyNotifiedReservation_IsSanctionedButNotNotifiedAgain() {
+        when(reservationRepository.findEndedIds(any(), any(), any())).thenReturn(List.of(1L));
+        when(reservationRepository.markEnded(anyCollection(), any(), any(), any())).thenReturn(1);
+        when(reservationRepository.findOverdueRows(anyCollection(), any()))
+                .thenReturn(List.<Object[]>of(row(1, 7, now.minusDays(1))));
+        when(userRepository.findContactsByIdIn(anyCollection())).thenReturn(List.<Object[]>of(contact(7)));
+
+        assertEquals(1, processor.process(now));
+
+        verify(userRepository).sanctionAll(eq(Set.of(7L)), any());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void nothingEnded_RunsOneQuery() {
+        when(reservationRepository.findEndedIds(any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, processor.process(now));
+
+        verify(reservationRepository, never()).markEnded(any(), any(), any(), any());
+        verifyNoInteractions(userRepository, emailService, entityChangePublisher);
+        assertEquals(1, processor.getStats().getRuns());
+        assertEquals(0, processor.getStats().getChunks());
+    }
+}
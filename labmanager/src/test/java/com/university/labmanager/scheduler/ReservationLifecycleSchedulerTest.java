@@ -0,0 +1,215 @@
+package com.university.labmanager.scheduler;
+
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationLifecycleSchedulerTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private OverdueReservationProcessor overdueProcessor;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private JobLeaseService jobLeases;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationLifecycleScheduler scheduler;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ReservationLifecycleScheduler(reservationRepository, emailService, overdueProcessor,
+                jobLeases, transactionManager, true, 60, 30);
+    }
+
+    private static ReservationChangedEvent event(long id, ReservationStatus status, LocalDateTime start,
+            LocalDateTime end) {
+        return ReservationChangedEvent.builder().type(EntityChangeType.UPDATED).reservationId(id)
+                .status(status).startTime(start).endTime(end).build();
+    }
+
+    private static Reservation reservation(long id, ReservationStatus status, LocalDateTime start,
+            LocalDateTime end) {
+        User user = User.builder().id(5L).matricula("A001").fullName("Ana").email("ana@test.com").build();
+        Laptop laptop = Laptop.builder().id(9L).model("X1").serialNumber("SN9").build();
+        return Reservation.builder().id(id).status(status).startTime(start).endTime(end).user(user).laptop(laptop)
+                .build();
+    }
+
+    @Test
+    void activeReservation_QueuesReturnReminderAndOverdue() {
+        scheduler.onReservationChanged(event(1, ReservationStatus.ACTIVE, now.minusHours(1), now.plusHours(2)));
+
+        List<ReservationLifecycleScheduler.Deadline> pending = scheduler.pendingDeadlines();
+        assertEquals(2, pending.size());
+        assertEquals(ReservationLifecycleScheduler.Trigger.RETURN_REMINDER, pending.get(0).trigger());
+        assertEquals(now.plusMinutes(90), pending.get(0).dueAt());
+        assertEquals(ReservationLifecycleScheduler.Trigger.OVERDUE, pending.get(1).trigger());
+        assertEquals(now.plusHours(2), pending.get(1).dueAt());
+    }
+
+    @Test
+    void statusChange_ReplacesDeadlines() {
+        scheduler.onReservationChanged(event(1, ReservationStatus.APPROVED, now.plusHours(3), now.plusHours(5)));
+        assertEquals(ReservationLifecycleScheduler.Trigger.START_REMINDER,
+                scheduler.pendingDeadlines().get(0).trigger());
+
+        scheduler.onReservationChanged(event(1, ReservationStatus.COMPLETED, now.plusHours(3), now.plusHours(5)));
+
+        assertTrue(scheduler.pendingDeadlines().isEmpty());
+    }
+
+    @Test
+    void nothingDue_TouchesNoRows() {
+        scheduler.onReservationChanged(event(1, ReservationStatus.ACTIVE, now.minusHours(1), now.plusHours(2)));
+
+        assertEquals(0, scheduler.fireDue(now));
+
+        verifyNoInteractions(reservationRepository, emailService);
+    }
+
+    @Test
+    void overdueDeadlines_RunOneSweepPerTick() {
+        scheduler.onReservationChanged(event(1, ReservationStatus.ACTIVE, now.minusHours(3), now.minusMinutes(2)));
+        scheduler.onReservationChanged(event(2, ReservationStatus.ACTIVE, now.minusHours(3), now.minusMinutes(1)));
+
+        assertEquals(2, scheduler.fireDue(now));
+        assertEquals(0, scheduler.fireDue(now.plusMinutes(10)));
+
+        verify(overdueProcessor, times(1)).process(now);
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void returnReminder_SendsOncePerClaimedReservation() {
+        Reservation first = reservation(1, ReservationStatus.ACTIVE, now.minusHours(1), now.plusMinutes(30));
+        Reservation second = reservation(2, ReservationStatus.ACTIVE, now.minusHours(1), now.plusMinutes(20));
+        scheduler.onReservationChanged(event(1, ReservationStatus.ACTIVE, first.getStartTime(), first.getEndTime()));
+        scheduler.onReservationChanged(event(2, ReservationStatus.ACTIVE, second.getStartTime(), second.getEndTime()));
+        // Both are already inside the 30 minute window, so their reminders are due straight away
+        LocalDateTime at = now.plusSeconds(2);
+        when(reservationRepository.findReturnRemindersDue(ReservationStatus.ACTIVE, at, at.plusMinutes(30)))
+                .thenReturn(List.of(first, second));
+        when(reservationRepository.markReminderSent(1L, at)).thenReturn(1);
+        // Another node got there first
+        when(reservationRepository.markReminderSent(2L, at)).thenReturn(0);
+
+        // One range query covers both reminder deadlines
+        assertEquals(2, scheduler.fireDue(at));
+
+        verify(reservationRepository, times(1)).findReturnRemindersDue(any(), any(), any());
+        verify(emailService).sendReturnReminder(first);
+        verify(emailService, never()).sendReturnReminder(second);
+        // Only the overdue deadlines are left
+        assertTrue(scheduler.pendingDeadlines().stream()
+                .allMatch(d -> d.trigger() == ReservationLifecycleScheduler.Trigger.OVERDUE));
+    }
+
+    @Test
+    void reminders_AfterTheLeaseWasTakenOver_ClaimAndSendNothing() {
+        Reservation active = reservation(1, ReservationStatus.ACTIVE, now.minusHours(1), now.plusMinutes(30));
+        Reservation approved = reservation(2, ReservationStatus.APPROVED, now.plusMinutes(61), now.plusHours(3));
+        scheduler.onReservationChanged(event(1, ReservationStatus.ACTIVE, active.getStartTime(), active.getEndTime()));
+        scheduler.onReservationChanged(event(2, ReservationStatus.APPROVED, approved.getStartTime(),
+                approved.getEndTime()));
+        LocalDateTime at = now.plusMinutes(2);
+        when(reservationRepository.findReturnRemindersDue(ReservationStatus.ACTIVE, at, at.plusMinutes(30)))
+                .thenReturn(List.of(active));
+        when(reservationRepository.findById(2L)).thenReturn(Optional.of(approved));
+        doThrow(new IllegalStateException("Lease lost")).when(jobLeases).checkpoint();
+
+        assertEquals(2, scheduler.fireDue(at));
+
+        verify(jobLeases, times(2)).checkpoint();
+        verify(reservationRepository, never()).markReminderSent(any(), any());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void staleStartReminder_DoesNothing() {
+        // Cancelled in the meantime, e.g. on another node, before its event reached this one
+        Reservation reservation = reservation(1, ReservationStatus.CANCELLED, now.minusMinutes(30),
+                now.plusHours(2));
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        scheduler.onReservationChanged(event(1, ReservationStatus.APPROVED, now.plusHours(1).plusSeconds(30),
+                now.plusHours(3)));
+
+        assertEquals(1, scheduler.fireDue(now.plusMinutes(1)));
+
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void tick_RunsUnderTheLeaseAndResyncsAfterTakingItOver() {
+        when(jobLeases.runExclusively(eq(ReservationLifecycleScheduler.JOB_NAME), any())).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return true;
+        });
+        when(jobLeases.currentFencingToken()).thenReturn(1L, 1L, 2L);
+
+        scheduler.tick();
+        scheduler.tick();
+        scheduler.tick();
+
+        // First tick and the new token (lease lost and taken back) reload; a steady holder does not
+        verify(reservationRepository, times(2)).findLifecycleWindowsByStatusIn(any());
+    }
+
+    @Test
+    void tick_WithoutTheLease_FiresNothing() {
+        scheduler.onReservationChanged(event(1, ReservationStatus.ACTIVE, now.minusHours(3), now.minusMinutes(1)));
+        when(jobLeases.runExclusively(any(), any())).thenReturn(false);
+
+        scheduler.tick();
+
+        verifyNoInteractions(overdueProcessor);
+        assertEquals(1, scheduler.pendingDeadlines().stream()
+                .filter(d -> d.trigger() == ReservationLifecycleScheduler.Trigger.OVERDUE).count());
+    }
+
+    @Test
+    void resync_UsesNotificationState() {
+        when(reservationRepository.findLifecycleWindowsByStatusIn(any())).thenReturn(List.of(
+                new Object[] { 1L, ReservationStatus.APPROVED, now.plusMinutes(30), now.plusHours(2), null },
+                new Object[] { 2L, ReservationStatus.ACTIVE, now.minusHours(2), now.plusMinutes(10), null },
+                new Object[] { 3L, ReservationStatus.ACTIVE, now.minusHours(2), now.plusMinutes(10),
+                        now.minusMinutes(15) }));
+
+        scheduler.resync();
+
+        // #1's pick-up reminder time has passed; #2 was never reminded (e.g. we were down) so it goes now
+        List<ReservationLifecycleScheduler.Deadline> pending = scheduler.pendingDeadlines();
+        assertEquals(3, pending.size());
+        assertTrue(pending.stream().noneMatch(d -> d.reservationId() == 1L));
+        assertEquals(1, pending.stream()
+                .filter(d -> d.trigger() == ReservationLifecycleScheduler.Trigger.RETURN_REMINDER
+                        && d.reservationId() == 2L && !d.dueAt().isAfter(LocalDateTime.now()))
+                .count());
+        assertEquals(2, pending.stream()
+                .filter(d -> d.trigger() == ReservationLifecycleScheduler.Trigger.OVERDUE).count());
+    }
+}
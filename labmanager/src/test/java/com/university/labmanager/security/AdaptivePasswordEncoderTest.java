@@ -0,0 +1,43 @@
+package com.university.labmanager.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePasswordEncoderTest {
+
+    @Test
+    void calibrate_StaysWithinBounds() {
+        assertEquals(4, AdaptivePasswordEncoder.calibrate(0, 4, 6));
+        assertEquals(6, AdaptivePasswordEncoder.calibrate(60_000, 4, 6));
+    }
+
+    @Test
+    void olderCost_IsUpgradedButStillMatches() {
+        AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(6, 0, 4, 10, 2);
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        assertTrue(encoder.matches("password", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String current = encoder.encode("password");
+        assertTrue(current.startsWith("$2a$06$"));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void permits_AreReturnedAfterHashing() {
+        AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(4, 0, 4, 10, 2);
+
+        encoder.matches("password", encoder.encode("password"));
+        assertFalse(encoder.matches("wrong", encoder.encode("password")));
+
+        assertEquals(2, encoder.getAvailablePermits());
+    }
+
+    @Test
+    void invalidBounds_AreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePasswordEncoder(0, 100, 12, 10, 1));
+    }
+}
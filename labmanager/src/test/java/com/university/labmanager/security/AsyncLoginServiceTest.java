@@ -0,0 +1,82 @@
+package com.university.labmanager.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncLoginServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    private AsyncLoginService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void authenticate_RunsOnLoginPool() throws Exception {
+        service = new AsyncLoginService(authenticationManager, 1, 4);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("login-hash-"));
+            return new UsernamePasswordAuthenticationToken("A001", null, List.of());
+        });
+
+        Authentication result = service.authenticate("A001", "password").get(5, TimeUnit.SECONDS);
+
+        assertEquals("A001", result.getName());
+    }
+
+    @Test
+    void badCredentials_CompleteExceptionally() {
+        service = new AsyncLoginService(authenticationManager, 1, 4);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> service.authenticate("A001", "wrong").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BadCredentialsException.class, e.getCause());
+    }
+
+    @Test
+    void fullQueue_RejectsNewLogins() throws Exception {
+        service = new AsyncLoginService(authenticationManager, 1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new UsernamePasswordAuthenticationToken("A001", null, List.of());
+        });
+
+        CompletableFuture<Authentication> first = service.authenticate("A001", "password");
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Authentication> queued = service.authenticate("A002", "password");
+        assertEquals(1, service.getQueueDepth());
+
+        assertThrows(RejectedExecutionException.class, () -> service.authenticate("A003", "password"));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+}
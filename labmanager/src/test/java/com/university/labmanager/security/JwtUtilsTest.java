@@ -0,0 +1,138 @@
+package com.university.labmanager.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "SecretKeyToGenJWTsShouldBeLongAndComplexAndStoredSecurely";
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = jwtUtils(SECRET, 3);
+    }
+
+    private static JwtUtils jwtUtils(String secret, int cacheSize) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", secret);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", 60_000);
+        ReflectionTestUtils.setField(utils, "jwtCacheSize", cacheSize);
+        utils.init();
+        return utils;
+    }
+
+    private static String token(JwtUtils utils, String matricula) {
+        UserDetailsImpl user = new UserDetailsImpl(1L, matricula, "Test", "x", false,
+                List.of(new SimpleGrantedAuthority("STUDENT")));
+        return utils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void parseJwtClaims_ReturnsClaimsOfValidToken() {
+        String token = token(jwtUtils, "A001");
+
+        Claims claims = jwtUtils.parseJwtClaims(token);
+
+        assertEquals("A001", claims.getSubject());
+        assertEquals(List.of("STUDENT"), claims.get("roles"));
+        assertTrue(jwtUtils.validateJwtToken(token));
+        assertEquals("A001", jwtUtils.getUserNameFromJwtToken(token));
+    }
+
+    @Test
+    void claims_RebuildThePrincipal() {
+        String token = token(jwtUtils, "A001");
+
+        UserDetailsImpl principal = UserDetailsImpl.fromClaims(jwtUtils.parseJwtClaims(token));
+
+        assertEquals(1L, principal.getId());
+        assertEquals("A001", principal.getUsername());
+        assertEquals("Test", principal.getFullName());
+        assertFalse(principal.isSanctioned());
+        assertEquals(List.of(new SimpleGrantedAuthority("STUDENT")), principal.getAuthorities());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    void claimsWithoutUserId_AreNotEnoughForAPrincipal() {
+        String legacy = Jwts.builder().setSubject("A001").claim("roles", List.of("STUDENT"))
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(UserDetailsImpl.fromClaims(jwtUtils.parseJwtClaims(legacy)));
+    }
+
+    @Test
+    void parseJwtClaims_RejectsBadTokens() {
+        String foreign = token(jwtUtils(SECRET + "Other", 3), "A001");
+        String expired = Jwts.builder().setSubject("A001")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(jwtUtils.parseJwtClaims(foreign));
+        assertNull(jwtUtils.parseJwtClaims(expired));
+        assertNull(jwtUtils.parseJwtClaims("not.a.jwt"));
+        assertNull(jwtUtils.parseJwtClaims(""));
+        assertFalse(jwtUtils.validateJwtToken(null));
+        assertEquals(0, jwtUtils.getCachedTokenCount());
+    }
+
+    @Test
+    void verifiedTokens_AreCachedWithinBound() {
+        String token = token(jwtUtils, "A001");
+        assertSame(jwtUtils.parseJwtClaims(token), jwtUtils.parseJwtClaims(token));
+        assertEquals(1, jwtUtils.getCachedTokenCount());
+
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(jwtUtils.parseJwtClaims(token(jwtUtils, "B00" + i)));
+        }
+        assertTrue(jwtUtils.getCachedTokenCount() <= 3);
+    }
+
+    @Test
+    void fullCache_EvictsTheOldestVerifiedToken() {
+        String first = token(jwtUtils, "A001");
+        String second = token(jwtUtils, "A002");
+        Claims firstClaims = jwtUtils.parseJwtClaims(first);
+        Claims secondClaims = jwtUtils.parseJwtClaims(second);
+        jwtUtils.parseJwtClaims(token(jwtUtils, "A003"));
+
+        jwtUtils.parseJwtClaims(token(jwtUtils, "A004"));
+
+        assertEquals(3, jwtUtils.getCachedTokenCount());
+        assertSame(secondClaims, jwtUtils.parseJwtClaims(second));
+        // Verified again rather than answered from the cache
+        assertNotSame(firstClaims, jwtUtils.parseJwtClaims(first));
+    }
+
+    @Test
+    void cachedToken_StopsWorkingAtItsExpiry() throws Exception {
+        String token = Jwts.builder().setSubject("A001")
+                .setExpiration(new Date(System.currentTimeMillis() + 1500))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+        assertNotNull(jwtUtils.parseJwtClaims(token));
+
+        Thread.sleep(1600);
+
+        assertNull(jwtUtils.parseJwtClaims(token));
+        assertEquals(0, jwtUtils.getCachedTokenCount());
+    }
+}
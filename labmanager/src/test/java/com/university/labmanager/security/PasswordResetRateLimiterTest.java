@@ -0,0 +1,70 @@
+package com.university.labmanager.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordResetRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final PasswordResetRateLimiter limiter = new PasswordResetRateLimiter(3, 1_000, 2, 10_000, 100,
+            now::get);
+
+    @Test
+    void ip_AllowsBurstThenReportsWait() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquireForIp("10.0.0.1"));
+        }
+
+        now.addAndGet(400);
+        assertEquals(600, limiter.acquireForIp("10.0.0.1"));
+        // Other clients have their own bucket
+        assertEquals(0, limiter.acquireForIp("10.0.0.2"));
+    }
+
+    @Test
+    void ip_RefillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireForIp("10.0.0.1");
+        }
+
+        now.addAndGet(1_000);
+        assertEquals(0, limiter.acquireForIp("10.0.0.1"));
+        assertTrue(limiter.acquireForIp("10.0.0.1") > 0);
+    }
+
+    @Test
+    void email_IsLimitedSeparately() {
+        assertTrue(limiter.acquireForEmail("ana@test.com"));
+        assertTrue(limiter.acquireForEmail("ana@test.com"));
+        assertFalse(limiter.acquireForEmail("ana@test.com"));
+        assertTrue(limiter.acquireForEmail("juan@test.com"));
+
+        now.addAndGet(10_000);
+        assertTrue(limiter.acquireForEmail("ana@test.com"));
+    }
+
+    @Test
+    void purge_ForgetsFullBuckets() {
+        limiter.acquireForIp("10.0.0.1");
+        limiter.acquireForEmail("ana@test.com");
+
+        now.addAndGet(1_000);
+        limiter.purge();
+
+        // The IP bucket is full again, the email bucket still owes a token
+        assertEquals(1, limiter.getTrackedKeys());
+    }
+
+    @Test
+    void keys_StayWithinBound() {
+        PasswordResetRateLimiter small = new PasswordResetRateLimiter(3, 1_000, 2, 10_000, 2, now::get);
+        for (int i = 0; i < 5; i++) {
+            small.acquireForIp("10.0.0." + i);
+        }
+
+        assertEquals(2, small.getTrackedKeys());
+    }
+}
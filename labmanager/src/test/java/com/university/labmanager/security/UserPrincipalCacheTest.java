@@ -0,0 +1,127 @@
+package com.university.labmanager.security;
+
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.UserChangedEvent;
+import com.university.labmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserPrincipalCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserPrincipalCache cache = new UserPrincipalCache(userRepository, 60_000, 100, 3_600_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, UserDetailsImpl> loader = matricula -> {
+        loads.incrementAndGet();
+        return new UserDetailsImpl(1L, matricula, "Test", "hash", loads.get() > 1,
+                List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+    };
+
+    @BeforeEach
+    void setUp() {
+        cache.refresh();
+    }
+
+    @Test
+    void get_LoadsOnceWithinTtl() {
+        cache.get("A001", loader);
+        cache.get("A001", loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+        assertEquals(0.5, cache.getStats().getHitRatio());
+    }
+
+    @Test
+    void get_StaysWithinMaxSize() {
+        UserPrincipalCache small = new UserPrincipalCache(userRepository, 60_000, 2, 3_600_000);
+        small.get("A001", loader);
+        small.get("A002", loader);
+        small.get("A003", loader);
+
+        assertEquals(2, small.getStats().getSize());
+        assertEquals(1, small.getStats().getEvictions());
+    }
+
+    @Test
+    void failedLoad_IsNotCached() {
+        Function<String, UserDetailsImpl> missing = matricula -> {
+            loads.incrementAndGet();
+            throw new UsernameNotFoundException(matricula);
+        };
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("X999", missing));
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("X999", missing));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void userChange_InvalidatesAndMarksOlderTokensStale() {
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+        assertFalse(cache.get("A001", loader).isSanctioned());
+        assertFalse(cache.changedSince("A001", issuedBefore));
+
+        cache.onUserChanged(UserChangedEvent.builder().type(EntityChangeType.UPDATED).userId(1L)
+                .matricula("A001").sanctioned(true).build());
+
+        assertTrue(cache.changedSince("A001", issuedBefore));
+        assertFalse(cache.changedSince("B002", issuedBefore));
+        // Tokens issued after the change carry the new claims
+        assertFalse(cache.changedSince("A001", new Date(System.currentTimeMillis() + 5_000)));
+        assertTrue(cache.get("A001", loader).isSanctioned());
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getInvalidations());
+    }
+
+    @Test
+    void purge_ForgetsChangesOlderThanAnyToken() {
+        UserPrincipalCache shortLived = new UserPrincipalCache(userRepository, 60_000, 100, -1);
+        shortLived.refresh();
+        shortLived.invalidate("A001");
+
+        shortLived.purge();
+
+        assertFalse(shortLived.changedSince("A001", new Date(0)));
+    }
+
+    @Test
+    void changeOnAnotherNode_MarksOlderTokensStaleAfterRefresh() {
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+        cache.get("A001", loader);
+        when(userRepository.findTokensValidAfter(any())).thenReturn(List.<Object[]>of(
+                new Object[] { "A001", Instant.now().minusMillis(1_000) }));
+
+        assertFalse(cache.changedSince("A001", issuedBefore));
+        cache.refresh();
+
+        assertTrue(cache.changedSince("A001", issuedBefore));
+        assertFalse(cache.changedSince("A001", new Date(System.currentTimeMillis() + 5_000)));
+        // The principal this node had cached is reloaded too
+        cache.get("A001", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void beforeFirstRefresh_NoClaimsAreTrusted() {
+        UserPrincipalCache restarted = new UserPrincipalCache(userRepository, 60_000, 100, 3_600_000);
+        when(userRepository.findTokensValidAfter(any())).thenThrow(new IllegalStateException("DB down"));
+        restarted.refresh();
+
+        assertTrue(restarted.changedSince("A001", new Date()));
+    }
+}
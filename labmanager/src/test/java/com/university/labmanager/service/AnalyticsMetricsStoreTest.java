@@ -0,0 +1,137 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.AnalyticsDashboardDTO;
+import com.university.labmanager.dto.DailyCountDTO;
+import com.university.labmanager.dto.IncidentCountDTO;
+import com.university.labmanager.dto.ReservationStatusCountDTO;
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.IncidentChangedEvent;
+import com.university.labmanager.event.LaptopChangedEvent;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.enums.IncidentSeverity;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.IncidentRepository;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsMetricsStoreTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private IncidentRepository incidentRepository;
+    @Mock
+    private LaptopRepository laptopRepository;
+
+    @InjectMocks
+    private AnalyticsMetricsStore store;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 5, 15, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        when(reservationRepository.countGroupedByStatus()).thenReturn(List.of(
+                new ReservationStatusCountDTO(ReservationStatus.ACTIVE, 2L),
+                new ReservationStatusCountDTO(ReservationStatus.COMPLETED, 8L)));
+        when(reservationRepository.countGroupedByStartDaySince(any())).thenReturn(List.of(
+                new DailyCountDTO(LocalDate.of(2030, 5, 1), 6L),
+                new DailyCountDTO(LocalDate.of(2030, 5, 14), 4L)));
+        when(reservationRepository.findRecentBookings(any())).thenReturn(rows(
+                new Object[] { 10L, 1L, LocalDateTime.of(2030, 5, 14, 9, 0) },
+                new Object[] { 9L, 2L, LocalDateTime.of(2030, 5, 14, 8, 0) }));
+        when(incidentRepository.countGroupedBySeverityResolvedAndType()).thenReturn(List.of(
+                new IncidentCountDTO(IncidentSeverity.HIGH, false, null, 1L),
+                new IncidentCountDTO(IncidentSeverity.LOW, true, "DESKTOP", 2L)));
+        when(laptopRepository.count()).thenReturn(4L);
+        when(laptopRepository.findSoftwareNamesByLaptop()).thenReturn(rows(
+                new Object[] { 1L, "Java" },
+                new Object[] { 1L, "Matlab" },
+                new Object[] { 2L, "Java" }));
+        store.rebuild();
+    }
+
+    @Test
+    void rebuild_LoadsAggregates() {
+        assertTrue(store.isReady());
+        AnalyticsDashboardDTO dashboard = store.toDashboard(now);
+
+        assertEquals(10, dashboard.getTotalReservations());
+        assertEquals(50.0, dashboard.getUtilizationRate());
+        // May 1st is outside the last 7 days
+        assertEquals(Map.of("2030-05-14", 4L), dashboard.getReservationsByDay());
+        assertEquals(1, dashboard.getActiveIncidents());
+        assertEquals(3, dashboard.getHistoricalIncidents());
+        assertEquals(Map.of("HIGH", 1L, "LOW", 2L), dashboard.getIncidentsBySeverity());
+        assertEquals(Map.of("HIGH", 1L), dashboard.getActiveIncidentsBySeverity());
+        assertEquals(Map.of("LOW", 2L), dashboard.getResolvedIncidentsBySeverity());
+        // Old rows without a report type count as laptop incidents
+        assertEquals(Map.of("LAPTOP", 1L, "DESKTOP", 2L), dashboard.getIncidentsByType());
+        assertEquals(Map.of("Java", 2L, "Matlab", 1L), dashboard.getPopularSoftware());
+    }
+
+    @Test
+    void reservationEvents_AdjustCounters() {
+        LocalDateTime start = LocalDateTime.of(2030, 5, 16, 10, 0);
+        store.onReservationChanged(reservation(EntityChangeType.CREATED, 11L, 2L, start, ReservationStatus.PENDING,
+                null));
+        store.onReservationChanged(reservation(EntityChangeType.UPDATED, 11L, 2L, start, ReservationStatus.ACTIVE,
+                ReservationStatus.PENDING));
+        store.onReservationChanged(reservation(EntityChangeType.UPDATED, 10L, 1L,
+                LocalDateTime.of(2030, 5, 14, 9, 0), ReservationStatus.COMPLETED, ReservationStatus.ACTIVE));
+
+        AnalyticsDashboardDTO dashboard = store.toDashboard(now);
+        assertEquals(11, dashboard.getTotalReservations());
+        // Still 2 ACTIVE: one finished, one started
+        assertEquals(50.0, dashboard.getUtilizationRate());
+        assertEquals(Map.of("2030-05-14", 4L, "2030-05-16", 1L), dashboard.getReservationsByDay());
+        assertEquals(Map.of("Java", 3L, "Matlab", 1L), dashboard.getPopularSoftware());
+    }
+
+    @Test
+    void incidentAndLaptopEvents_AdjustCounters() {
+        store.onIncidentChanged(IncidentChangedEvent.builder().type(EntityChangeType.UPDATED).incidentId(1L)
+                .severity(IncidentSeverity.HIGH).resolved(true).reportType(null)
+                .previousSeverity(IncidentSeverity.HIGH).previousResolved(false).previousReportType(null).build());
+        store.onIncidentChanged(IncidentChangedEvent.builder().type(EntityChangeType.CREATED).incidentId(5L)
+                .severity(IncidentSeverity.CRITICAL).resolved(false).reportType("LAPTOP").build());
+        store.onLaptopChanged(LaptopChangedEvent.builder().type(EntityChangeType.CREATED).laptopId(5L)
+                .installedSoftware(Set.of(Software.builder().name("AutoCAD").build())).build());
+
+        AnalyticsDashboardDTO dashboard = store.toDashboard(now);
+        assertEquals(1, dashboard.getActiveIncidents());
+        assertEquals(Map.of("CRITICAL", 1L), dashboard.getActiveIncidentsBySeverity());
+        assertEquals(Map.of("HIGH", 1L, "LOW", 2L), dashboard.getResolvedIncidentsBySeverity());
+        assertEquals(4, dashboard.getHistoricalIncidents());
+        // 2 ACTIVE over 5 laptops
+        assertEquals(40.0, dashboard.getUtilizationRate());
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static ReservationChangedEvent reservation(EntityChangeType type, Long id, Long laptopId,
+            LocalDateTime start, ReservationStatus status, ReservationStatus previous) {
+        return ReservationChangedEvent.builder().type(type).reservationId(id).laptopId(laptopId)
+                .startTime(start).endTime(start.plusHours(2)).status(status).previousStatus(previous).build();
+    }
+}
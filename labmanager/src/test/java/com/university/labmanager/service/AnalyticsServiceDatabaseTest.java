@@ -0,0 +1,147 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.AnalyticsDashboardDTO;
+import com.university.labmanager.event.EntityChangePublisher;
+import com.university.labmanager.model.Incident;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.IncidentSeverity;
+import com.university.labmanager.model.enums.LaptopStatus;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.model.enums.Role;
+import com.university.labmanager.repository.IncidentRepository;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.repository.SoftwareRepository;
+import com.university.labmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the SQL aggregates and DTO projections behind the dashboard fallback
+ * against a real database and checks them against the in-memory store, which
+ * is fed only by the change events of the same writes.
+ */
+// Without the import.sql seed, so the expected counts are exactly the rows below
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.hbm2ddl.import_files=")
+// Every save commits, so the store receives its after-commit events
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = AnalyticsServiceDatabaseTest.Config.class)
+class AnalyticsServiceDatabaseTest {
+
+    // LabManagerApplication scans every component; load only JPA and the classes under test.
+    // Not a @Configuration, so the application's own component scan never picks it up.
+    @EntityScan(basePackages = "com.university.labmanager.model")
+    @EnableJpaRepositories(basePackages = "com.university.labmanager.repository")
+    @Import({ EntityChangePublisher.class, AnalyticsMetricsStore.class })
+    static class Config {
+    }
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private IncidentRepository incidentRepository;
+    @Autowired
+    private LaptopRepository laptopRepository;
+    @Autowired
+    private SoftwareRepository softwareRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AnalyticsMetricsStore metricsStore;
+
+    @Test
+    void databaseAggregates_MatchTheEventMaintainedStore() {
+        // Empty tables: the store starts at zero and follows the events from here on
+        metricsStore.rebuild();
+        LocalDateTime now = LocalDateTime.now();
+
+        Software python = softwareRepository.save(Software.builder().name("Python").version("3").build());
+        Software matlab = softwareRepository.save(Software.builder().name("Matlab").version("R1").build());
+        Software docker = softwareRepository.save(Software.builder().name("Docker").version("24").build());
+        Laptop a = laptop("A", Set.of(python, matlab, docker));
+        Laptop b = laptop("B", Set.of(python, matlab));
+        Laptop c = laptop("C", Set.of(python));
+        laptop("D", Set.of());
+        User user = userRepository.save(User.builder().matricula("AGG-1").fullName("Agg").password("x")
+                .email("agg@university.edu").role(Role.ROLE_STUDENT).build());
+
+        reservation(user, a, now.minusHours(1), ReservationStatus.ACTIVE);
+        reservation(user, b, now.minusHours(2), ReservationStatus.ACTIVE);
+        reservation(user, a, now.minusDays(2), ReservationStatus.COMPLETED);
+        reservation(user, c, now.minusDays(2), ReservationStatus.COMPLETED);
+        reservation(user, b, now.minusDays(10), ReservationStatus.COMPLETED);
+        reservation(user, c, now.plusDays(3), ReservationStatus.PENDING);
+
+        incident(IncidentSeverity.HIGH, false, "LAPTOP");
+        incident(IncidentSeverity.HIGH, true, "DESKTOP");
+        incident(IncidentSeverity.LOW, false, null);
+        incident(IncidentSeverity.CRITICAL, true, "LAPTOP");
+
+        // A store that never became ready sends the service down the SQL path
+        AnalyticsService sqlOnly = new AnalyticsService(reservationRepository, incidentRepository, laptopRepository,
+                new AnalyticsMetricsStore(reservationRepository, incidentRepository, laptopRepository));
+        AnalyticsDashboardDTO fromSql = sqlOnly.getDashboardMetrics();
+        AnalyticsDashboardDTO fromStore = metricsStore.toDashboard(now);
+
+        assertEquals(6, fromSql.getTotalReservations());
+        assertEquals(fromStore.getTotalReservations(), fromSql.getTotalReservations());
+        assertEquals(50.0, fromSql.getUtilizationRate(), 0.001);
+        assertEquals(fromStore.getUtilizationRate(), fromSql.getUtilizationRate(), 0.001);
+
+        assertEquals(Map.of(day(now), 2L, day(now.minusDays(2)), 2L, day(now.plusDays(3)), 1L),
+                fromSql.getReservationsByDay());
+        assertEquals(fromStore.getReservationsByDay(), fromSql.getReservationsByDay());
+
+        assertEquals(4, fromSql.getHistoricalIncidents());
+        assertEquals(2, fromSql.getActiveIncidents());
+        assertEquals(fromStore.getHistoricalIncidents(), fromSql.getHistoricalIncidents());
+        assertEquals(fromStore.getActiveIncidents(), fromSql.getActiveIncidents());
+        assertEquals(Map.of("HIGH", 2L, "LOW", 1L, "CRITICAL", 1L), fromSql.getIncidentsBySeverity());
+        assertEquals(fromStore.getIncidentsBySeverity(), fromSql.getIncidentsBySeverity());
+        assertEquals(fromStore.getActiveIncidentsBySeverity(), fromSql.getActiveIncidentsBySeverity());
+        assertEquals(fromStore.getResolvedIncidentsBySeverity(), fromSql.getResolvedIncidentsBySeverity());
+        // Rows without a type count as laptop incidents
+        assertEquals(Map.of("LAPTOP", 3L, "DESKTOP", 1L), fromSql.getIncidentsByType());
+        assertEquals(fromStore.getIncidentsByType(), fromSql.getIncidentsByType());
+
+        // Laptops of the six bookings: A twice, B twice, C twice
+        assertEquals(Map.of("Python", 6L, "Matlab", 4L, "Docker", 2L), fromSql.getPopularSoftware());
+        assertEquals(fromStore.getPopularSoftware(), fromSql.getPopularSoftware());
+    }
+
+    private Laptop laptop(String serial, Set<Software> software) {
+        return laptopRepository.save(Laptop.builder().serialNumber("AGG-" + serial).model("Model " + serial)
+                .status(LaptopStatus.AVAILABLE).installedSoftware(new java.util.HashSet<>(software)).build());
+    }
+
+    private void reservation(User user, Laptop laptop, LocalDateTime start, ReservationStatus status) {
+        reservationRepository.save(Reservation.builder().user(user).laptop(laptop).startTime(start)
+                .endTime(start.plusHours(1)).status(status).build());
+    }
+
+    private void incident(IncidentSeverity severity, boolean resolved, String reportType) {
+        incidentRepository.save(Incident.builder().description("broken").reportedAt(LocalDateTime.now())
+                .severity(severity).resolved(resolved).reportType(reportType).build());
+    }
+
+    private static String day(LocalDateTime time) {
+        return time.toLocalDate().toString();
+    }
+}
@@ -0,0 +1,172 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.AnalyticsDashboardDTO;
+import com.university.labmanager.dto.DashboardCacheStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardMetricsCacheTest {
+
+    private static final long TTL = 30_000;
+    private static final long STALE = 60_000;
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+
+    private DashboardMetricsCache cache() {
+        return new DashboardMetricsCache(analyticsService, backgroundTasks::add, TTL, STALE, clock::get);
+    }
+
+    private static AnalyticsDashboardDTO dashboard(long totalReservations) {
+        return AnalyticsDashboardDTO.builder().totalReservations(totalReservations).build();
+    }
+
+    @Test
+    void sameBucket_IsServedFromCache() {
+        when(analyticsService.getDashboardMetrics()).thenReturn(dashboard(1));
+        DashboardMetricsCache cache = cache();
+
+        cache.get();
+        clock.addAndGet(5_000);
+        cache.get();
+
+        verify(analyticsService, times(1)).getDashboardMetrics();
+        DashboardCacheStatsDTO stats = cache.getStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getRecomputations());
+    }
+
+    @Test
+    void expiredEntry_IsServedStaleWhileOneRefreshRuns() {
+        when(analyticsService.getDashboardMetrics()).thenReturn(dashboard(1), dashboard(2));
+        DashboardMetricsCache cache = cache();
+        cache.get();
+
+        clock.addAndGet(TTL);
+        assertEquals(1, cache.get().getTotalReservations());
+        assertEquals(1, cache.get().getTotalReservations());
+        // Both stale requests share the single scheduled refresh
+        assertEquals(1, backgroundTasks.size());
+
+        backgroundTasks.remove(0).run();
+        assertEquals(2, cache.get().getTotalReservations());
+        assertEquals(2, cache.getStats().getStaleHits());
+    }
+
+    @Test
+    void tooOldEntry_IsRecomputedSynchronously() {
+        when(analyticsService.getDashboardMetrics()).thenReturn(dashboard(1), dashboard(2));
+        DashboardMetricsCache cache = cache();
+        cache.get();
+
+        clock.addAndGet(TTL + STALE);
+        assertEquals(2, cache.get().getTotalReservations());
+        assertTrue(backgroundTasks.isEmpty());
+        assertEquals(2, cache.getStats().getMisses());
+    }
+
+    @Test
+    void concurrentMisses_ShareOneComputation() throws Exception {
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyticsService.getDashboardMetrics()).thenAnswer(i -> {
+            computing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return dashboard(7);
+        });
+        DashboardMetricsCache cache = cache();
+
+        ExecutorService pool = Executors.newFixedThreadPool(100);
+        try {
+            List<Future<AnalyticsDashboardDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(pool.submit(cache::get));
+            }
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<AnalyticsDashboardDTO> result : results) {
+                assertEquals(7, result.get(5, TimeUnit.SECONDS).getTotalReservations());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(analyticsService, times(1)).getDashboardMetrics();
+        assertEquals(1, cache.getStats().getRecomputations());
+    }
+
+    @Test
+    void failedComputation_IsNotCached() {
+        when(analyticsService.getDashboardMetrics()).thenThrow(new IllegalStateException("db down"))
+                .thenReturn(dashboard(3));
+        DashboardMetricsCache cache = cache();
+
+        assertThrows(IllegalStateException.class, cache::get);
+        assertEquals(3, cache.get().getTotalReservations());
+        assertEquals(1, cache.getStats().getFailures());
+    }
+
+    @Test
+    void missJoiningARejectedBackgroundRefresh_ComputesItself() throws Exception {
+        when(analyticsService.getDashboardMetrics()).thenReturn(dashboard(1), dashboard(2));
+        CountDownLatch submitted = new CountDownLatch(1);
+        CountDownLatch reject = new CountDownLatch(1);
+        Executor saturated = task -> {
+            submitted.countDown();
+            try {
+                reject.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RejectedExecutionException("queue full");
+        };
+        DashboardMetricsCache cache = new DashboardMetricsCache(analyticsService, saturated, TTL, STALE, clock::get);
+        cache.get();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // A stale request starts the background refresh, which the executor is slow to turn down
+            clock.addAndGet(TTL);
+            Future<AnalyticsDashboardDTO> stale = pool.submit(cache::get);
+            assertTrue(submitted.await(5, TimeUnit.SECONDS));
+            // Meanwhile the copy gets too old to serve, and a miss joins that refresh
+            clock.addAndGet(STALE);
+            AtomicReference<Thread> missThread = new AtomicReference<>();
+            Future<AnalyticsDashboardDTO> miss = pool.submit(() -> {
+                missThread.set(Thread.currentThread());
+                return cache.get();
+            });
+            while (missThread.get() == null || missThread.get().getState() != Thread.State.WAITING) {
+                Thread.sleep(10);
+            }
+            reject.countDown();
+
+            assertEquals(1, stale.get(5, TimeUnit.SECONDS).getTotalReservations());
+            assertEquals(2, miss.get(5, TimeUnit.SECONDS).getTotalReservations());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.model.OutboundEmail;
+import com.university.labmanager.model.enums.OutboundEmailStatus;
+import com.university.labmanager.repository.OutboundEmailRepository;
+import com.university.labmanager.scheduler.JobLeaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private OutboundEmailRepository outboxRepository;
+    @Mock
+    private JobLeaseService jobLeases;
+
+    private FakeSmtpServer smtp;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new FakeSmtpServer();
+        dispatcher = dispatcher(3);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtp.close();
+    }
+
+    private EmailOutboxDispatcher dispatcher(int maxAttempts) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtp.getPort());
+        return new EmailOutboxDispatcher(outboxRepository, sender, Runnable::run, jobLeases, "lab@test.com", 10, maxAttempts,
+                1_000, 60_000, 7);
+    }
+
+    private static OutboundEmail email(long id, String to, boolean html) {
+        return OutboundEmail.builder().id(id).recipient(to).subject("Subject " + id)
+                .body(html ? "<p>Hola " + id + "</p>" : "Hola " + id).html(html)
+                .status(OutboundEmailStatus.PENDING).nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .createdAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    void batch_IsSentOverOneConnection() {
+        List<OutboundEmail> batch = List.of(email(1, "a@test.com", true), email(2, "b@test.com", false),
+                email(3, "c@test.com", true));
+        when(outboxRepository.findDue(eq(OutboundEmailStatus.PENDING), any(), any())).thenReturn(batch);
+
+        assertEquals(3, dispatcher.dispatch());
+
+        assertEquals(1, smtp.getConnections());
+        assertEquals(3, smtp.getMessages().size());
+        assertTrue(smtp.getMessages().get(1).contains("Hola 2"));
+        assertTrue(batch.stream().allMatch(e -> e.getStatus() == OutboundEmailStatus.SENT && e.getSentAt() != null));
+        verify(outboxRepository).saveAll(batch);
+        assertEquals(1, dispatcher.getStats().getBatchesSinceStart());
+    }
+
+    @Test
+    void rejectedRecipient_IsRetriedWithBackoff() {
+        smtp.reject("bad@test.com");
+        OutboundEmail good = email(1, "a@test.com", false);
+        OutboundEmail bad = email(2, "bad@test.com", false);
+        when(outboxRepository.findDue(any(), any(), any())).thenReturn(List.of(good, bad));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        assertEquals(OutboundEmailStatus.SENT, good.getStatus());
+        assertEquals(OutboundEmailStatus.PENDING, bad.getStatus());
+        assertEquals(1, bad.getAttempts());
+        assertNotNull(bad.getLastError());
+        assertFalse(bad.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+        assertEquals(1, smtp.getConnections());
+    }
+
+    @Test
+    void serverDown_BacksOffThenGivesUp() throws Exception {
+        smtp.close();
+        OutboundEmail email = email(1, "a@test.com", false);
+        email.setAttempts(1);
+        when(outboxRepository.findDue(any(), any(), any())).thenReturn(List.of(email));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        // Second attempt: base backoff doubled
+        assertEquals(OutboundEmailStatus.PENDING, email.getStatus());
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+
+        dispatcher.dispatch();
+        assertEquals(OutboundEmailStatus.FAILED, email.getStatus());
+        assertEquals(3, email.getAttempts());
+        assertEquals(1, dispatcher.getStats().getFailedSinceStart());
+    }
+}
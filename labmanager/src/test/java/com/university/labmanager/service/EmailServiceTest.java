@@ -0,0 +1,59 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.model.OutboundEmail;
+import com.university.labmanager.model.User;
+import com.university.labmanager.repository.OutboundEmailRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.exceptions.TemplateInputException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailServiceTest {
+
+    @Mock
+    private TemplateEngine templateEngine;
+    @Mock
+    private OutboundEmailRepository outboxRepository;
+    @Mock
+    private EmailOutboxDispatcher outboxDispatcher;
+
+    @InjectMocks
+    private EmailService emailService;
+
+    private static User user() {
+        return User.builder().id(1L).fullName("Test User").email("test@test.com").build();
+    }
+
+    @Test
+    void renderingFailure_SkipsTheEmail() {
+        when(templateEngine.process(eq("mail/sanction-notice"), any(IContext.class)))
+                .thenThrow(new TemplateInputException("broken template"));
+
+        assertDoesNotThrow(() -> emailService.sendSanctionNotification(user(), "Late"));
+
+        verifyNoInteractions(outboxRepository, outboxDispatcher);
+    }
+
+    @Test
+    void outboxFailure_ReachesTheCaller() {
+        when(templateEngine.process(eq("mail/sanction-notice"), any(IContext.class))).thenReturn("<p>Hola</p>");
+        when(outboxRepository.save(any(OutboundEmail.class))).thenThrow(new DataIntegrityViolationException("outbox"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> emailService.sendSanctionNotification(user(), "Late"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> emailService.sendSimpleMessage("admin@test.com", "Alert", "Body"));
+        verifyNoInteractions(outboxDispatcher);
+    }
+}
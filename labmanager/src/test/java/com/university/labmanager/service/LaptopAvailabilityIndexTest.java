@@ -0,0 +1,144 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.LaptopChangedEvent;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.enums.LaptopStatus;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LaptopAvailabilityIndexTest {
+
+    @Mock
+    private LaptopRepository laptopRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Spy
+    private SoftwareDictionary softwareDictionary = new SoftwareDictionary();
+
+    @InjectMocks
+    private LaptopAvailabilityIndex index;
+
+    private final LocalDateTime nine = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    @BeforeEach
+    void setUp() {
+        List<Laptop> laptops = List.of(
+                laptop(1L, LaptopStatus.AVAILABLE, "Python", "Docker Desktop"),
+                laptop(2L, LaptopStatus.AVAILABLE, "Python"),
+                laptop(3L, LaptopStatus.IN_USE, "Python", "Docker Desktop"),
+                laptop(4L, LaptopStatus.AVAILABLE));
+        List<Object[]> windows = new ArrayList<>();
+        // Laptop 2 is busy 10:00-12:00
+        windows.add(new Object[] { 100L, 2L, nine.plusHours(1), nine.plusHours(3) });
+        when(laptopRepository.findAllWithSoftware()).thenReturn(laptops);
+        when(reservationRepository.findBookingWindowsByStatusIn(any())).thenReturn(windows);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_MarksIndexReady() {
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void findAvailable_AnySoftware_SkipsNonAvailableAndBusyLaptops() {
+        assertEquals(List.of(1L, 4L), ids(index.findAvailable(List.of(), nine, nine.plusHours(2))));
+    }
+
+    @Test
+    void findAvailable_TouchingWindowsDoNotOverlap() {
+        // Ends exactly when laptop 2's booking starts, and starts exactly when it ends
+        assertEquals(List.of(1L, 2L, 4L), ids(index.findAvailable(List.of(), nine, nine.plusHours(1))));
+        assertEquals(List.of(1L, 2L, 4L),
+                ids(index.findAvailable(List.of(), nine.plusHours(3), nine.plusHours(4))));
+    }
+
+    @Test
+    void findAvailable_RequiresAllSoftware() {
+        assertEquals(List.of(1L), ids(index.findAvailable(List.of("Python", "Docker Desktop"), nine.plusHours(4),
+                nine.plusHours(5))));
+        assertEquals(List.of(1L, 2L), ids(index.findAvailable(List.of("Python"), nine.plusHours(4),
+                nine.plusHours(5))));
+    }
+
+    @Test
+    void findAvailable_UnknownOrRepeatedSoftware_MatchesNothing() {
+        assertTrue(index.findAvailable(List.of("Matlab"), nine, nine.plusHours(1)).isEmpty());
+        assertTrue(index.findAvailable(List.of("Python", "Python"), nine, nine.plusHours(1)).isEmpty());
+    }
+
+    @Test
+    void onReservationChanged_TracksBlockingStatusTransitions() {
+        ReservationChangedEvent activated = ReservationChangedEvent.builder()
+                .type(EntityChangeType.UPDATED).reservationId(200L).laptopId(1L)
+                .startTime(nine).endTime(nine.plusHours(2)).status(ReservationStatus.ACTIVE).build();
+        index.onReservationChanged(activated);
+        assertEquals(List.of(2L, 4L), ids(index.findAvailable(List.of(), nine, nine.plusHours(1))));
+
+        ReservationChangedEvent completed = ReservationChangedEvent.builder()
+                .type(EntityChangeType.UPDATED).reservationId(200L).laptopId(1L)
+                .startTime(nine).endTime(nine.plusHours(2)).status(ReservationStatus.COMPLETED).build();
+        index.onReservationChanged(completed);
+        assertEquals(List.of(1L, 2L, 4L), ids(index.findAvailable(List.of(), nine, nine.plusHours(1))));
+    }
+
+    @Test
+    void onLaptopChanged_UpdatesStatusAndKeepsSoftwareWhenNotLoaded() {
+        index.onLaptopChanged(LaptopChangedEvent.builder().type(EntityChangeType.UPDATED).laptopId(1L)
+                .serialNumber("SN-1").model("Model").status(LaptopStatus.MAINTENANCE_REQUIRED).build());
+        assertTrue(index.findAvailable(List.of("Docker Desktop"), nine, nine.plusHours(1)).isEmpty());
+
+        index.onLaptopChanged(LaptopChangedEvent.builder().type(EntityChangeType.UPDATED).laptopId(1L)
+                .serialNumber("SN-1").model("Model").status(LaptopStatus.AVAILABLE).build());
+        assertEquals(List.of(1L), ids(index.findAvailable(List.of("Docker Desktop"), nine, nine.plusHours(1))));
+    }
+
+    @Test
+    void onLaptopChanged_NewLaptopBecomesSearchable() {
+        Set<Software> software = new HashSet<>();
+        software.add(Software.builder().id(9L).name("Xcode").version("15.0").build());
+        index.onLaptopChanged(LaptopChangedEvent.builder().type(EntityChangeType.CREATED).laptopId(5L)
+                .serialNumber("SN-5").model("MacBook").status(LaptopStatus.AVAILABLE)
+                .installedSoftware(software).build());
+
+        List<Laptop> result = index.findAvailable(List.of("Xcode"), nine, nine.plusHours(1));
+        assertEquals(List.of(5L), ids(result));
+        assertEquals("MacBook", result.get(0).getModel());
+    }
+
+    private static Laptop laptop(Long id, LaptopStatus status, String... software) {
+        Set<Software> installed = new HashSet<>();
+        for (String name : software) {
+            installed.add(Software.builder().name(name).version("1").build());
+        }
+        return Laptop.builder().id(id).serialNumber("SN-" + id).model("Model").status(status)
+                .installedSoftware(installed).build();
+    }
+
+    private static List<Long> ids(List<Laptop> laptops) {
+        return laptops.stream().map(Laptop::getId).collect(Collectors.toList());
+    }
+}
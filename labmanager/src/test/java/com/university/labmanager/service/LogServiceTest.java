@@ -1,7 +1,9 @@
 package com.university.labmanager.service;
 
+import com.university.labmanager.dto.SystemLogPage;
 import com.university.labmanager.model.SystemLog;
 import com.university.labmanager.repository.SystemLogRepository;
+import org.springframework.data.jpa.domain.Specification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +25,9 @@ class LogServiceTest {
     @Mock
     private SystemLogRepository logRepository;
 
+    @Mock
+    private SystemLogWriter logWriter;
+
     @InjectMocks
     private LogService logService;
 
@@ -73,6 +78,22 @@ class LogServiceTest {
         assertDoesNotThrow(() -> logService.log(SystemLog.LogLevel.INFO, "TEST", "Message", "user"));
     }
 
+    @Test
+    void testLog_AsyncWriterKeepsRequestThreadOffTheDb() {
+        // Arrange
+        when(logWriter.isEnabled()).thenReturn(true);
+
+        // Act
+        logService.warn("AUTH", "Too many attempts", null);
+
+        // Assert
+        ArgumentCaptor<SystemLog> logCaptor = ArgumentCaptor.forClass(SystemLog.class);
+        verify(logWriter).append(logCaptor.capture());
+        verifyNoInteractions(logRepository);
+        assertEquals(SystemLog.LogLevel.WARN, logCaptor.getValue().getLevel());
+        assertEquals("SYSTEM", logCaptor.getValue().getUsername());
+    }
+
     @Test
     void testInfoHelper() {
         // Act
@@ -92,17 +113,45 @@ class LogServiceTest {
     }
 
     @Test
-    void testGetRecentLogs() {
+    void testFindLogs_ReturnsCursorWhenMoreRowsExist() {
+        // Arrange: the repository returns limit + 1 rows when there is another page
+        SystemLog log1 = SystemLog.builder().id(3L).timestamp(LocalDateTime.of(2030, 1, 1, 10, 2)).message("Log 3").build();
+        SystemLog log2 = SystemLog.builder().id(2L).timestamp(LocalDateTime.of(2030, 1, 1, 10, 1)).message("Log 2").build();
+        SystemLog log3 = SystemLog.builder().id(1L).timestamp(LocalDateTime.of(2030, 1, 1, 10, 0)).message("Log 1").build();
+        when(logRepository.<SystemLog, Object>findBy(any(Specification.class), any())).thenReturn(Arrays.asList(log1, log2, log3));
+
+        // Act
+        SystemLogPage page = logService.findLogs("info", null, null, null, null, null, 2);
+
+        // Assert
+        assertEquals(List.of(log1, log2), page.getItems());
+        SystemLog last = LogService.decodeCursor(page.getNextCursor());
+        assertEquals(2L, last.getId());
+        assertEquals(log2.getTimestamp(), last.getTimestamp());
+    }
+
+    @Test
+    void testFindLogs_LastPageHasNoCursor() {
         // Arrange
-        SystemLog log1 = SystemLog.builder().message("Log 1").build();
-        SystemLog log2 = SystemLog.builder().message("Log 2").build();
-        when(logRepository.findAllByOrderByTimestampDesc()).thenReturn(Arrays.asList(log1, log2));
+        SystemLog log1 = SystemLog.builder().id(1L).timestamp(LocalDateTime.of(2030, 1, 1, 10, 0)).build();
+        when(logRepository.<SystemLog, Object>findBy(any(Specification.class), any())).thenReturn(List.of(log1));
 
         // Act
-        List<SystemLog> logs = logService.getRecentLogs();
+        SystemLogPage page = logService.findLogs(null, "AUTH", "admin", null, null,
+                LogService.encodeCursor(SystemLog.builder().id(5L).timestamp(LocalDateTime.of(2030, 1, 1, 11, 0)).build()),
+                null);
 
         // Assert
-        assertEquals(2, logs.size());
-        verify(logRepository).findAllByOrderByTimestampDesc();
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testFindLogs_RejectsBadInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> logService.findLogs("LOUD", null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> logService.findLogs(null, null, null, null, null, "not-a-cursor", null));
+        verifyNoInteractions(logRepository);
     }
 }
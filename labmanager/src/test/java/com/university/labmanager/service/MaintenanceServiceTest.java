@@ -0,0 +1,127 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.event.EntityChangePublisher;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.enums.LaptopStatus;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.scheduler.JobLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceServiceTest {
+
+    @Mock
+    private LaptopRepository laptopRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+    @Mock
+    private JobLeaseService jobLeases;
+
+    private MaintenanceService maintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        maintenanceService = new MaintenanceService(laptopRepository, reservationRepository, emailService,
+                entityChangePublisher, jobLeases, 50, "admin@test.com");
+    }
+
+    @Test
+    void checkLaptops_FlagsOverusedLaptopsInBulkAndSendsOneDigest() {
+        when(reservationRepository.findLaptopsUsedMoreThan(any(), any(), eq(50L))).thenReturn(List.of(
+                new Object[] { 1L, "SN1", "X1", 80L },
+                new Object[] { 2L, "SN2", "X2", 60L },
+                new Object[] { 3L, "SN3", "X3", 51L }));
+        // Laptop 2 was picked up between the count and the lock
+        when(laptopRepository.lockIdsByIdInAndStatusIn(List.of(1L, 2L, 3L), EnumSet.of(LaptopStatus.AVAILABLE,
+                LaptopStatus.INACTIVE))).thenReturn(List.of(1L, 3L));
+
+        assertEquals(2, maintenanceService.checkLaptops());
+
+        verify(laptopRepository).updateStatus(eq(Set.of(1L, 3L)), any(), eq(LaptopStatus.MAINTENANCE_REQUIRED));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Laptop>> published = ArgumentCaptor.forClass(Collection.class);
+        verify(entityChangePublisher).laptopsUpdated(published.capture());
+        assertEquals(List.of(1L, 3L), published.getValue().stream().map(Laptop::getId).toList());
+        assertTrue(published.getValue().stream().allMatch(l -> l.getStatus() == LaptopStatus.MAINTENANCE_REQUIRED));
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(emailService, times(1)).sendSimpleMessage(eq("admin@test.com"), eq("Maintenance Alert: 2 laptops"),
+                body.capture());
+        assertTrue(body.getValue().contains("X1 (SN: SN1): 80 uses"));
+        assertFalse(body.getValue().contains("SN2"));
+    }
+
+    @Test
+    void checkLaptops_UpdatesInBatches() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 1200; id++) {
+            rows.add(new Object[] { id, "SN" + id, "X", 60L });
+        }
+        when(reservationRepository.findLaptopsUsedMoreThan(any(), any(), anyLong())).thenReturn(rows);
+        when(laptopRepository.lockIdsByIdInAndStatusIn(any(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Long>>getArgument(0)));
+
+        assertEquals(1200, maintenanceService.checkLaptops());
+
+        verify(laptopRepository, times(3)).updateStatus(any(), any(), any());
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(emailService, times(1)).sendSimpleMessage(any(), eq("Maintenance Alert: 1200 laptops"), body.capture());
+        assertTrue(body.getValue().contains("... and 1000 more"));
+    }
+
+    @Test
+    void checkLaptops_LeaseTakenOver_FlagsNothing() {
+        when(reservationRepository.findLaptopsUsedMoreThan(any(), any(), anyLong()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, "SN1", "X1", 80L }));
+        when(laptopRepository.lockIdsByIdInAndStatusIn(any(), any())).thenReturn(List.of(1L));
+        doThrow(new IllegalStateException("Lease lost")).when(jobLeases).checkpoint();
+
+        assertThrows(IllegalStateException.class, () -> maintenanceService.checkLaptops());
+
+        verify(laptopRepository, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(entityChangePublisher, emailService);
+    }
+
+    @Test
+    void checkLaptops_NothingOverThreshold_NoUpdatesOrEmail() {
+        when(reservationRepository.findLaptopsUsedMoreThan(any(), any(), anyLong())).thenReturn(List.of());
+
+        assertEquals(0, maintenanceService.checkLaptops());
+
+        verifyNoInteractions(laptopRepository, entityChangePublisher, emailService);
+    }
+
+    @Test
+    void performMaintenanceCheck_FailureReachesTheJobLease() {
+        when(jobLeases.runExclusively(eq("maintenance-check"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(reservationRepository.findLaptopsUsedMoreThan(any(), any(), anyLong()))
+                .thenThrow(new IllegalStateException("DB down"));
+
+        // Propagates so the lease records it and the transaction rolls back
+        assertThrows(IllegalStateException.class, () -> maintenanceService.performMaintenanceCheck());
+        verifyNoInteractions(emailService);
+    }
+}
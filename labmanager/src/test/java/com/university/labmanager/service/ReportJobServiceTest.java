@@ -0,0 +1,185 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.dto.ReportJobDTO;
+import com.university.labmanager.dto.ReportJobRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    private static final long TTL = 60_000;
+
+    @Mock
+    private ReportService reportService;
+
+    @TempDir
+    Path directory;
+
+    private ReportJobService service;
+
+    private ReportJobService service(int queueCapacity) throws Exception {
+        service = new ReportJobService(reportService, directory.toString(), 1, queueCapacity, TTL);
+        service.recover();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private static ReportJobRequest inventory(String format) {
+        return ReportJobRequest.builder().type("inventory").format(format).status("ALL").build();
+    }
+
+    private ReportJobDTO awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ReportJobDTO job = service.getJob(id);
+            if (ReportJobService.DONE.equals(job.getStatus()) || ReportJobService.FAILED.equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Job " + id + " did not finish");
+        return null;
+    }
+
+    @Test
+    void submit_WritesResultFile() throws Exception {
+        doAnswer(i -> {
+            i.<OutputStream>getArgument(1).write("xlsx".getBytes());
+            return null;
+        }).when(reportService).writeLaptopReportExcel(eq("ALL"), any());
+        service(5);
+
+        ReportJobDTO job = service.submit(inventory("xlsx"));
+        ReportJobDTO finished = awaitFinished(job.getId());
+
+        assertEquals(ReportJobService.DONE, finished.getStatus());
+        assertEquals("inventory_report.xlsx", finished.getFileName());
+        assertArrayEquals("xlsx".getBytes(), Files.readAllBytes(service.getResultFile(job.getId())));
+    }
+
+    @Test
+    void identicalInFlightRequests_ShareOneJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(i -> release.await(5, TimeUnit.SECONDS)).when(reportService).writeLaptopReportPdf(eq("ALL"), any());
+        service(5);
+
+        ReportJobDTO first = service.submit(inventory("pdf"));
+        ReportJobDTO second = service.submit(inventory("pdf"));
+        assertEquals(first.getId(), second.getId());
+        // Nothing to download until it is DONE
+        assertNull(service.getResultFile(first.getId()));
+
+        release.countDown();
+        awaitFinished(first.getId());
+        verify(reportService, times(1)).writeLaptopReportPdf(eq("ALL"), any());
+
+        // Once finished, the same request starts a new job
+        assertNotEquals(first.getId(), service.submit(inventory("pdf")).getId());
+    }
+
+    @Test
+    void fullQueue_RejectsSubmission() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(i -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).when(reportService).writeIncidentReportPdf(any());
+        service(1);
+
+        // One running, one queued
+        service.submit(ReportJobRequest.builder().type("INCIDENTS").format("pdf").build());
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        service.submit(ReportJobRequest.builder().type("INCIDENTS").format("xlsx").build());
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submit(inventory("pdf")));
+        release.countDown();
+    }
+
+    @Test
+    void invalidRequests_AreRejectedUpFront() throws Exception {
+        service(5);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.submit(ReportJobRequest.builder().type("RESERVATIONS").format("xlsx").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.submit(ReportJobRequest.builder().type("LAPTOPS").format("pdf").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.submit(ReportJobRequest.builder().type("INVENTORY").format("pdf").status("LOST").build()));
+        verifyNoInteractions(reportService);
+    }
+
+    @Test
+    void failedJob_KeepsErrorAndNoFile() throws Exception {
+        doThrow(new IllegalStateException("db down")).when(reportService).writeIncidentReportPdf(any());
+        service(5);
+
+        ReportJobDTO job = service.submit(ReportJobRequest.builder().type("INCIDENTS").format("pdf").build());
+        ReportJobDTO finished = awaitFinished(job.getId());
+
+        assertEquals(ReportJobService.FAILED, finished.getStatus());
+        assertEquals("db down", finished.getError());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void finishedJobs_SurviveRestartAndExpire() throws Exception {
+        service(5);
+        ReportJobDTO job = service.submit(inventory("xlsx"));
+        awaitFinished(job.getId());
+        service.shutdown();
+
+        ReportJobService restarted = service(5);
+        assertEquals(ReportJobService.DONE, restarted.getJob(job.getId()).getStatus());
+
+        restarted.removeExpired(System.currentTimeMillis() + TTL);
+        assertNull(restarted.getJob(job.getId()));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void recover_OnlyDeletesItsOwnLeftovers() throws Exception {
+        String orphan = UUID.randomUUID().toString();
+        Files.writeString(directory.resolve(orphan + ".part"), "partial");
+        Files.writeString(directory.resolve(orphan + ".pdf"), "expired");
+        Files.writeString(directory.resolve("notes.txt"), "not ours");
+        Files.writeString(directory.resolve("backup.pdf"), "not ours");
+        Files.createDirectories(directory.resolve("archive"));
+
+        service(5);
+
+        try (var files = Files.list(directory)) {
+            assertEquals(Set.of("notes.txt", "backup.pdf", "archive"),
+                    files.map(file -> file.getFileName().toString()).collect(Collectors.toSet()));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.event.EntityChangePublisher;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.BlockedDateRepository;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationBatchRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.repository.SoftwareRepository;
+import com.university.labmanager.service.allocation.LaptopAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Fires thousands of parallel single bookings at a small fleet and checks that
+ * no laptop ends up with two overlapping PENDING reservations.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservationBookingConcurrencyTest {
+
+    private static final int LAPTOPS = 16;
+    private static final int BOOKINGS = 4000;
+    private static final int THREADS = 32;
+
+    @Mock
+    private LaptopRepository laptopRepository;
+    @Mock
+    private BlockedDateRepository blockedDateRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private SoftwareRepository softwareRepository;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private LaptopAvailabilityIndex availabilityIndex;
+    @Mock
+    private ReservationBatchRepository reservationBatchRepository;
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+    @Mock
+    private LaptopAllocator laptopAllocator;
+
+    @InjectMocks
+    private ReservationService reservationService;
+
+    // Fake "table": committed reservations, scanned for overlaps like the JPQL query does
+    private final List<Reservation> saved = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        monday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        lenient().when(laptopRepository.findByIdForUpdate(anyLong())).thenAnswer(i -> {
+            Laptop laptop = new Laptop();
+            laptop.setId(i.getArgument(0));
+            return Optional.of(laptop);
+        });
+        lenient().when(reservationRepository.findOverlappingLaptopIds(anyCollection(), any(), any(), any()))
+                .thenAnswer(i -> {
+                    Collection<Long> ids = i.getArgument(0);
+                    LocalDateTime start = i.getArgument(1);
+                    LocalDateTime end = i.getArgument(2);
+                    Collection<ReservationStatus> statuses = i.getArgument(3);
+                    return saved.stream()
+                            .filter(r -> ids.contains(r.getLaptop().getId()) && statuses.contains(r.getStatus())
+                                    && r.getStartTime().isBefore(end) && r.getEndTime().isAfter(start))
+                            .map(r -> r.getLaptop().getId())
+                            .distinct()
+                            .collect(Collectors.toList());
+                });
+        lenient().when(reservationRepository.save(any(Reservation.class))).thenAnswer(i -> {
+            // Widen the check-then-insert window so a missing lock would show up
+            Thread.yield();
+            Reservation r = i.getArgument(0);
+            r.setId((long) nextId.incrementAndGet());
+            saved.add(r);
+            return r;
+        });
+    }
+
+    @Test
+    void parallelBookings_NeverOverlapOnTheSameLaptop() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        ThreadLocalRandom seed = ThreadLocalRandom.current();
+        for (int n = 0; n < BOOKINGS; n++) {
+            long laptopId = 1 + seed.nextInt(LAPTOPS);
+            int startHour = 7 + seed.nextInt(12);
+            int hours = 1 + seed.nextInt(Math.min(3, 21 - startHour));
+            LocalDateTime start = LocalDateTime.of(monday, LocalTime.of(startHour, 0));
+            LocalDateTime end = start.plusHours(hours);
+            futures.add(pool.submit(() -> {
+                go.await();
+                try {
+                    reservationService.createReservation(1L, laptopId, start, end, "Stress", "Prof");
+                    accepted.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        go.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(BOOKINGS, accepted.get() + rejected.get());
+        assertEquals(accepted.get(), saved.size());
+        assertTrue(accepted.get() >= LAPTOPS, "at least one booking per laptop should succeed");
+
+        Map<Long, List<Reservation>> byLaptop = saved.stream()
+                .collect(Collectors.groupingBy(r -> r.getLaptop().getId()));
+        for (List<Reservation> bookings : byLaptop.values()) {
+            for (int a = 0; a < bookings.size(); a++) {
+                for (int b = a + 1; b < bookings.size(); b++) {
+                    Reservation x = bookings.get(a);
+                    Reservation y = bookings.get(b);
+                    assertFalse(x.getStartTime().isBefore(y.getEndTime()) && y.getStartTime().isBefore(x.getEndTime()),
+                            "Overlapping reservations " + x.getId() + " and " + y.getId());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Reservation;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.User;
+import com.university.labmanager.model.enums.LaptopStatus;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.model.enums.Role;
+import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationRepository;
+import com.university.labmanager.repository.SoftwareRepository;
+import com.university.labmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk bookings for the same slot from two service instances (two nodes: each
+ * has its own striped locks, so only the database row locks order them) must
+ * never put two reservations on one laptop.
+ *
+ * H2 takes a REPEATABLE READ snapshot at the first statement, locking or not,
+ * so it cannot reproduce InnoDB's snapshot timing; the lock-before-read order
+ * that covers it is checked in ReservationServiceTest.
+ */
+@SpringBootTest
+class ReservationBulkBookingDatabaseTest {
+
+    private static final String SOFTWARE = "BulkBookingTestSuite";
+    private static final int LAPTOPS = 12;
+    private static final int PER_BOOKING = 3;
+    private static final int BOOKINGS = 16;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+    @Autowired
+    private LaptopRepository laptopRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private SoftwareRepository softwareRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Set<Long> laptopIds;
+
+    @BeforeEach
+    void setUp() {
+        Software suite = softwareRepository.findByName(SOFTWARE)
+                .orElseGet(() -> softwareRepository.save(Software.builder().name(SOFTWARE).version("1").build()));
+        userId = userRepository.findByMatricula("BULK-TEST")
+                .orElseGet(() -> userRepository.save(User.builder().matricula("BULK-TEST").fullName("Bulk Test")
+                        .email("bulk-test@university.edu").password("x").role(Role.ROLE_PROFFESOR).build()))
+                .getId();
+        laptopIds = new HashSet<>();
+        for (int i = 0; i < LAPTOPS; i++) {
+            Laptop laptop = laptopRepository.save(Laptop.builder().serialNumber("BULK-" + System.nanoTime() + "-" + i)
+                    .model("Bulk").status(LaptopStatus.AVAILABLE).installedSoftware(new HashSet<>(Set.of(suite)))
+                    .build());
+            laptopIds.add(laptop.getId());
+        }
+    }
+
+    @Test
+    void concurrentBulkBookingsOnTwoNodes_NeverShareALaptop() throws Exception {
+        // Fresh instances, as on two application nodes
+        ReservationService nodeA = beanFactory.createBean(ReservationService.class);
+        ReservationService nodeB = beanFactory.createBean(ReservationService.class);
+        LocalDateTime start = LocalDateTime.of(
+                LocalDate.now().plusWeeks(3).with(TemporalAdjusters.next(DayOfWeek.TUESDAY)), LocalTime.of(9, 0));
+        LocalDateTime end = start.plusHours(2);
+
+        ExecutorService pool = Executors.newFixedThreadPool(BOOKINGS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<List<Reservation>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                ReservationService node = i % 2 == 0 ? nodeA : nodeB;
+                results.add(pool.submit(() -> {
+                    go.await();
+                    try {
+                        return node.createBulkReservation(userId, PER_BOOKING, SOFTWARE, start, end, "Class");
+                    } catch (IllegalArgumentException e) {
+                        // Not enough laptops left
+                        return List.of();
+                    }
+                }));
+            }
+            go.countDown();
+            int booked = 0;
+            for (Future<List<Reservation>> result : results) {
+                booked += result.get(60, TimeUnit.SECONDS).size();
+            }
+
+            Map<Long, Long> perLaptop = reservationRepository.findByStatus(ReservationStatus.PENDING).stream()
+                    .filter(r -> laptopIds.contains(r.getLaptop().getId()) && r.getStartTime().equals(start))
+                    .collect(Collectors.groupingBy(r -> r.getLaptop().getId(), Collectors.counting()));
+            assertTrue(perLaptop.values().stream().allMatch(n -> n == 1), "Double-booked laptops: " + perLaptop);
+            assertEquals(booked, perLaptop.size());
+            // Every laptop can be handed out: the fleet is a multiple of the batch size
+            assertEquals(LAPTOPS, booked);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
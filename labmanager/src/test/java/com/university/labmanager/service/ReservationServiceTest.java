@@ -1,5 +1,6 @@
 package com.university.labmanager.service;
 
+import com.university.labmanager.event.EntityChangePublisher;
 import com.university.labmanager.model.Laptop;
 import com.university.labmanager.model.Reservation;
 import com.university.labmanager.model.User;
@@ -7,14 +8,22 @@ import com.university.labmanager.model.enums.LaptopStatus;
 import com.university.labmanager.model.enums.ReservationStatus;
 import com.university.labmanager.repository.BlockedDateRepository;
 import com.university.labmanager.repository.LaptopRepository;
+import com.university.labmanager.repository.ReservationBatchRepository;
 import com.university.labmanager.repository.ReservationRepository;
 import com.university.labmanager.repository.SoftwareRepository;
+import com.university.labmanager.service.allocation.FirstAvailableAllocationStrategy;
+import com.university.labmanager.service.allocation.LaptopAllocator;
+import com.university.labmanager.service.allocation.LaptopUsageCounters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -41,6 +50,17 @@ class ReservationServiceTest {
     private SoftwareRepository softwareRepository;
     @Mock
     private EmailService emailService;
+    @Mock
+    private LaptopAvailabilityIndex availabilityIndex;
+    @Mock
+    private ReservationBatchRepository reservationBatchRepository;
+    @Mock
+    private EntityChangePublisher entityChangePublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private LaptopAllocator laptopAllocator = new LaptopAllocator(
+            List.of(new FirstAvailableAllocationStrategy()), new LaptopUsageCounters(null), "first-available");
 
     @InjectMocks
     private ReservationService reservationService;
@@ -96,13 +116,30 @@ class ReservationServiceTest {
     void findSmartOptions_ValidRequest_ReturnsLaptops() {
         List<Laptop> mockLaptops = new ArrayList<>();
         mockLaptops.add(new Laptop());
-        when(laptopRepository.findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any()))
+        when(laptopRepository.findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any(), any()))
                 .thenReturn(mockLaptops);
+        when(laptopRepository.findAllWithSoftwareByIdIn(anyCollection())).thenReturn(mockLaptops);
 
         List<Laptop> result = reservationService.findSmartOptions("Python", validStart, validEnd);
 
         assertFalse(result.isEmpty());
-        verify(laptopRepository).findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any());
+        verify(laptopRepository).findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any(), any());
+        // Software of all candidates in one query, not one per laptop
+        verify(laptopRepository).findAllWithSoftwareByIdIn(anyCollection());
+    }
+
+    // 4b. Success: Served from the in-memory index when it is ready
+    @Test
+    void findSmartOptions_IndexReady_DoesNotQueryDatabase() {
+        when(availabilityIndex.isReady()).thenReturn(true);
+        when(availabilityIndex.findAvailable(eq(List.of("Python", "Docker Desktop")), any(), any()))
+                .thenReturn(List.of(new Laptop()));
+
+        List<Laptop> result = reservationService.findSmartOptions("Python, Docker Desktop", validStart, validEnd);
+
+        assertEquals(1, result.size());
+        verify(laptopRepository, never()).findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(),
+                any(), any());
     }
 
     // 5. Create Reservation: Success
@@ -113,7 +150,7 @@ class ReservationServiceTest {
         Laptop laptop = new Laptop();
         laptop.setId(laptopId);
 
-        when(laptopRepository.findById(laptopId)).thenReturn(Optional.of(laptop));
+        when(laptopRepository.findByIdForUpdate(laptopId)).thenReturn(Optional.of(laptop));
         when(reservationRepository.save(any(Reservation.class))).thenAnswer(i -> i.getArguments()[0]);
 
         Reservation res = reservationService.createReservation(userId, laptopId, validStart, validEnd, "Clase",
@@ -127,22 +164,87 @@ class ReservationServiceTest {
     // 6. Create Reservation: Laptop Not Found
     @Test
     void createReservation_LaptopNotFound_ThrowsException() {
-        when(laptopRepository.findById(999L)).thenReturn(Optional.empty());
+        when(laptopRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class,
                 () -> reservationService.createReservation(1L, 999L, validStart, validEnd, "Sub", "Prof"));
     }
 
+    // 6b. Create Reservation: Overlaps a PENDING/APPROVED/ACTIVE reservation
+    @Test
+    void createReservation_Overlapping_ThrowsException() {
+        Laptop laptop = new Laptop();
+        laptop.setId(100L);
+        when(laptopRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(laptop));
+        when(reservationRepository.findOverlappingLaptopIds(eq(List.of(100L)), eq(validStart), eq(validEnd),
+                eq(ReservationStatus.BLOCKING))).thenReturn(List.of(100L));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> reservationService.createReservation(1L, 100L, validStart, validEnd, "Sub", "Prof"));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
     // 7. Create Bulk Reservation: Not Enough Laptops
     @Test
     void createBulkReservation_NotEnoughLaptops_ThrowsException() {
-        when(laptopRepository.findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any()))
+        when(laptopRepository.findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
 
         assertThrows(IllegalArgumentException.class,
                 () -> reservationService.createBulkReservation(1L, 5, "Any", validStart, validEnd, "Class"));
     }
 
+    // 7b. Create Bulk Reservation: Laptop booked meanwhile is replaced by another candidate
+    @Test
+    void createBulkReservation_ConflictingCandidate_IsReplaced() {
+        List<Laptop> candidates = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Laptop laptop = new Laptop();
+            laptop.setId(id);
+            candidates.add(laptop);
+        }
+        when(laptopRepository.findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any(), any()))
+                .thenReturn(candidates);
+        when(laptopRepository.findAllWithSoftwareByIdIn(anyCollection())).thenReturn(candidates);
+        when(reservationRepository.findOverlappingLaptopIds(eq(List.of(1L, 2L)), any(), any(), any()))
+                .thenReturn(List.of(1L));
+
+        List<Reservation> result = reservationService.createBulkReservation(1L, 2, "Any", validStart, validEnd,
+                "Class");
+
+        assertEquals(List.of(2L, 3L), result.stream().map(r -> r.getLaptop().getId()).toList());
+        // Each attempt locks only the laptops it picked, in its own transaction
+        verify(laptopRepository).findAllByIdForUpdate(List.of(1L, 2L));
+        verify(laptopRepository).findAllByIdForUpdate(List.of(2L, 3L));
+        verify(reservationBatchRepository).insertAll(result);
+        verify(entityChangePublisher).reservationsInserted(result);
+    }
+
+    // 7c. Create Bulk Reservation: the booking transaction takes the row locks before any plain read
+    @Test
+    void createBulkReservation_LocksChosenLaptopsBeforeReading() {
+        Laptop laptop = new Laptop();
+        laptop.setId(1L);
+        when(laptopRepository.findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(), any(), any()))
+                .thenReturn(List.of(laptop));
+        when(laptopRepository.findAllWithSoftwareByIdIn(anyCollection())).thenReturn(List.of(laptop));
+
+        reservationService.createBulkReservation(1L, 1, "Any", validStart, validEnd, "Class");
+
+        // On REPEATABLE READ the first plain read fixes the snapshot the overlap check sees
+        InOrder order = inOrder(transactionManager, laptopRepository, blockedDateRepository, reservationRepository,
+                reservationBatchRepository);
+        order.verify(laptopRepository).findAvailableLaptopsWithSoftware(anyList(), anyBoolean(), anyLong(), any(),
+                any(), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(laptopRepository).findAllByIdForUpdate(List.of(1L));
+        order.verify(blockedDateRepository).existsByDate(validStart.toLocalDate());
+        order.verify(reservationRepository).findOverlappingLaptopIds(eq(List.of(1L)), any(), any(), any());
+        order.verify(reservationBatchRepository).insertAll(anyList());
+        order.verify(transactionManager).commit(any());
+    }
+
     // 8. Update Status: To ACTIVE (Should set Laptop to IN_USE)
     @Test
     void updateStatus_ToActive_UpdatesLaptopStatus() {
@@ -198,6 +300,31 @@ class ReservationServiceTest {
         verify(emailService).sendReturnConfirmation(any(), any());
     }
 
+    // 9b. Update Status: the confirmation cannot be queued, so the status change must not commit either
+    @Test
+    void updateStatus_OutboxFailure_Propagates() {
+        Long resId = 10L;
+        Reservation reservation = new Reservation();
+        reservation.setId(resId);
+        reservation.setStatus(ReservationStatus.ACTIVE);
+
+        Laptop laptop = new Laptop();
+        laptop.setStatus(LaptopStatus.IN_USE);
+        reservation.setLaptop(laptop);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@test.com");
+        reservation.setUser(user);
+
+        when(reservationRepository.findById(resId)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
+        doThrow(new DataIntegrityViolationException("outbox")).when(emailService).sendReturnConfirmation(any(), any());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> reservationService.updateStatus(resId, ReservationStatus.COMPLETED));
+    }
+
     // 10. Submit Feedback: Invalid Rating
     @Test
     void submitFeedback_InvalidRating_ThrowsException() {
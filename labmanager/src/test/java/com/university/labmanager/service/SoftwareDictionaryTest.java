@@ -0,0 +1,53 @@
+package com.university.labmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoftwareDictionaryTest {
+
+    private final SoftwareDictionary dictionary = new SoftwareDictionary();
+
+    @Test
+    void intern_AssignsDenseStableIds() {
+        assertEquals(0, dictionary.intern("Python"));
+        assertEquals(1, dictionary.intern("Docker Desktop"));
+        assertEquals(0, dictionary.intern("Python"));
+        assertEquals(2, dictionary.size());
+        assertEquals(-1, dictionary.idOf("Matlab"));
+    }
+
+    @Test
+    void containsAll_ChecksEveryRequiredBit() {
+        long[] laptop = dictionary.bitmapOf(List.of("Python", "Docker Desktop", "Xcode"));
+
+        assertTrue(SoftwareDictionary.containsAll(laptop, dictionary.requirementOf(List.of("Python", "Xcode"))));
+        assertTrue(SoftwareDictionary.containsAll(laptop, dictionary.requirementOf(List.of())));
+
+        dictionary.intern("Unity Hub");
+        assertFalse(SoftwareDictionary.containsAll(laptop, dictionary.requirementOf(List.of("Unity Hub"))));
+    }
+
+    @Test
+    void containsAll_WorksAcrossWordBoundaries() {
+        for (int i = 0; i < 70; i++) {
+            dictionary.intern("pkg-" + i);
+        }
+        long[] laptop = dictionary.bitmapOf(List.of("pkg-3"));
+        long[] required = dictionary.requirementOf(List.of("pkg-3", "pkg-68"));
+
+        assertEquals(2, required.length);
+        assertFalse(SoftwareDictionary.containsAll(laptop, required));
+        assertTrue(SoftwareDictionary.containsAll(dictionary.bitmapOf(List.of("pkg-3", "pkg-68", "pkg-1")), required));
+        assertEquals(3, SoftwareDictionary.cardinality(dictionary.bitmapOf(List.of("pkg-3", "pkg-68", "pkg-1"))));
+    }
+
+    @Test
+    void requirementOf_UnknownOrRepeatedName_ReturnsNull() {
+        dictionary.intern("Python");
+        assertNull(dictionary.requirementOf(List.of("Matlab")));
+        assertNull(dictionary.requirementOf(List.of("Python", "Python")));
+    }
+}
@@ -0,0 +1,133 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.model.SystemLog;
+import com.university.labmanager.model.SystemLogRollup;
+import com.university.labmanager.repository.SystemLogRepository;
+import com.university.labmanager.repository.SystemLogRollupRepository;
+import com.university.labmanager.scheduler.JobLeaseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SystemLogRetentionServiceTest {
+
+    @Mock
+    private SystemLogRepository logRepository;
+    @Mock
+    private SystemLogRollupRepository rollupRepository;
+    @Mock
+    private JobLeaseService jobLeases;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path archiveDir;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 3, 31, 3, 30);
+
+    private SystemLogRetentionService service() {
+        return new SystemLogRetentionService(logRepository, rollupRepository, jobLeases, transactionManager, true, 30, 2, 0,
+                archiveDir.toString());
+    }
+
+    private static SystemLog row(long id, LocalDateTime timestamp, SystemLog.LogLevel level, String category,
+            String username) {
+        return SystemLog.builder().id(id).timestamp(timestamp).level(level).category(category)
+                .message("m" + id).username(username).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void agedRows_AreArchivedRolledUpAndDeletedInChunks() throws Exception {
+        LocalDateTime old = LocalDateTime.of(2030, 2, 1, 10, 0);
+        when(logRepository.findOlderThan(eq(now.minusDays(30)), any())).thenReturn(
+                List.of(row(1, old.plusMinutes(5), SystemLog.LogLevel.INFO, "ACTION", "admin"),
+                        row(2, old.plusMinutes(40), SystemLog.LogLevel.INFO, "ACTION", "admin")),
+                List.of(row(3, old.plusMinutes(50), SystemLog.LogLevel.ERROR, "ERROR", "admin")));
+        // An earlier run already counted part of the 10:00 hour
+        SystemLogRollup existing = SystemLogRollup.builder().id(7L).hourStart(old).username("admin")
+                .category("ACTION").entryCount(4).build();
+        when(rollupRepository.findByHourStartGreaterThanEqualAndHourStartLessThanOrderByHourStartAsc(old,
+                old.plusHours(1))).thenReturn(List.of(existing));
+
+        assertEquals(3, service().applyRetention(now));
+
+        ArgumentCaptor<List<Long>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(logRepository, times(2)).deleteAllByIdInBatch(deleted.capture());
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), deleted.getAllValues());
+
+        // Only the INFO ACTION rows count, added to the existing hour
+        ArgumentCaptor<List<SystemLogRollup>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(saved.capture());
+        assertEquals(List.of(existing), saved.getValue());
+        assertEquals(6, existing.getEntryCount());
+
+        List<String> archived = readArchive();
+        assertEquals(3, archived.size());
+        assertTrue(archived.get(0).contains("\"message\":\"m1\""));
+        assertTrue(archived.get(2).contains("\"timestamp\":\"2030-02-01T10:50:00\""));
+    }
+
+    @Test
+    void nothingAged_LeavesTableAlone() throws Exception {
+        when(logRepository.findOlderThan(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, service().applyRetention(now));
+
+        verify(logRepository, never()).deleteAllByIdInBatch(any());
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void archiveFailure_KeepsRows() throws Exception {
+        when(logRepository.findOlderThan(any(), any())).thenReturn(
+                List.of(row(1, LocalDateTime.of(2030, 2, 1, 10, 0), SystemLog.LogLevel.INFO, "ACTION", "a")));
+        // A directory where this run's archive file should go
+        Files.createDirectory(archiveDir.resolve("system_logs_20300331T033000.ndjson.gz"));
+
+        assertEquals(0, service().applyRetention(now));
+        verify(logRepository, never()).deleteAllByIdInBatch(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void noArchiveDir_NeverDeletes() {
+        SystemLogRetentionService service = new SystemLogRetentionService(logRepository, rollupRepository, jobLeases,
+                transactionManager, true, 30, 2, 0, "");
+
+        service.applyRetention();
+        assertEquals(0, service.applyRetention(now));
+
+        verifyNoInteractions(logRepository, rollupRepository, jobLeases);
+    }
+
+    private List<String> readArchive() throws Exception {
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            Path archive = files.findFirst().orElseThrow();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+                return reader.lines().toList();
+            }
+        }
+    }
+}
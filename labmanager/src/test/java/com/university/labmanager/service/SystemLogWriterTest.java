@@ -0,0 +1,162 @@
+package com.university.labmanager.service;
+
+import com.university.labmanager.model.SystemLog;
+import com.university.labmanager.repository.SystemLogBatchRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SystemLogWriterTest {
+
+    @Mock
+    private SystemLogBatchRepository batchRepository;
+
+    @TempDir
+    Path directory;
+
+    // Not started: tests drive the drainer by hand
+    private SystemLogWriter writer(int capacity, String policy) {
+        return new SystemLogWriter(batchRepository, true, capacity, 3, 1000, policy, 1,
+                directory.resolve("logs.spill").toString());
+    }
+
+    private static SystemLog entry(int n) {
+        return SystemLog.builder().timestamp(LocalDateTime.of(2030, 1, 1, 10, 0)).level(SystemLog.LogLevel.INFO)
+                .category("ACTION").message("m" + n).username("admin").build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<SystemLog>> capturedBatches(int times) {
+        ArgumentCaptor<List<SystemLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(times)).insertAll(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void drain_WritesInBatches() {
+        SystemLogWriter writer = writer(16, "DROP");
+        for (int i = 0; i < 7; i++) {
+            writer.append(entry(i));
+        }
+
+        assertEquals(7, writer.drain());
+
+        List<List<SystemLog>> batches = capturedBatches(3);
+        assertEquals(List.of(3, 3, 1), batches.stream().map(List::size).toList());
+        assertEquals("m0", batches.get(0).get(0).getMessage());
+        assertEquals(7, writer.getWritten());
+        assertEquals(0, writer.getPending());
+    }
+
+    @Test
+    void dropPolicy_CountsOverflow() {
+        SystemLogWriter writer = writer(4, "DROP");
+        for (int i = 0; i < 6; i++) {
+            writer.append(entry(i));
+        }
+
+        assertEquals(4, writer.getPending());
+        assertEquals(2, writer.getDropped());
+    }
+
+    @Test
+    void blockPolicy_GivesUpAfterTimeout() {
+        SystemLogWriter writer = writer(2, "BLOCK");
+        writer.append(entry(0));
+        writer.append(entry(1));
+
+        // Nobody drains, so the caller waits block-timeout-ms and then drops
+        writer.append(entry(2));
+        assertEquals(1, writer.getDropped());
+    }
+
+    @Test
+    void spillPolicy_ReplaysOverflowLater() throws Exception {
+        SystemLogWriter writer = writer(2, "SPILL");
+        for (int i = 0; i < 4; i++) {
+            writer.append(entry(i));
+        }
+        assertEquals(2, writer.getSpilled());
+        assertEquals(2, Files.readAllLines(directory.resolve("logs.spill")).size());
+
+        writer.drain();
+        writer.replaySpill();
+
+        List<List<SystemLog>> batches = capturedBatches(2);
+        assertEquals("m2", batches.get(1).get(0).getMessage());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 10, 0), batches.get(1).get(0).getTimestamp());
+        assertFalse(Files.exists(directory.resolve("logs.spill")));
+    }
+
+    @Test
+    void failedBatch_IsCountedNotRethrown() {
+        doThrow(new RuntimeException("DB Error")).when(batchRepository).insertAll(anyList());
+        SystemLogWriter writer = writer(8, "DROP");
+        writer.append(entry(0));
+
+        assertDoesNotThrow(writer::drain);
+        assertEquals(1, writer.getFailed());
+    }
+
+    @Test
+    void shutdown_FlushesStartedWriter() {
+        SystemLogWriter writer = writer(8, "DROP");
+        writer.start();
+        writer.append(entry(0));
+
+        writer.shutdown();
+
+        assertEquals(1, writer.getWritten());
+        assertEquals(0, writer.getPending());
+    }
+
+    @Test
+    void ringBuffer_ConcurrentProducersLoseNothing() throws Exception {
+        SystemLogWriter.RingBuffer<Integer> ring = new SystemLogWriter.RingBuffer<>(1 << 14);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < 8; t++) {
+                int base = t * 1000;
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        assertTrue(ring.offer(base + i));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        Integer value;
+        while ((value = ring.poll()) != null) {
+            assertTrue(seen.add(value));
+        }
+        assertEquals(8000, seen.size());
+    }
+}
@@ -0,0 +1,136 @@
+package com.university.labmanager.service.allocation;
+
+import com.university.labmanager.event.EntityChangeType;
+import com.university.labmanager.event.ReservationChangedEvent;
+import com.university.labmanager.model.Laptop;
+import com.university.labmanager.model.Software;
+import com.university.labmanager.model.enums.ReservationStatus;
+import com.university.labmanager.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LaptopAllocatorTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private LaptopUsageCounters usageCounters;
+
+    private final List<LaptopAllocationStrategy> strategies = List.of(new FirstAvailableAllocationStrategy(),
+            new LeastUsedAllocationStrategy(), new WearLevelingAllocationStrategy(),
+            new BestFitSoftwareAllocationStrategy());
+
+    @BeforeEach
+    void setUp() {
+        usageCounters = new LaptopUsageCounters(reservationRepository);
+    }
+
+    @Test
+    void wearLeveling_PrefersFewestCompletedReservations() {
+        // [laptopId, reservations, completed]
+        when(reservationRepository.countUsageByLaptop(ReservationStatus.COMPLETED)).thenReturn(List.of(
+                new Object[] { 1L, 60L, 55L },
+                new Object[] { 2L, 10L, 9L },
+                new Object[] { 3L, 30L, 2L },
+                new Object[] { 4L, 5L, 2L }));
+        usageCounters.rebuild();
+
+        List<Laptop> chosen = allocator("wear-leveling").select(laptops(1, 5), 3);
+
+        // 5 was never used; 4 and 3 tie on completed, 4 has fewer reservations overall
+        assertEquals(List.of(5L, 4L, 3L), ids(chosen));
+    }
+
+    @Test
+    void leastUsed_FollowsCommittedEvents() {
+        when(reservationRepository.countUsageByLaptop(ReservationStatus.COMPLETED)).thenReturn(List.of());
+        usageCounters.rebuild();
+        usageCounters.onReservationChanged(created(1L));
+        usageCounters.onReservationChanged(created(1L));
+        usageCounters.onReservationChanged(created(2L));
+
+        assertEquals(List.of(3L, 2L), ids(allocator("least-used").select(laptops(1, 3), 2)));
+    }
+
+    @Test
+    void completedTransitions_AreCountedOnce() {
+        usageCounters.onReservationChanged(created(7L));
+        usageCounters.onReservationChanged(updated(7L, ReservationStatus.ACTIVE, ReservationStatus.COMPLETED));
+        // Re-saving a completed reservation (e.g. adding feedback) is not another use
+        usageCounters.onReservationChanged(updated(7L, ReservationStatus.COMPLETED, ReservationStatus.COMPLETED));
+
+        assertEquals(1, usageCounters.of(7L).getReservations());
+        assertEquals(1, usageCounters.of(7L).getCompleted());
+        assertEquals(0, usageCounters.of(8L).getCompleted());
+    }
+
+    @Test
+    void bestFit_PrefersLaptopsWithLessExtraSoftware() {
+        List<Laptop> candidates = laptops(1, 3);
+        candidates.get(0).setInstalledSoftware(software("Java", "Matlab")); // laptop 3
+        candidates.get(1).setInstalledSoftware(software("Java")); // laptop 2
+        candidates.get(2).setInstalledSoftware(software("Java", "Matlab", "AutoCAD")); // laptop 1
+
+        assertEquals(List.of(2L, 3L), ids(allocator("best-fit").select(candidates, 2)));
+    }
+
+    @Test
+    void select_FewerCandidatesThanQuantity_ReturnsAllInOrder() {
+        assertEquals(List.of(1L, 2L), ids(allocator("first-available").select(laptops(1, 2), 5)));
+        assertTrue(allocator("first-available").select(laptops(1, 2), 0).isEmpty());
+    }
+
+    @Test
+    void unknownStrategy_FailsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> allocator("round-robin"));
+    }
+
+    private LaptopAllocator allocator(String name) {
+        return new LaptopAllocator(strategies, usageCounters, name);
+    }
+
+    private static List<Laptop> laptops(long from, long to) {
+        List<Laptop> laptops = new ArrayList<>();
+        // Reverse order so results never depend on input order
+        for (long id = to; id >= from; id--) {
+            Laptop laptop = new Laptop();
+            laptop.setId(id);
+            laptops.add(laptop);
+        }
+        return laptops;
+    }
+
+    private static List<Long> ids(List<Laptop> laptops) {
+        return laptops.stream().map(Laptop::getId).toList();
+    }
+
+    private static Set<Software> software(String... names) {
+        Set<Software> software = new HashSet<>();
+        for (String name : names) {
+            software.add(Software.builder().name(name).version("1").build());
+        }
+        return software;
+    }
+
+    private static ReservationChangedEvent created(Long laptopId) {
+        return ReservationChangedEvent.builder().type(EntityChangeType.CREATED).reservationId(1L)
+                .laptopId(laptopId).status(ReservationStatus.PENDING).build();
+    }
+
+    private static ReservationChangedEvent updated(Long laptopId, ReservationStatus from, ReservationStatus to) {
+        return ReservationChangedEvent.builder().type(EntityChangeType.UPDATED).reservationId(1L)
+                .laptopId(laptopId).previousStatus(from).status(to).build();
+    }
+}